@@ -1,23 +1,60 @@
 package com.fulfilment.application.monolith;
 
+import com.fasterxml.jackson.core.io.JsonStringEncoder;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fulfilment.application.monolith.errors.DomainException;
+import com.fulfilment.application.monolith.errors.ErrorCode;
 import jakarta.inject.Inject;
 import jakarta.ws.rs.WebApplicationException;
+import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
 import jakarta.ws.rs.ext.ExceptionMapper;
 import jakarta.ws.rs.ext.Provider;
 import org.jboss.logging.Logger;
 
+import java.nio.charset.StandardCharsets;
+
 @Provider
 public class ErrorMapper implements ExceptionMapper<Exception> {
 
     private static final Logger LOGGER = Logger.getLogger(ErrorMapper.class);
 
+    /**
+     * Per error code, the body up to the {@code error} value and the whole body for the code's
+     * default message, so mapping a {@link DomainException} only escapes a custom message.
+     */
+    private static final byte[][] PREFIXES = new byte[ErrorCode.values().length][];
+    private static final byte[][] DEFAULT_BODIES = new byte[ErrorCode.values().length][];
+
+    static {
+        for (ErrorCode code : ErrorCode.values()) {
+            String prefix =
+                    "{\"exceptionType\":\""
+                            + code.exception().getClass().getName()
+                            + "\",\"code\":"
+                            + code.status()
+                            + ",\"errorCode\":\""
+                            + code.name()
+                            + "\",\"error\":";
+            PREFIXES[code.ordinal()] = prefix.getBytes(StandardCharsets.UTF_8);
+            DEFAULT_BODIES[code.ordinal()] = body(code, code.message());
+        }
+    }
+
     @Inject ObjectMapper objectMapper;
 
     @Override
     public Response toResponse(Exception exception) {
+        if (exception instanceof DomainException domain) {
+            LOGGER.debugf(
+                    "Client error %d %s: %s", domain.status(), domain.code(), domain.getMessage());
+            return Response.status(domain.status())
+                    .type(MediaType.APPLICATION_JSON_TYPE)
+                    .entity(body(domain.code(), domain.getMessage()))
+                    .build();
+        }
+
         int code = 500;
         if (exception instanceof WebApplicationException) {
             code = ((WebApplicationException) exception).getResponse().getStatus();
@@ -39,4 +76,20 @@ public class ErrorMapper implements ExceptionMapper<Exception> {
 
         return Response.status(code).entity(json).build();
     }
+
+    static byte[] body(ErrorCode code, String message) {
+        byte[] cached = DEFAULT_BODIES[code.ordinal()];
+        if (cached != null && (message == null || code.message().equals(message))) {
+            return cached;
+        }
+        byte[] prefix = PREFIXES[code.ordinal()];
+        byte[] escaped = JsonStringEncoder.getInstance().quoteAsUTF8(message);
+        byte[] body = new byte[prefix.length + escaped.length + 3];
+        System.arraycopy(prefix, 0, body, 0, prefix.length);
+        body[prefix.length] = '"';
+        System.arraycopy(escaped, 0, body, prefix.length + 1, escaped.length);
+        body[body.length - 2] = '"';
+        body[body.length - 1] = '}';
+        return body;
+    }
 }
@@ -0,0 +1,48 @@
+package com.fulfilment.application.monolith;
+
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.config.MeterFilter;
+import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
+import jakarta.enterprise.inject.Produces;
+import jakarta.inject.Singleton;
+
+import java.time.Duration;
+import java.util.Set;
+
+/**
+ * Latency timers scraped from {@code /q/metrics}. Every REST endpoint is timed by the built-in
+ * {@code http.server.requests} timer (tagged with method, URI template and status); use cases and
+ * repository queries carry {@code @Timed} with the names below. All of them publish percentile
+ * histograms, bounded to 1 ms – 30 s so each timer exports a few dozen buckets rather than the
+ * default 276.
+ */
+@Singleton
+public class LatencyMetrics {
+
+    public static final String HTTP_REQUESTS = "http.server.requests";
+    public static final String USE_CASES = "warehouse.usecases";
+    public static final String REPOSITORY_QUERIES = "repository.queries";
+
+    static final Set<String> HISTOGRAM_TIMERS =
+            Set.of(HTTP_REQUESTS, USE_CASES, REPOSITORY_QUERIES);
+
+    @Produces
+    @Singleton
+    public MeterFilter latencyHistograms() {
+        return new MeterFilter() {
+            @Override
+            public DistributionStatisticConfig configure(
+                    Meter.Id id, DistributionStatisticConfig config) {
+                if (id.getType() != Meter.Type.TIMER || !HISTOGRAM_TIMERS.contains(id.getName())) {
+                    return config;
+                }
+                return DistributionStatisticConfig.builder()
+                        .percentilesHistogram(true)
+                        .minimumExpectedValue((double) Duration.ofMillis(1).toNanos())
+                        .maximumExpectedValue((double) Duration.ofSeconds(30).toNanos())
+                        .build()
+                        .merge(config);
+            }
+        };
+    }
+}
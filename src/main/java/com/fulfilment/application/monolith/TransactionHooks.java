@@ -0,0 +1,70 @@
+package com.fulfilment.application.monolith;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.transaction.Synchronization;
+import jakarta.transaction.TransactionSynchronizationRegistry;
+import org.jboss.logging.Logger;
+
+import static jakarta.transaction.Status.STATUS_COMMITTED;
+
+/** Ties side effects to the outcome of the surrounding transaction. */
+@ApplicationScoped
+public class TransactionHooks {
+
+    private static final Logger LOGGER = Logger.getLogger(TransactionHooks.class);
+
+    @Inject
+    TransactionSynchronizationRegistry txSyncRegistry;
+
+    /** Runs {@code action} only once the surrounding transaction has committed. */
+    public void afterCommit(Runnable action) {
+        txSyncRegistry.registerInterposedSynchronization(
+                new Synchronization() {
+                    @Override
+                    public void beforeCompletion() {
+                        // no-op
+                    }
+
+                    @Override
+                    public void afterCompletion(int status) {
+                        if (status == STATUS_COMMITTED) {
+                            try {
+                                action.run();
+                            } catch (Exception e) {
+                                LOGGER.error("After-commit action failed", e);
+                            }
+                        }
+                    }
+                });
+    }
+
+    /**
+     * Runs {@code action} just before the transaction commits, while its locks are still held,
+     * and {@code undo} if the commit then fails. For state that the next holder of a lock must
+     * already see, which an after-commit hook would publish too late.
+     */
+    public void beforeCommit(Runnable action, Runnable undo) {
+        txSyncRegistry.registerInterposedSynchronization(
+                new Synchronization() {
+                    private boolean applied;
+
+                    @Override
+                    public void beforeCompletion() {
+                        action.run();
+                        applied = true;
+                    }
+
+                    @Override
+                    public void afterCompletion(int status) {
+                        if (applied && status != STATUS_COMMITTED) {
+                            try {
+                                undo.run();
+                            } catch (Exception e) {
+                                LOGGER.error("Undo of before-commit action failed", e);
+                            }
+                        }
+                    }
+                });
+    }
+}
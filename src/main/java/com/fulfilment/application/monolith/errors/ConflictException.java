@@ -0,0 +1,9 @@
+package com.fulfilment.application.monolith.errors;
+
+/** The request would duplicate something that already exists (HTTP 409). */
+public final class ConflictException extends DomainException {
+
+    ConflictException(ErrorCode code, String message) {
+        super(code, message);
+    }
+}
@@ -0,0 +1,25 @@
+package com.fulfilment.application.monolith.errors;
+
+/**
+ * A rejected request, identified by a stable {@link ErrorCode}. Rejections are expected traffic,
+ * not bugs, so no stack trace is captured: creating one costs about as much as any other small
+ * object, and {@code ErrorMapper} answers with a pre-serialised body. Created through {@link
+ * ErrorCode#exception()}, which picks the subclass matching the code's HTTP status.
+ */
+public abstract class DomainException extends RuntimeException {
+
+    private final ErrorCode code;
+
+    DomainException(ErrorCode code, String message) {
+        super(message, null, false, false);
+        this.code = code;
+    }
+
+    public ErrorCode code() {
+        return code;
+    }
+
+    public int status() {
+        return code.status();
+    }
+}
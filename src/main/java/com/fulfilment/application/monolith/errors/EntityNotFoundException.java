@@ -0,0 +1,9 @@
+package com.fulfilment.application.monolith.errors;
+
+/** The request refers to a warehouse, product or store that does not exist (HTTP 404). */
+public final class EntityNotFoundException extends DomainException {
+
+    EntityNotFoundException(ErrorCode code, String message) {
+        super(code, message);
+    }
+}
@@ -0,0 +1,95 @@
+package com.fulfilment.application.monolith.errors;
+
+import java.util.Locale;
+
+/**
+ * Stable identifiers of every domain rejection, returned as {@code errorCode} in error bodies and
+ * used as the {@code reason}/{@code limit} tag of the rejection counters. Names are part of the
+ * API: add new codes, never rename existing ones.
+ */
+public enum ErrorCode {
+
+    // warehouse payload and lifecycle
+    MISSING_PAYLOAD(422, "Warehouse payload is required"),
+    MISSING_BUSINESS_UNIT_CODE(422, "businessUnitCode is required"),
+    MISSING_LOCATION(422, "location is required"),
+    INVALID_CAPACITY(422, "capacity must be > 0"),
+    INVALID_STOCK(422, "stock must be >= 0"),
+    STOCK_EXCEEDS_CAPACITY(422, "Stock cannot exceed capacity"),
+    DUPLICATE_BUSINESS_UNIT_CODE(409, "businessUnitCode already exists"),
+    UNKNOWN_LOCATION(422, "Invalid location"),
+    LOCATION_WAREHOUSE_LIMIT(422, "Max number of warehouses reached for location"),
+    LOCATION_CAPACITY_LIMIT(422, "Location max capacity exceeded"),
+    REPLACEMENT_LOCATION_CHANGED(422, "Replacement warehouse must be in the same location"),
+    REPLACEMENT_STOCK_MISMATCH(422, "Replacement warehouse stock must match existing stock"),
+    REPLACEMENT_CAPACITY_BELOW_STOCK(
+            422, "Replacement warehouse capacity must accommodate existing stock"),
+    MISSING_WAREHOUSE_ID(422, "Warehouse id is required"),
+    WAREHOUSE_NOT_FOUND(404, "Warehouse not found"),
+
+    // fulfillment assignments
+    EMPTY_BATCH(422, "Batch contains no assignments."),
+    MISSING_ASSIGNMENT_PAYLOAD(422, "Fulfillment assignment payload is required."),
+    ASSIGNMENT_ID_SET(422, "Id was invalidly set on request."),
+    MISSING_WAREHOUSE_CODE(422, "warehouseBusinessUnitCode is required."),
+    MISSING_PRODUCT_ID(422, "productId is required."),
+    MISSING_STORE_ID(422, "storeId is required."),
+    PRODUCT_NOT_FOUND(404, "Product not found."),
+    STORE_NOT_FOUND(404, "Store not found."),
+    ASSIGNMENT_EXISTS(409, "This fulfillment assignment already exists."),
+    MAX_WAREHOUSES_PER_PRODUCT_PER_STORE(422, "Maximum warehouses per product per store reached."),
+    MAX_WAREHOUSES_PER_STORE(422, "Maximum warehouses per store reached."),
+    MAX_PRODUCTS_PER_WAREHOUSE(422, "Maximum product types per warehouse reached."),
+    INVALID_PAGE_LIMIT(422, "limit is out of range."),
+    MISSING_ROUTE_PARAMETERS(422, "storeId and productId are required."),
+    BATCH_TOO_LARGE(422, "Batch contains too many assignments."),
+    ASSIGNMENT_NOT_FOUND(404, "Fulfillment assignment not found."),
+    MISSING_LIMITS_PAYLOAD(422, "Limits payload is required."),
+    INVALID_LIMIT(422, "Limits must be at least 1."),
+
+    // supply planning
+    MISSING_DEMAND(422, "demand is required."),
+    DEMAND_TOO_LARGE(422, "demand contains too many pairs."),
+    INCOMPLETE_DEMAND_ITEM(422, "storeId and productId are required."),
+    UNKNOWN_OBJECTIVE(422, "objective must be MIN_WAREHOUSES or BALANCE."),
+    INVALID_TIME_BUDGET(422, "timeBudgetMillis is out of range."),
+    PLAN_INCOMPLETE(409, "Plan leaves store/product pairs uncovered; nothing was applied."),
+    PLANNER_BUSY(503, "Too many plans are running; retry later.");
+
+    private final int status;
+    private final String message;
+    private final String reason;
+
+    ErrorCode(int status, String message) {
+        this.status = status;
+        this.message = message;
+        this.reason = name().toLowerCase(Locale.ROOT).replace('_', '-');
+    }
+
+    public int status() {
+        return status;
+    }
+
+    /** The message used when the rejection carries no request-specific detail. */
+    public String message() {
+        return message;
+    }
+
+    /** Lower-case, dash-separated form of the name, as used in metric tags. */
+    public String reason() {
+        return reason;
+    }
+
+    public DomainException exception() {
+        return exception(message);
+    }
+
+    public DomainException exception(String message) {
+        return switch (status) {
+            case 404 -> new EntityNotFoundException(this, message);
+            case 409 -> new ConflictException(this, message);
+            case 503 -> new UnavailableException(this, message);
+            default -> new ValidationException(this, message);
+        };
+    }
+}
@@ -0,0 +1,40 @@
+package com.fulfilment.application.monolith.errors;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Metrics;
+
+/**
+ * Counts rejections in one metric, tagged with the {@link ErrorCode#reason()}, and creates the
+ * exception to throw. Each code's counter is resolved once and then reused, so counting a
+ * rejection is a single increment.
+ */
+public final class RejectionCounter {
+
+    private final String metric;
+    private final String tag;
+    private final Counter[] counters = new Counter[ErrorCode.values().length];
+
+    public RejectionCounter(String metric, String tag) {
+        this.metric = metric;
+        this.tag = tag;
+    }
+
+    public DomainException reject(ErrorCode code) {
+        return reject(code, code.message());
+    }
+
+    public DomainException reject(ErrorCode code, String message) {
+        counter(code).increment();
+        return code.exception(message);
+    }
+
+    private Counter counter(ErrorCode code) {
+        // a racing thread registers the same meter id and gets the same counter back
+        Counter counter = counters[code.ordinal()];
+        if (counter == null) {
+            counter = Metrics.counter(metric, tag, code.reason());
+            counters[code.ordinal()] = counter;
+        }
+        return counter;
+    }
+}
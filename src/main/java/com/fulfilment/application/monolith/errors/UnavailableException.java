@@ -0,0 +1,9 @@
+package com.fulfilment.application.monolith.errors;
+
+/** The request is valid but cannot be served right now; the client should retry (HTTP 503). */
+public final class UnavailableException extends DomainException {
+
+    UnavailableException(ErrorCode code, String message) {
+        super(code, message);
+    }
+}
@@ -0,0 +1,9 @@
+package com.fulfilment.application.monolith.errors;
+
+/** The request breaks a business rule (HTTP 422). */
+public final class ValidationException extends DomainException {
+
+    ValidationException(ErrorCode code, String message) {
+        super(code, message);
+    }
+}
@@ -0,0 +1,17 @@
+package com.fulfilment.application.monolith.fulfillment;
+
+/**
+ * Everything {@code POST /fulfillment} needs to validate a new assignment, computed by {@link
+ * FulfillmentRepository#checkAssignment} in a single statement.
+ */
+public record AssignmentCheck(
+        boolean warehouseExists,
+        boolean productExists,
+        boolean storeExists,
+        boolean assignmentExists,
+        long warehousesForProductAtStore,
+        boolean warehouseFulfillsStore,
+        long warehousesForStore,
+        boolean warehouseStoresProduct,
+        long productsForWarehouse) {
+}
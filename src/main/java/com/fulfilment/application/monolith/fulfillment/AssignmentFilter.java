@@ -0,0 +1,19 @@
+package com.fulfilment.application.monolith.fulfillment;
+
+/** Optional equality filters of an assignment listing; {@code null} matches everything. */
+public record AssignmentFilter(Long storeId, String warehouseBusinessUnitCode, Long productId) {
+
+    public static final AssignmentFilter ALL = new AssignmentFilter(null, null, null);
+
+    public static AssignmentFilter store(Long storeId) {
+        return new AssignmentFilter(storeId, null, null);
+    }
+
+    public static AssignmentFilter warehouse(String warehouseBusinessUnitCode) {
+        return new AssignmentFilter(null, warehouseBusinessUnitCode, null);
+    }
+
+    public static AssignmentFilter product(Long productId) {
+        return new AssignmentFilter(null, null, productId);
+    }
+}
@@ -0,0 +1,5 @@
+package com.fulfilment.application.monolith.fulfillment;
+
+/** The natural key of a fulfillment assignment. */
+public record AssignmentKey(String warehouseBusinessUnitCode, long productId, long storeId) {
+}
@@ -0,0 +1,3 @@
+package com.fulfilment.application.monolith.fulfillment;
+
+public record BulkDeleteResult(long deleted) {}
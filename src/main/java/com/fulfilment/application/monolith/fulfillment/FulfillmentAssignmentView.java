@@ -0,0 +1,11 @@
+package com.fulfilment.application.monolith.fulfillment;
+
+import java.time.LocalDateTime;
+
+/** Read-only projection of a {@link FulfillmentAssignment}, serialised with the same fields. */
+public record FulfillmentAssignmentView(
+        Long id,
+        String warehouseBusinessUnitCode,
+        Long productId,
+        Long storeId,
+        LocalDateTime createdAt) {}
@@ -0,0 +1,139 @@
+package com.fulfilment.application.monolith.fulfillment;
+
+import com.fulfilment.application.monolith.errors.DomainException;
+import com.fulfilment.application.monolith.errors.ErrorCode;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.transaction.Transactional;
+import org.jboss.logging.Logger;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Creates a set of assignments all-or-nothing. References are validated with one {@code IN} query
+ * per entity type, and the limits are checked against a private {@link FulfillmentIndex} holding
+ * the existing assignments of the batch's stores and warehouses, to which every accepted item is
+ * added before the next one is checked. The index is read only once {@link FulfillmentLocks} holds
+ * every store and warehouse of the batch.
+ */
+@ApplicationScoped
+public class FulfillmentBatchCreator {
+
+    private static final Logger LOGGER = Logger.getLogger(FulfillmentBatchCreator.class);
+
+    @Inject
+    FulfillmentRepository fulfillmentRepository;
+    @Inject
+    FulfillmentLocks fulfillmentLocks;
+    @Inject
+    FulfillmentLimitService limitService;
+
+    @Transactional
+    public List<FulfillmentAssignment> create(List<FulfillmentAssignment> assignments) {
+        if (assignments == null || assignments.isEmpty()) {
+            throw ErrorCode.EMPTY_BATCH.exception();
+        }
+
+        Set<String> codes = new LinkedHashSet<>();
+        Set<Long> productIds = new LinkedHashSet<>();
+        Set<Long> storeIds = new LinkedHashSet<>();
+        for (int i = 0; i < assignments.size(); i++) {
+            FulfillmentAssignment assignment = assignments.get(i);
+            validate(i, assignment);
+            codes.add(assignment.warehouseBusinessUnitCode);
+            productIds.add(assignment.productId);
+            storeIds.add(assignment.storeId);
+        }
+
+        // Locked before the existence checks: an archive holds the warehouse lock until it
+        // commits, so a batch that waited on it sees the warehouse as archived.
+        fulfillmentLocks.lock(storeIds, codes);
+        requireAll(
+                ErrorCode.WAREHOUSE_NOT_FOUND,
+                "Warehouses",
+                codes,
+                fulfillmentRepository.findActiveWarehouseCodes(codes));
+        requireAll(
+                ErrorCode.PRODUCT_NOT_FOUND,
+                "Products",
+                productIds,
+                fulfillmentRepository.findExistingProductIds(productIds));
+        requireAll(
+                ErrorCode.STORE_NOT_FOUND,
+                "Stores",
+                storeIds,
+                fulfillmentRepository.findExistingStoreIds(storeIds));
+
+        FulfillmentIndex index = fulfillmentRepository.loadIndex(storeIds, codes);
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < assignments.size(); i++) {
+            FulfillmentAssignment assignment = assignments.get(i);
+            AssignmentCheck check =
+                    index.check(
+                            assignment.warehouseBusinessUnitCode,
+                            assignment.productId,
+                            assignment.storeId,
+                            true,
+                            true,
+                            true);
+            if (check.assignmentExists()) {
+                throw ErrorCode.ASSIGNMENT_EXISTS.exception(
+                        "Item " + i + ": this fulfillment assignment already exists.");
+            }
+            try {
+                limitService
+                        .forPair(assignment.storeId, assignment.warehouseBusinessUnitCode)
+                        .enforce(assignment, check);
+            } catch (DomainException e) {
+                throw e.code().exception("Item " + i + ": " + e.getMessage());
+            }
+            index.add(
+                    assignment.warehouseBusinessUnitCode,
+                    assignment.productId,
+                    assignment.storeId);
+            assignment.createdAt = now;
+        }
+
+        fulfillmentRepository.addAll(assignments);
+        LOGGER.infof("Created %d assignments in one batch", assignments.size());
+        return assignments;
+    }
+
+    private static void validate(int i, FulfillmentAssignment assignment) {
+        if (assignment == null) {
+            throw ErrorCode.MISSING_ASSIGNMENT_PAYLOAD.exception(
+                    "Item " + i + ": payload is required.");
+        }
+        if (assignment.id != null) {
+            throw ErrorCode.ASSIGNMENT_ID_SET.exception("Item " + i + ": id was invalidly set.");
+        }
+        if (assignment.warehouseBusinessUnitCode == null
+                || assignment.warehouseBusinessUnitCode.isBlank()) {
+            throw ErrorCode.MISSING_WAREHOUSE_CODE.exception(
+                    "Item " + i + ": warehouseBusinessUnitCode is required.");
+        }
+        if (assignment.productId == null) {
+            throw ErrorCode.MISSING_PRODUCT_ID.exception("Item " + i + ": productId is required.");
+        }
+        if (assignment.storeId == null) {
+            throw ErrorCode.MISSING_STORE_ID.exception("Item " + i + ": storeId is required.");
+        }
+    }
+
+    static <T> void requireAll(
+            ErrorCode code, String kind, Set<T> requested, Set<T> found) {
+        List<T> missing = new ArrayList<>();
+        for (T key : requested) {
+            if (!found.contains(key)) {
+                missing.add(key);
+            }
+        }
+        if (!missing.isEmpty()) {
+            throw code.exception(kind + " not found: " + missing + ".");
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.fulfilment.application.monolith.fulfillment;
+
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.hibernate.jpa.HibernateHints;
+import org.jboss.logging.Logger;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Application-wide {@link FulfillmentIndex} ({@code fulfillment.index.enabled}). It is loaded at
+ * startup and kept current by {@link FulfillmentRepository} as writes commit; until it is loaded,
+ * callers fall back to the database.
+ *
+ * <p>Only enable it for a single-instance deployment. The {@link FulfillmentLocks} that serialise
+ * limit checks are cluster-wide, but this index only sees the writes of its own JVM: with more
+ * instances, the next lock holder on another node would check the limits against stale counts.
+ */
+@ApplicationScoped
+public class FulfillmentConstraintIndex {
+
+    private static final Logger LOGGER = Logger.getLogger(FulfillmentConstraintIndex.class);
+
+    @Inject
+    EntityManager em;
+
+    @ConfigProperty(name = "fulfillment.index.enabled", defaultValue = "true")
+    boolean enabled;
+
+    private final FulfillmentIndex index = new FulfillmentIndex();
+    private volatile boolean ready;
+
+    void onStart(@Observes StartupEvent event) {
+        if (enabled) {
+            rebuild();
+        }
+    }
+
+    public boolean ready() {
+        return ready;
+    }
+
+    public FulfillmentIndex index() {
+        return index;
+    }
+
+    /** Applies a committed change; a no-op when the index is disabled. */
+    public void apply(Consumer<FulfillmentIndex> change) {
+        if (enabled) {
+            change.accept(index);
+        }
+    }
+
+    void rebuild() {
+        ready = false;
+        index.clear();
+        List<Object[]> rows = QuarkusTransaction.requiringNew().call(this::readAll);
+        for (Object[] row : rows) {
+            index.add((String) row[0], (Long) row[1], (Long) row[2]);
+        }
+        ready = true;
+        LOGGER.infof("Fulfillment index loaded with %d assignments", index.size());
+    }
+
+    private List<Object[]> readAll() {
+        return em.createQuery(
+                        "select f.warehouseBusinessUnitCode, f.productId, f.storeId"
+                                + " from FulfillmentAssignment f",
+                        Object[].class)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultList();
+    }
+}
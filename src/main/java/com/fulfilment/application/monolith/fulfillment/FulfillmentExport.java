@@ -0,0 +1,117 @@
+package com.fulfilment.application.monolith.fulfillment;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.core.StreamingOutput;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+
+/**
+ * Writes assignment listings straight from the database cursor to the response, as one JSON array,
+ * as NDJSON (one object per line) or as a binary {@link FulfillmentMatrixWriter fulfillment
+ * matrix}. Memory use is bounded by the fetch size, whatever the size of the listing.
+ *
+ * <p>The cursor lives in one transaction for the whole download, so a slow client keeps it open.
+ * That transaction runs with {@code fulfillment.export.transaction-timeout} instead of the much
+ * shorter default, which would otherwise abort a large export part-way through and leave the
+ * client with a truncated body.
+ */
+@ApplicationScoped
+public class FulfillmentExport {
+
+    @Inject
+    FulfillmentRepository fulfillmentRepository;
+    @Inject
+    ObjectMapper objectMapper;
+
+    @ConfigProperty(name = "fulfillment.export.transaction-timeout", defaultValue = "30m")
+    Duration transactionTimeout;
+
+    public StreamingOutput jsonArray(AssignmentFilter filter) {
+        return output -> write(output, filter, false);
+    }
+
+    public StreamingOutput ndjson(AssignmentFilter filter) {
+        return output -> write(output, filter, true);
+    }
+
+    /** The whole relation in the compact matrix format, optionally gzip-compressed. */
+    public StreamingOutput matrix(boolean gzip) {
+        return output -> {
+            FulfillmentMatrixWriter writer = new FulfillmentMatrixWriter(output, gzip);
+            try {
+                QuarkusTransaction.requiringNew()
+                        .timeout((int) transactionTimeout.toSeconds())
+                        .run(
+                                () ->
+                                        fulfillmentRepository.streamKeysByStore(
+                                                key -> writeRow(writer, key)));
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            writer.finish();
+        };
+    }
+
+    private void write(OutputStream output, AssignmentFilter filter, boolean ndjson)
+            throws IOException {
+        // flushing after every row would turn each one into its own network write
+        ObjectWriter writer =
+                objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(output)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            if (ndjson) {
+                // each row ends its own line instead of being separated by a space
+                generator.setRootValueSeparator(null);
+            } else {
+                generator.writeStartArray();
+            }
+            try {
+                QuarkusTransaction.requiringNew()
+                        .timeout((int) transactionTimeout.toSeconds())
+                        .run(
+                                () ->
+                                        fulfillmentRepository.streamViews(
+                                                filter,
+                                                view -> writeRow(writer, generator, view, ndjson)));
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            if (!ndjson) {
+                generator.writeEndArray();
+            }
+        }
+    }
+
+    private static void writeRow(
+            ObjectWriter writer,
+            JsonGenerator generator,
+            FulfillmentAssignmentView view,
+            boolean ndjson) {
+        try {
+            writer.writeValue(generator, view);
+            if (ndjson) {
+                generator.writeRaw('\n');
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void writeRow(FulfillmentMatrixWriter writer, AssignmentKey key) {
+        try {
+            writer.write(key.storeId(), key.productId(), key.warehouseBusinessUnitCode());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,311 @@
+package com.fulfilment.application.monolith.fulfillment;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.LongPredicate;
+
+/**
+ * Compact in-memory copy of the store × warehouse × product assignment relation that answers
+ * every limit check in constant time.
+ *
+ * <p>Warehouse business unit codes are dictionary-encoded to small ints. Each store keeps a sorted
+ * {@code long[]} of {@code productId << WAREHOUSE_BITS | warehouse} pairs (a product's warehouses
+ * are one contiguous run) plus per-warehouse reference counts; each warehouse keeps a per-product
+ * count of the stores it serves that product for. The limits keep all of these arrays tiny.
+ */
+public class FulfillmentIndex {
+
+    static final int WAREHOUSE_BITS = 20;
+    static final long MAX_PRODUCT_ID = (1L << (Long.SIZE - 1 - WAREHOUSE_BITS)) - 1;
+
+    private final Map<String, Integer> warehouseIds = new HashMap<>();
+    private final List<String> warehouseCodes = new ArrayList<>();
+    private final List<LongObjectMap<int[]>> warehouseProducts = new ArrayList<>();
+    private final LongObjectMap<StoreAssignments> stores = new LongObjectMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private long size;
+
+    /** Adds the assignment; returns {@code false} if it was already indexed. */
+    public boolean add(String warehouseBusinessUnitCode, long productId, long storeId) {
+        if (productId < 0 || productId > MAX_PRODUCT_ID) {
+            throw new IllegalArgumentException("Product id out of range: " + productId);
+        }
+        lock.writeLock().lock();
+        try {
+            int warehouse = warehouseId(warehouseBusinessUnitCode);
+            StoreAssignments store = stores.computeIfAbsent(storeId, id -> new StoreAssignments());
+            if (!store.add(productId, warehouse)) {
+                return false;
+            }
+            warehouseProducts.get(warehouse).computeIfAbsent(productId, id -> new int[1])[0]++;
+            size++;
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(String warehouseBusinessUnitCode, long productId, long storeId) {
+        lock.writeLock().lock();
+        try {
+            Integer warehouse = warehouseIds.get(warehouseBusinessUnitCode);
+            StoreAssignments store = stores.get(storeId);
+            if (warehouse == null || store == null || !store.remove(productId, warehouse)) {
+                return;
+            }
+            releaseProduct(warehouse, productId);
+            if (store.size == 0) {
+                stores.remove(storeId);
+            }
+            size--;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void removeStore(long storeId) {
+        lock.writeLock().lock();
+        try {
+            StoreAssignments store = stores.get(storeId);
+            if (store == null) {
+                return;
+            }
+            for (int i = 0; i < store.size; i++) {
+                releaseProduct(warehouseOf(store.pairs[i]), productOf(store.pairs[i]));
+            }
+            size -= store.size;
+            stores.remove(storeId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** Scans every store; products are deleted rarely enough not to justify a reverse map. */
+    public void removeProduct(long productId) {
+        removeMatching(pair -> productOf(pair) == productId);
+    }
+
+    public void removeWarehouse(String warehouseBusinessUnitCode) {
+        Integer warehouse;
+        lock.readLock().lock();
+        try {
+            warehouse = warehouseIds.get(warehouseBusinessUnitCode);
+        } finally {
+            lock.readLock().unlock();
+        }
+        if (warehouse != null) {
+            removeMatching(pair -> warehouseOf(pair) == warehouse);
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            warehouseIds.clear();
+            warehouseCodes.clear();
+            warehouseProducts.clear();
+            stores.clear();
+            size = 0;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public long size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public boolean contains(String warehouseBusinessUnitCode, long productId, long storeId) {
+        lock.readLock().lock();
+        try {
+            Integer warehouse = warehouseIds.get(warehouseBusinessUnitCode);
+            StoreAssignments store = stores.get(storeId);
+            return warehouse != null && store != null && store.contains(productId, warehouse);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Fills in the assignment part of an {@link AssignmentCheck} under one read lock; existence of
+     * the referenced rows is supplied by the caller.
+     */
+    public AssignmentCheck check(
+            String warehouseBusinessUnitCode,
+            long productId,
+            long storeId,
+            boolean warehouseExists,
+            boolean productExists,
+            boolean storeExists) {
+        lock.readLock().lock();
+        try {
+            Integer warehouse = warehouseIds.get(warehouseBusinessUnitCode);
+            StoreAssignments store = stores.get(storeId);
+            LongObjectMap<int[]> products =
+                    warehouse == null ? null : warehouseProducts.get(warehouse);
+            return new AssignmentCheck(
+                    warehouseExists,
+                    productExists,
+                    storeExists,
+                    warehouse != null && store != null && store.contains(productId, warehouse),
+                    store == null ? 0 : store.countWarehouses(productId),
+                    warehouse != null && store != null && store.fulfilledBy(warehouse),
+                    store == null ? 0 : store.warehouseCount,
+                    products != null && products.get(productId) != null,
+                    products == null ? 0 : products.size());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void removeMatching(LongPredicate matches) {
+        lock.writeLock().lock();
+        try {
+            List<Long> emptied = new ArrayList<>();
+            stores.forEach(
+                    (storeId, store) -> {
+                        for (int i = store.size - 1; i >= 0; i--) {
+                            long pair = store.pairs[i];
+                            if (matches.test(pair)) {
+                                store.remove(productOf(pair), warehouseOf(pair));
+                                releaseProduct(warehouseOf(pair), productOf(pair));
+                                size--;
+                            }
+                        }
+                        if (store.size == 0) {
+                            emptied.add(storeId);
+                        }
+                    });
+            emptied.forEach(stores::remove);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private int warehouseId(String warehouseBusinessUnitCode) {
+        Integer id = warehouseIds.get(warehouseBusinessUnitCode);
+        if (id != null) {
+            return id;
+        }
+        int next = warehouseCodes.size();
+        if (next == 1 << WAREHOUSE_BITS) {
+            throw new IllegalStateException("Too many warehouses for the fulfillment index");
+        }
+        warehouseIds.put(warehouseBusinessUnitCode, next);
+        warehouseCodes.add(warehouseBusinessUnitCode);
+        warehouseProducts.add(new LongObjectMap<>(8));
+        return next;
+    }
+
+    private void releaseProduct(int warehouse, long productId) {
+        LongObjectMap<int[]> products = warehouseProducts.get(warehouse);
+        int[] stores = products.get(productId);
+        if (stores != null && --stores[0] == 0) {
+            products.remove(productId);
+        }
+    }
+
+    private static long pair(long productId, int warehouse) {
+        return productId << WAREHOUSE_BITS | warehouse;
+    }
+
+    private static long productOf(long pair) {
+        return pair >>> WAREHOUSE_BITS;
+    }
+
+    private static int warehouseOf(long pair) {
+        return (int) (pair & ((1 << WAREHOUSE_BITS) - 1));
+    }
+
+    /** The assignments of one store. */
+    private static final class StoreAssignments {
+
+        long[] pairs = new long[4];
+        int size;
+        int[] warehouses = new int[2];
+        int[] warehouseRefs = new int[2];
+        int warehouseCount;
+
+        boolean contains(long productId, int warehouse) {
+            return Arrays.binarySearch(pairs, 0, size, pair(productId, warehouse)) >= 0;
+        }
+
+        int countWarehouses(long productId) {
+            int from = insertionPoint(pair(productId, 0));
+            int to = insertionPoint(pair(productId + 1, 0));
+            return to - from;
+        }
+
+        boolean fulfilledBy(int warehouse) {
+            return slotOf(warehouse) >= 0;
+        }
+
+        boolean add(long productId, int warehouse) {
+            long pair = pair(productId, warehouse);
+            int at = Arrays.binarySearch(pairs, 0, size, pair);
+            if (at >= 0) {
+                return false;
+            }
+            at = -at - 1;
+            if (size == pairs.length) {
+                pairs = Arrays.copyOf(pairs, size * 2);
+            }
+            System.arraycopy(pairs, at, pairs, at + 1, size - at);
+            pairs[at] = pair;
+            size++;
+
+            int slot = slotOf(warehouse);
+            if (slot < 0) {
+                if (warehouseCount == warehouses.length) {
+                    warehouses = Arrays.copyOf(warehouses, warehouseCount * 2);
+                    warehouseRefs = Arrays.copyOf(warehouseRefs, warehouseCount * 2);
+                }
+                slot = warehouseCount++;
+                warehouses[slot] = warehouse;
+            }
+            warehouseRefs[slot]++;
+            return true;
+        }
+
+        boolean remove(long productId, int warehouse) {
+            int at = Arrays.binarySearch(pairs, 0, size, pair(productId, warehouse));
+            if (at < 0) {
+                return false;
+            }
+            System.arraycopy(pairs, at + 1, pairs, at, size - at - 1);
+            size--;
+
+            int slot = slotOf(warehouse);
+            if (--warehouseRefs[slot] == 0) {
+                warehouseCount--;
+                warehouses[slot] = warehouses[warehouseCount];
+                warehouseRefs[slot] = warehouseRefs[warehouseCount];
+            }
+            return true;
+        }
+
+        private int insertionPoint(long pair) {
+            int at = Arrays.binarySearch(pairs, 0, size, pair);
+            return at >= 0 ? at : -at - 1;
+        }
+
+        private int slotOf(int warehouse) {
+            for (int i = 0; i < warehouseCount; i++) {
+                if (warehouses[i] == warehouse) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package com.fulfilment.application.monolith.fulfillment;
+
+import java.util.List;
+
+/** Response of {@code GET /fulfillment/limits}: the defaults and every stored override. */
+public record FulfillmentLimitOverview(
+        FulfillmentLimits defaults,
+        List<StoreFulfillmentLimit> stores,
+        List<WarehouseFulfillmentLimit> warehouses) {}
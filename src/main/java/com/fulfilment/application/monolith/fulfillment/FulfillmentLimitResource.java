@@ -0,0 +1,138 @@
+package com.fulfilment.application.monolith.fulfillment;
+
+import com.fulfilment.application.monolith.errors.ErrorCode;
+import com.fulfilment.application.monolith.stores.Store;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.transaction.Transactional;
+import jakarta.ws.rs.Consumes;
+import jakarta.ws.rs.DELETE;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.PUT;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.Response;
+import org.jboss.logging.Logger;
+
+import java.util.List;
+
+/**
+ * Runtime administration of the fulfillment limits. GETs on a store or warehouse return its
+ * effective limits, with defaults filled in; a PUT with a {@code null} limit reverts that limit to
+ * the default.
+ */
+@Path("fulfillment/limits")
+@ApplicationScoped
+@Produces("application/json")
+@Consumes("application/json")
+public class FulfillmentLimitResource {
+
+    private static final Logger LOGGER = Logger.getLogger(FulfillmentLimitResource.class);
+
+    @Inject
+    FulfillmentLimitService limitService;
+    @Inject
+    FulfillmentRepository fulfillmentRepository;
+
+    @GET
+    public FulfillmentLimitOverview overview() {
+        return new FulfillmentLimitOverview(
+                limitService.table().defaults(),
+                limitService.listStoreOverrides(),
+                limitService.listWarehouseOverrides());
+    }
+
+    @GET
+    @Path("store/{storeId}")
+    public StoreFulfillmentLimit getStore(Long storeId) {
+        FulfillmentLimitTable table = limitService.table();
+        StoreFulfillmentLimit limits = new StoreFulfillmentLimit();
+        limits.storeId = storeId;
+        limits.maxWarehouses = table.maxWarehousesPerStore(storeId);
+        limits.maxWarehousesPerProduct = table.maxWarehousesPerProductPerStore(storeId);
+        return limits;
+    }
+
+    @PUT
+    @Path("store/{storeId}")
+    @Transactional
+    public StoreFulfillmentLimit putStore(Long storeId, StoreFulfillmentLimit limits) {
+        if (limits == null) {
+            throw ErrorCode.MISSING_LIMITS_PAYLOAD.exception();
+        }
+        if (Store.findById(storeId) == null) {
+            throw ErrorCode.STORE_NOT_FOUND.exception("Store with id " + storeId + " not found.");
+        }
+        limitService.putStore(storeId, limits.maxWarehouses, limits.maxWarehousesPerProduct);
+        LOGGER.infof(
+                "Store %d limits set: maxWarehouses=%s maxWarehousesPerProduct=%s",
+                storeId, limits.maxWarehouses, limits.maxWarehousesPerProduct);
+        return effective(storeId, limits.maxWarehouses, limits.maxWarehousesPerProduct);
+    }
+
+    @DELETE
+    @Path("store/{storeId}")
+    @Transactional
+    public Response deleteStore(Long storeId) {
+        limitService.removeStore(storeId);
+        LOGGER.infof("Store %d limits reverted to defaults", storeId);
+        return Response.status(204).build();
+    }
+
+    @GET
+    @Path("warehouse/{businessUnitCode}")
+    public WarehouseFulfillmentLimit getWarehouse(String businessUnitCode) {
+        WarehouseFulfillmentLimit limits = new WarehouseFulfillmentLimit();
+        limits.businessUnitCode = businessUnitCode;
+        limits.maxProducts = limitService.table().maxProductsPerWarehouse(businessUnitCode);
+        return limits;
+    }
+
+    @PUT
+    @Path("warehouse/{businessUnitCode}")
+    @Transactional
+    public WarehouseFulfillmentLimit putWarehouse(
+            String businessUnitCode, WarehouseFulfillmentLimit limits) {
+        if (limits == null) {
+            throw ErrorCode.MISSING_LIMITS_PAYLOAD.exception();
+        }
+        if (fulfillmentRepository.findActiveWarehouseCodes(List.of(businessUnitCode)).isEmpty()) {
+            throw ErrorCode.WAREHOUSE_NOT_FOUND.exception(
+                    "Warehouse with businessUnitCode '" + businessUnitCode + "' not found.");
+        }
+        limitService.putWarehouse(businessUnitCode, limits.maxProducts);
+        LOGGER.infof(
+                "Warehouse %s limits set: maxProducts=%s", businessUnitCode, limits.maxProducts);
+        WarehouseFulfillmentLimit effective = new WarehouseFulfillmentLimit();
+        effective.businessUnitCode = businessUnitCode;
+        effective.maxProducts =
+                limits.maxProducts != null
+                        ? limits.maxProducts
+                        : limitService.table().defaults().maxProductsPerWarehouse();
+        return effective;
+    }
+
+    @DELETE
+    @Path("warehouse/{businessUnitCode}")
+    @Transactional
+    public Response deleteWarehouse(String businessUnitCode) {
+        limitService.removeWarehouse(businessUnitCode);
+        LOGGER.infof("Warehouse %s limits reverted to defaults", businessUnitCode);
+        return Response.status(204).build();
+    }
+
+    /** The effective limits a PUT results in; the cache itself only changes after commit. */
+    private StoreFulfillmentLimit effective(
+            long storeId, Integer maxWarehouses, Integer maxWarehousesPerProduct) {
+        FulfillmentLimits defaults = limitService.table().defaults();
+        StoreFulfillmentLimit limits = new StoreFulfillmentLimit();
+        limits.storeId = storeId;
+        limits.maxWarehouses =
+                maxWarehouses != null ? maxWarehouses : defaults.maxWarehousesPerStore();
+        limits.maxWarehousesPerProduct =
+                maxWarehousesPerProduct != null
+                        ? maxWarehousesPerProduct
+                        : defaults.maxWarehousesPerProductPerStore();
+        return limits;
+    }
+}
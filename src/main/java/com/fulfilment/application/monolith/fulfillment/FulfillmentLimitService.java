@@ -0,0 +1,149 @@
+package com.fulfilment.application.monolith.fulfillment;
+
+import com.fulfilment.application.monolith.TransactionHooks;
+import com.fulfilment.application.monolith.errors.ErrorCode;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.hibernate.jpa.HibernateHints;
+import org.jboss.logging.Logger;
+
+import java.util.List;
+
+/**
+ * Per-store and per-warehouse fulfillment limits. Defaults come from {@code fulfillment.limits.*};
+ * overrides are stored in the database and cached in a {@link FulfillmentLimitTable} that is
+ * loaded at startup and updated after every committed change, so resolving limits on the write
+ * path never queries.
+ */
+@ApplicationScoped
+public class FulfillmentLimitService {
+
+    private static final Logger LOGGER = Logger.getLogger(FulfillmentLimitService.class);
+
+    @Inject
+    EntityManager em;
+    @Inject
+    TransactionHooks transactionHooks;
+
+    @ConfigProperty(
+            name = "fulfillment.limits.max-warehouses-per-product-per-store",
+            defaultValue = "2")
+    int maxWarehousesPerProductPerStore;
+
+    @ConfigProperty(name = "fulfillment.limits.max-warehouses-per-store", defaultValue = "3")
+    int maxWarehousesPerStore;
+
+    @ConfigProperty(name = "fulfillment.limits.max-products-per-warehouse", defaultValue = "5")
+    int maxProductsPerWarehouse;
+
+    private volatile FulfillmentLimitTable table;
+
+    void onStart(@Observes StartupEvent event) {
+        reload();
+    }
+
+    public FulfillmentLimitTable table() {
+        return table;
+    }
+
+    public FulfillmentLimits forPair(long storeId, String warehouseBusinessUnitCode) {
+        return table.forPair(storeId, warehouseBusinessUnitCode);
+    }
+
+    public List<StoreFulfillmentLimit> listStoreOverrides() {
+        return em.createQuery(
+                        "from StoreFulfillmentLimit order by storeId", StoreFulfillmentLimit.class)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultList();
+    }
+
+    public List<WarehouseFulfillmentLimit> listWarehouseOverrides() {
+        return em.createQuery(
+                        "from WarehouseFulfillmentLimit order by businessUnitCode",
+                        WarehouseFulfillmentLimit.class)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultList();
+    }
+
+    /** Stores the overrides of a store; must run in a transaction. */
+    public void putStore(long storeId, Integer maxWarehouses, Integer maxWarehousesPerProduct) {
+        requirePositive("maxWarehouses", maxWarehouses);
+        requirePositive("maxWarehousesPerProduct", maxWarehousesPerProduct);
+        StoreFulfillmentLimit entity = em.find(StoreFulfillmentLimit.class, storeId);
+        if (entity == null) {
+            entity = new StoreFulfillmentLimit();
+            entity.storeId = storeId;
+            em.persist(entity);
+        }
+        entity.maxWarehouses = maxWarehouses;
+        entity.maxWarehousesPerProduct = maxWarehousesPerProduct;
+        transactionHooks.afterCommit(
+                () -> table.putStore(storeId, maxWarehouses, maxWarehousesPerProduct));
+    }
+
+    /** Reverts a store to the defaults; must run in a transaction. */
+    public void removeStore(long storeId) {
+        em.createQuery("delete from StoreFulfillmentLimit where storeId = :storeId")
+                .setParameter("storeId", storeId)
+                .executeUpdate();
+        transactionHooks.afterCommit(() -> table.removeStore(storeId));
+    }
+
+    /** Stores the override of a warehouse; must run in a transaction. */
+    public void putWarehouse(String warehouseBusinessUnitCode, Integer maxProducts) {
+        requirePositive("maxProducts", maxProducts);
+        WarehouseFulfillmentLimit entity =
+                em.find(WarehouseFulfillmentLimit.class, warehouseBusinessUnitCode);
+        if (entity == null) {
+            entity = new WarehouseFulfillmentLimit();
+            entity.businessUnitCode = warehouseBusinessUnitCode;
+            em.persist(entity);
+        }
+        entity.maxProducts = maxProducts;
+        transactionHooks.afterCommit(
+                () -> table.putWarehouse(warehouseBusinessUnitCode, maxProducts));
+    }
+
+    /** Reverts a warehouse to the default; must run in a transaction. */
+    public void removeWarehouse(String warehouseBusinessUnitCode) {
+        em.createQuery("delete from WarehouseFulfillmentLimit where businessUnitCode = :code")
+                .setParameter("code", warehouseBusinessUnitCode)
+                .executeUpdate();
+        transactionHooks.afterCommit(() -> table.removeWarehouse(warehouseBusinessUnitCode));
+    }
+
+    void reload() {
+        FulfillmentLimitTable loaded =
+                new FulfillmentLimitTable(
+                        new FulfillmentLimits(
+                                maxWarehousesPerProductPerStore,
+                                maxWarehousesPerStore,
+                                maxProductsPerWarehouse));
+        QuarkusTransaction.requiringNew()
+                .run(
+                        () -> {
+                            for (StoreFulfillmentLimit store : listStoreOverrides()) {
+                                loaded.putStore(
+                                        store.storeId,
+                                        store.maxWarehouses,
+                                        store.maxWarehousesPerProduct);
+                            }
+                            for (WarehouseFulfillmentLimit w : listWarehouseOverrides()) {
+                                loaded.putWarehouse(w.businessUnitCode, w.maxProducts);
+                            }
+                        });
+        table = loaded;
+        LOGGER.infof("Fulfillment limits loaded with defaults %s", loaded.defaults());
+    }
+
+    private static void requirePositive(String field, Integer value) {
+        if (value != null && value < 1) {
+            throw ErrorCode.INVALID_LIMIT.exception(field + " must be at least 1.");
+        }
+    }
+}
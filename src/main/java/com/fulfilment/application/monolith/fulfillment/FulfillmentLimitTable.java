@@ -0,0 +1,81 @@
+package com.fulfilment.application.monolith.fulfillment;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Effective limits per store and per warehouse: the overrides that exist, on top of the defaults.
+ * Lookups are plain map reads, so resolving the limits of an assignment costs no query.
+ */
+public class FulfillmentLimitTable {
+
+    private final FulfillmentLimits defaults;
+    private final Map<Long, StoreLimits> stores = new ConcurrentHashMap<>();
+    private final Map<String, Integer> warehouses = new ConcurrentHashMap<>();
+
+    public FulfillmentLimitTable(FulfillmentLimits defaults) {
+        this.defaults = defaults;
+    }
+
+    public FulfillmentLimits defaults() {
+        return defaults;
+    }
+
+    /** The limits that apply to assigning a warehouse to a store. */
+    public FulfillmentLimits forPair(long storeId, String warehouseBusinessUnitCode) {
+        return new FulfillmentLimits(
+                maxWarehousesPerProductPerStore(storeId),
+                maxWarehousesPerStore(storeId),
+                maxProductsPerWarehouse(warehouseBusinessUnitCode));
+    }
+
+    public int maxWarehousesPerProductPerStore(long storeId) {
+        StoreLimits store = stores.get(storeId);
+        return store == null || store.maxWarehousesPerProduct == null
+                ? defaults.maxWarehousesPerProductPerStore()
+                : store.maxWarehousesPerProduct;
+    }
+
+    public int maxWarehousesPerStore(long storeId) {
+        StoreLimits store = stores.get(storeId);
+        return store == null || store.maxWarehouses == null
+                ? defaults.maxWarehousesPerStore()
+                : store.maxWarehouses;
+    }
+
+    public int maxProductsPerWarehouse(String warehouseBusinessUnitCode) {
+        return warehouses.getOrDefault(
+                warehouseBusinessUnitCode, defaults.maxProductsPerWarehouse());
+    }
+
+    public void putStore(long storeId, Integer maxWarehouses, Integer maxWarehousesPerProduct) {
+        if (maxWarehouses == null && maxWarehousesPerProduct == null) {
+            stores.remove(storeId);
+        } else {
+            stores.put(storeId, new StoreLimits(maxWarehouses, maxWarehousesPerProduct));
+        }
+    }
+
+    public void removeStore(long storeId) {
+        stores.remove(storeId);
+    }
+
+    public void putWarehouse(String warehouseBusinessUnitCode, Integer maxProducts) {
+        if (maxProducts == null) {
+            warehouses.remove(warehouseBusinessUnitCode);
+        } else {
+            warehouses.put(warehouseBusinessUnitCode, maxProducts);
+        }
+    }
+
+    public void removeWarehouse(String warehouseBusinessUnitCode) {
+        warehouses.remove(warehouseBusinessUnitCode);
+    }
+
+    public void clear() {
+        stores.clear();
+        warehouses.clear();
+    }
+
+    private record StoreLimits(Integer maxWarehouses, Integer maxWarehousesPerProduct) {}
+}
@@ -0,0 +1,56 @@
+package com.fulfilment.application.monolith.fulfillment;
+
+import com.fulfilment.application.monolith.errors.ErrorCode;
+import com.fulfilment.application.monolith.errors.RejectionCounter;
+
+/**
+ * The limits that apply to one store/warehouse pair, as resolved by {@link FulfillmentLimitTable};
+ * enforced for single and batch creation alike.
+ */
+public record FulfillmentLimits(
+        int maxWarehousesPerProductPerStore,
+        int maxWarehousesPerStore,
+        int maxProductsPerWarehouse) {
+
+    /** Counter of assignments rejected by a limit, tagged with the {@code limit} that was hit. */
+    static final String REJECTIONS = "fulfillment.limit.rejections";
+
+    private static final RejectionCounter REJECTED = new RejectionCounter(REJECTIONS, "limit");
+
+    /** Throws 422 if adding {@code assignment} on top of {@code check} would break a limit. */
+    public void enforce(FulfillmentAssignment assignment, AssignmentCheck check) {
+        if (check.warehousesForProductAtStore() >= maxWarehousesPerProductPerStore) {
+            throw REJECTED.reject(
+                    ErrorCode.MAX_WAREHOUSES_PER_PRODUCT_PER_STORE,
+                    "Product "
+                            + assignment.productId
+                            + " already has "
+                            + maxWarehousesPerProductPerStore
+                            + " warehouses fulfilling it for store "
+                            + assignment.storeId
+                            + ". Maximum reached.");
+        }
+
+        if (!check.warehouseFulfillsStore()
+                && check.warehousesForStore() >= maxWarehousesPerStore) {
+            throw REJECTED.reject(
+                    ErrorCode.MAX_WAREHOUSES_PER_STORE,
+                    "Store "
+                            + assignment.storeId
+                            + " already has "
+                            + maxWarehousesPerStore
+                            + " warehouses fulfilling it. Maximum reached.");
+        }
+
+        if (!check.warehouseStoresProduct()
+                && check.productsForWarehouse() >= maxProductsPerWarehouse) {
+            throw REJECTED.reject(
+                    ErrorCode.MAX_PRODUCTS_PER_WAREHOUSE,
+                    "Warehouse '"
+                            + assignment.warehouseBusinessUnitCode
+                            + "' already stores "
+                            + maxProductsPerWarehouse
+                            + " product types. Maximum reached.");
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.fulfilment.application.monolith.fulfillment;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+
+import java.sql.PreparedStatement;
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * Serialises assignment writes per store and per warehouse with transaction-scoped Postgres
+ * advisory locks, so a limit check and the insert it guards cannot interleave with another write
+ * to the same store or warehouse. Writes touching other keys never wait, and no isolation level
+ * above READ COMMITTED is needed.
+ *
+ * <p>The store lock covers the per-store and per-product-per-store limits, the warehouse lock the
+ * per-warehouse product limit. All keys of a write are taken in one statement in ascending key
+ * order, so two writes sharing keys always lock them in the same order and cannot deadlock.
+ */
+@ApplicationScoped
+public class FulfillmentLocks {
+
+    static final int STORE_NAMESPACE = 1;
+    static final int WAREHOUSE_NAMESPACE = 2;
+
+    private static final String LOCK_SQL =
+            "select count(pg_advisory_xact_lock(k.ns, k.id)) from ("
+                    + "select ns, id from unnest(?::int4[], ?::int4[]) with ordinality"
+                    + " as u(ns, id, n) order by n) k";
+
+    @Inject
+    EntityManager em;
+
+    /** Blocks until this transaction holds the lock of every store and warehouse given. */
+    public void lock(Collection<Long> storeIds, Collection<String> warehouseBusinessUnitCodes) {
+        long[] keys = keys(storeIds, warehouseBusinessUnitCodes);
+        if (keys.length == 0) {
+            return;
+        }
+        Integer[] namespaces = new Integer[keys.length];
+        Integer[] ids = new Integer[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            namespaces[i] = (int) (keys[i] >>> Integer.SIZE);
+            ids[i] = (int) keys[i];
+        }
+        em.unwrap(Session.class)
+                .doWork(
+                        connection -> {
+                            try (PreparedStatement statement =
+                                    connection.prepareStatement(LOCK_SQL)) {
+                                statement.setArray(1, connection.createArrayOf("int4", namespaces));
+                                statement.setArray(2, connection.createArrayOf("int4", ids));
+                                statement.executeQuery().close();
+                            }
+                        });
+    }
+
+    /**
+     * Sorted, distinct {@code namespace << 32 | id} keys. Store ids and codes are folded to 32
+     * bits; a collision only makes two unrelated keys share a lock.
+     */
+    static long[] keys(Collection<Long> storeIds, Collection<String> warehouseBusinessUnitCodes) {
+        long[] keys = new long[storeIds.size() + warehouseBusinessUnitCodes.size()];
+        int i = 0;
+        for (Long storeId : storeIds) {
+            keys[i++] = key(STORE_NAMESPACE, Long.hashCode(storeId));
+        }
+        for (String code : warehouseBusinessUnitCodes) {
+            keys[i++] = key(WAREHOUSE_NAMESPACE, code.hashCode());
+        }
+        return Arrays.stream(keys).sorted().distinct().toArray();
+    }
+
+    private static long key(int namespace, int id) {
+        return (long) namespace << Integer.SIZE | (id & 0xFFFFFFFFL);
+    }
+}
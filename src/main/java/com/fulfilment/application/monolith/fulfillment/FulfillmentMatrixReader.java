@@ -0,0 +1,139 @@
+package com.fulfilment.application.monolith.fulfillment;
+
+import java.io.BufferedInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Reads the format written by {@link FulfillmentMatrixWriter} one block at a time:
+ *
+ * <pre>{@code
+ * try (var reader = new FulfillmentMatrixReader(in)) {
+ *     while (reader.next()) {
+ *         use(reader.storeId(), reader.productId(), reader.warehouseBusinessUnitCode());
+ *     }
+ * }
+ * }</pre>
+ */
+public class FulfillmentMatrixReader implements AutoCloseable {
+
+    private final InputStream in;
+    private final List<String> dictionary = new ArrayList<>();
+    private long[] storeIds = new long[0];
+    private long[] productIds = new long[0];
+    private int[] warehouses = new int[0];
+    private int rows;
+    private int position = -1;
+    private long lastStoreId;
+    private long lastProductId;
+    private boolean ended;
+
+    public FulfillmentMatrixReader(InputStream source) throws IOException {
+        byte[] header = source.readNBytes(FulfillmentMatrixWriter.MAGIC.length + 2);
+        if (header.length < FulfillmentMatrixWriter.MAGIC.length + 2
+                || !Arrays.equals(
+                        header, 0, 3, FulfillmentMatrixWriter.MAGIC, 0, 3)) {
+            throw new IOException("Not a fulfillment matrix stream");
+        }
+        if (header[3] != FulfillmentMatrixWriter.VERSION) {
+            throw new IOException("Unsupported fulfillment matrix version " + header[3]);
+        }
+        boolean gzip = (header[4] & FulfillmentMatrixWriter.FLAG_GZIP) != 0;
+        this.in =
+                gzip
+                        ? new GZIPInputStream(source, 1 << 16)
+                        : new BufferedInputStream(source, 1 << 16);
+    }
+
+    /** Advances to the next row; {@code false} once the end marker has been read. */
+    public boolean next() throws IOException {
+        if (++position < rows) {
+            return true;
+        }
+        if (ended || !readBlock()) {
+            ended = true;
+            return false;
+        }
+        position = 0;
+        return true;
+    }
+
+    public long storeId() {
+        return storeIds[position];
+    }
+
+    public long productId() {
+        return productIds[position];
+    }
+
+    public String warehouseBusinessUnitCode() {
+        return dictionary.get(warehouses[position]);
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    private boolean readBlock() throws IOException {
+        rows = (int) readVarint();
+        if (rows == 0) {
+            return false;
+        }
+        if (storeIds.length < rows) {
+            storeIds = new long[rows];
+            productIds = new long[rows];
+            warehouses = new int[rows];
+        }
+        int newCodes = (int) readVarint();
+        for (int i = 0; i < newCodes; i++) {
+            int length = (int) readVarint();
+            byte[] bytes = in.readNBytes(length);
+            if (bytes.length < length) {
+                throw new EOFException("Truncated fulfillment matrix dictionary");
+            }
+            dictionary.add(new String(bytes, StandardCharsets.UTF_8));
+        }
+        for (int i = 0; i < rows; i++) {
+            lastStoreId += unzigzag(readVarint());
+            storeIds[i] = lastStoreId;
+        }
+        for (int i = 0; i < rows; i++) {
+            lastProductId += unzigzag(readVarint());
+            productIds[i] = lastProductId;
+        }
+        for (int i = 0; i < rows; i++) {
+            int code = (int) readVarint();
+            if (code >= dictionary.size()) {
+                throw new IOException("Unknown warehouse dictionary index " + code);
+            }
+            warehouses[i] = code;
+        }
+        return true;
+    }
+
+    private long readVarint() throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = in.read();
+            if (b < 0) {
+                throw new EOFException("Truncated fulfillment matrix stream");
+            }
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed varint in fulfillment matrix stream");
+    }
+
+    private static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+}
@@ -0,0 +1,142 @@
+package com.fulfilment.application.monolith.fulfillment;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Streams the store × product × warehouse relation in the compact columnar "fulfillment matrix"
+ * format read by {@link FulfillmentMatrixReader}.
+ *
+ * <pre>
+ * stream  := magic "FMX" version(u8 = 1) flags(u8) body
+ *            flags bit 0: body is gzip-compressed
+ * body    := block* end
+ * block   := rows(varint &gt; 0)
+ *            newCodes(varint) { length(varint) utf8-bytes }*newCodes
+ *            storeIds[rows]      zigzag varint delta to the previous store id
+ *            productIds[rows]    zigzag varint delta to the previous product id
+ *            warehouses[rows]    varint index into the warehouse dictionary
+ * end     := varint 0
+ * </pre>
+ *
+ * Warehouse codes are dictionary-encoded: each block first appends the codes it introduces to the
+ * dictionary, in order of first use, and rows refer to them by index. Deltas continue across
+ * blocks, starting from zero. Rows sorted by store and product, as the export writes them, make
+ * nearly every store delta zero and most product deltas small, so a typical row takes three or
+ * four bytes before compression. A block holds at most {@link #BLOCK_ROWS} rows and is written as
+ * soon as it is full, so memory use does not depend on the size of the export.
+ */
+public class FulfillmentMatrixWriter {
+
+    public static final String MEDIA_TYPE = "application/x-fulfillment-matrix";
+
+    static final byte[] MAGIC = {'F', 'M', 'X'};
+    static final int VERSION = 1;
+    static final int FLAG_GZIP = 1;
+    static final int BLOCK_ROWS = 65_536;
+
+    private final OutputStream out;
+    private final Map<String, Integer> dictionary = new HashMap<>();
+    private final List<String> newCodes = new ArrayList<>();
+    private final long[] storeIds = new long[BLOCK_ROWS];
+    private final long[] productIds = new long[BLOCK_ROWS];
+    private final int[] warehouses = new int[BLOCK_ROWS];
+    private final ByteArrayOutputStream block = new ByteArrayOutputStream(BLOCK_ROWS * 4);
+    private int rows;
+    private long lastStoreId;
+    private long lastProductId;
+    private long written;
+
+    public FulfillmentMatrixWriter(OutputStream target, boolean gzip) throws IOException {
+        target.write(MAGIC);
+        target.write(VERSION);
+        target.write(gzip ? FLAG_GZIP : 0);
+        this.out =
+                gzip
+                        ? new GZIPOutputStream(target, 1 << 16)
+                        : new BufferedOutputStream(target, 1 << 16);
+    }
+
+    public void write(long storeId, long productId, String warehouseBusinessUnitCode)
+            throws IOException {
+        Integer code = dictionary.get(warehouseBusinessUnitCode);
+        if (code == null) {
+            code = dictionary.size();
+            dictionary.put(warehouseBusinessUnitCode, code);
+            newCodes.add(warehouseBusinessUnitCode);
+        }
+        storeIds[rows] = storeId;
+        productIds[rows] = productId;
+        warehouses[rows] = code;
+        if (++rows == BLOCK_ROWS) {
+            flushBlock();
+        }
+    }
+
+    public long rowsWritten() {
+        return written + rows;
+    }
+
+    /**
+     * Writes the last block and the end marker; the target stream itself is not closed. A stream
+     * that fails before this is called has no end marker, so readers see it as truncated rather
+     * than as a shorter, complete matrix.
+     */
+    public void finish() throws IOException {
+        flushBlock();
+        writeVarint(out, 0);
+        if (out instanceof GZIPOutputStream gzip) {
+            gzip.finish();
+        }
+        out.flush();
+    }
+
+    private void flushBlock() throws IOException {
+        if (rows == 0) {
+            return;
+        }
+        block.reset();
+        writeVarint(block, rows);
+        writeVarint(block, newCodes.size());
+        for (String code : newCodes) {
+            byte[] bytes = code.getBytes(StandardCharsets.UTF_8);
+            writeVarint(block, bytes.length);
+            block.write(bytes);
+        }
+        for (int i = 0; i < rows; i++) {
+            writeVarint(block, zigzag(storeIds[i] - lastStoreId));
+            lastStoreId = storeIds[i];
+        }
+        for (int i = 0; i < rows; i++) {
+            writeVarint(block, zigzag(productIds[i] - lastProductId));
+            lastProductId = productIds[i];
+        }
+        for (int i = 0; i < rows; i++) {
+            writeVarint(block, warehouses[i]);
+        }
+        block.writeTo(out);
+        written += rows;
+        rows = 0;
+        newCodes.clear();
+    }
+
+    static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    static void writeVarint(OutputStream out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+}
@@ -0,0 +1,9 @@
+package com.fulfilment.application.monolith.fulfillment;
+
+import java.util.List;
+
+/**
+ * One keyset page of assignments. Pass {@code nextAfterId} back as {@code afterId} to fetch the
+ * next page; it is {@code null} on the last page.
+ */
+public record FulfillmentPage(List<FulfillmentAssignmentView> items, Long nextAfterId) {}
@@ -1,81 +1,374 @@
 package com.fulfilment.application.monolith.fulfillment;
 
+import com.fulfilment.application.monolith.LatencyMetrics;
+import com.fulfilment.application.monolith.TransactionHooks;
+import io.micrometer.core.annotation.Timed;
 import io.quarkus.hibernate.orm.panache.PanacheRepository;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import org.hibernate.jpa.HibernateHints;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @ApplicationScoped
+@Timed(LatencyMetrics.REPOSITORY_QUERIES)
 public class FulfillmentRepository implements PanacheRepository<FulfillmentAssignment> {
 
     @Inject
     EntityManager em;
+    @Inject
+    FulfillmentConstraintIndex constraintIndex;
+    @Inject
+    TransactionHooks transactionHooks;
+
+    static final int EXPORT_FETCH_SIZE = 1000;
 
-    public List<FulfillmentAssignment> findByStoreId(Long storeId) {
-        return list("storeId", storeId);
+    private static final String VIEW_SELECT =
+            "select new com.fulfilment.application.monolith.fulfillment.FulfillmentAssignmentView("
+                    + "f.id, f.warehouseBusinessUnitCode, f.productId, f.storeId, f.createdAt)"
+                    + " from FulfillmentAssignment f where f.id > :after";
+
+    /** Keyset page ordered by id; read-only projections, never managed entities. */
+    public FulfillmentPage page(AssignmentFilter filter, Long afterId, int limit) {
+        List<FulfillmentAssignmentView> rows =
+                viewQuery(filter, afterId).setMaxResults(limit + 1).getResultList();
+        if (rows.size() <= limit) {
+            return new FulfillmentPage(rows, null);
+        }
+        List<FulfillmentAssignmentView> items = rows.subList(0, limit);
+        return new FulfillmentPage(items, items.get(limit - 1).id());
     }
 
-    public List<FulfillmentAssignment> findByWarehouse(String warehouseBusinessUnitCode) {
-        return list("warehouseBusinessUnitCode", warehouseBusinessUnitCode);
+    /**
+     * Hands every matching assignment to {@code sink} in id order while the rows are read, so the
+     * result set is never held in memory; the driver fetches {@link #EXPORT_FETCH_SIZE} rows per
+     * round trip. Must run in a transaction, which Postgres needs for a cursor-based fetch.
+     */
+    public void streamViews(AssignmentFilter filter, Consumer<FulfillmentAssignmentView> sink) {
+        try (Stream<FulfillmentAssignmentView> rows =
+                viewQuery(filter, null)
+                        .setHint(HibernateHints.HINT_FETCH_SIZE, EXPORT_FETCH_SIZE)
+                        .getResultStream()) {
+            rows.forEach(sink);
+        }
     }
 
-    public List<FulfillmentAssignment> findByProductId(Long productId) {
-        return list("productId", productId);
+    /**
+     * Hands every assignment key to {@code sink} ordered by store, product and warehouse, the order
+     * of the store-leading index, which the matrix export relies on for small deltas. Streams like
+     * {@link #streamViews} and must likewise run in a transaction.
+     */
+    public void streamKeysByStore(Consumer<AssignmentKey> sink) {
+        try (Stream<AssignmentKey> rows =
+                em.createQuery(
+                                "select new com.fulfilment.application.monolith.fulfillment"
+                                        + ".AssignmentKey(f.warehouseBusinessUnitCode, f.productId,"
+                                        + " f.storeId) from FulfillmentAssignment f order by"
+                                        + " f.storeId, f.productId, f.warehouseBusinessUnitCode",
+                                AssignmentKey.class)
+                        .setHint(HibernateHints.HINT_READ_ONLY, true)
+                        .setHint(HibernateHints.HINT_FETCH_SIZE, EXPORT_FETCH_SIZE)
+                        .getResultStream()) {
+            rows.forEach(sink);
+        }
     }
 
-    public long countWarehousesForProductAtStore(Long productId, Long storeId) {
+    private TypedQuery<FulfillmentAssignmentView> viewQuery(AssignmentFilter filter, Long afterId) {
+        StringBuilder jpql = new StringBuilder(VIEW_SELECT);
+        if (filter.storeId() != null) {
+            jpql.append(" and f.storeId = :storeId");
+        }
+        if (filter.warehouseBusinessUnitCode() != null) {
+            jpql.append(" and f.warehouseBusinessUnitCode = :code");
+        }
+        if (filter.productId() != null) {
+            jpql.append(" and f.productId = :productId");
+        }
+        jpql.append(" order by f.id");
+
+        TypedQuery<FulfillmentAssignmentView> query =
+                em.createQuery(jpql.toString(), FulfillmentAssignmentView.class)
+                        .setParameter("after", afterId == null ? 0L : afterId)
+                        .setHint(HibernateHints.HINT_READ_ONLY, true);
+        if (filter.storeId() != null) {
+            query.setParameter("storeId", filter.storeId());
+        }
+        if (filter.warehouseBusinessUnitCode() != null) {
+            query.setParameter("code", filter.warehouseBusinessUnitCode());
+        }
+        if (filter.productId() != null) {
+            query.setParameter("productId", filter.productId());
+        }
+        return query;
+    }
+
+    /**
+     * Active warehouses assigned to the pair, best first: most stock, then most headroom ({@code
+     * capacity - stock}). One joined query instead of the assignment list plus a lookup per
+     * warehouse.
+     */
+    public List<WarehouseRoute> findRoute(Long storeId, Long productId) {
         return em.createQuery(
-                        "select count(distinct f.warehouseBusinessUnitCode) from FulfillmentAssignment f "
-                                + "where f.productId = :productId and f.storeId = :storeId",
-                        Long.class)
-                .setParameter("productId", productId)
+                        "select new com.fulfilment.application.monolith.fulfillment.WarehouseRoute("
+                                + "w.businessUnitCode, w.location, w.capacity, w.stock,"
+                                + " w.capacity - w.stock)"
+                                + " from FulfillmentAssignment f join DbWarehouse w"
+                                + " on w.businessUnitCode = f.warehouseBusinessUnitCode"
+                                + " and w.archivedAt is null"
+                                + " where f.storeId = :storeId and f.productId = :productId"
+                                + " order by w.stock desc, w.capacity - w.stock desc,"
+                                + " w.businessUnitCode",
+                        WarehouseRoute.class)
                 .setParameter("storeId", storeId)
-                .getSingleResult();
+                .setParameter("productId", productId)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultList();
+    }
+
+    /**
+     * Persists the assignment. It is indexed just before commit, while the caller still holds the
+     * {@link FulfillmentLocks} of its store and warehouse, so the next writer on this instance to
+     * take those locks already sees it; a failed commit takes it out again. Writers on other
+     * instances do not, which is why the index is single-instance only.
+     */
+    public void add(FulfillmentAssignment assignment) {
+        addAll(List.of(assignment));
+    }
+
+    /** Persists all assignments as JDBC batches and indexes them like {@link #add}. */
+    public void addAll(List<FulfillmentAssignment> assignments) {
+        for (FulfillmentAssignment assignment : assignments) {
+            persist(assignment);
+        }
+        flush();
+        List<FulfillmentAssignment> indexed = new ArrayList<>();
+        transactionHooks.beforeCommit(
+                () -> constraintIndex.apply(index -> index(index, assignments, indexed)),
+                () -> constraintIndex.apply(index -> unindex(index, indexed)));
+    }
+
+    public Set<String> findActiveWarehouseCodes(Collection<String> codes) {
+        return new HashSet<>(
+                em.createQuery(
+                                "select w.businessUnitCode from DbWarehouse w"
+                                        + " where w.businessUnitCode in :codes"
+                                        + " and w.archivedAt is null",
+                                String.class)
+                        .setParameter("codes", codes)
+                        .getResultList());
+    }
+
+    public Set<Long> findExistingProductIds(Collection<Long> ids) {
+        return new HashSet<>(
+                em.createQuery("select p.id from Product p where p.id in :ids", Long.class)
+                        .setParameter("ids", ids)
+                        .getResultList());
+    }
+
+    public Set<Long> findExistingStoreIds(Collection<Long> ids) {
+        return new HashSet<>(
+                em.createQuery("select s.id from Store s where s.id in :ids", Long.class)
+                        .setParameter("ids", ids)
+                        .getResultList());
+    }
+
+    /**
+     * Loads every assignment of the given stores or warehouses into a new, private {@link
+     * FulfillmentIndex}: exactly the rows any limit check for those keys can depend on.
+     */
+    public FulfillmentIndex loadIndex(Collection<Long> storeIds, Collection<String> codes) {
+        FulfillmentIndex index = new FulfillmentIndex();
+        for (AssignmentKey key : findAssignmentKeys(storeIds, codes)) {
+            index.add(key.warehouseBusinessUnitCode(), key.productId(), key.storeId());
+        }
+        return index;
     }
 
-    public long countDistinctWarehousesForStore(Long storeId) {
+    public List<AssignmentKey> findAssignmentKeys(
+            Collection<Long> storeIds, Collection<String> codes) {
         return em.createQuery(
-                        "select count(distinct f.warehouseBusinessUnitCode) from FulfillmentAssignment f "
-                                + "where f.storeId = :storeId",
-                        Long.class)
-                .setParameter("storeId", storeId)
-                .getSingleResult();
+                        "select new com.fulfilment.application.monolith.fulfillment.AssignmentKey("
+                                + "f.warehouseBusinessUnitCode, f.productId, f.storeId)"
+                                + " from FulfillmentAssignment f"
+                                + " where f.storeId in :storeIds"
+                                + " or f.warehouseBusinessUnitCode in :codes",
+                        AssignmentKey.class)
+                .setParameter("storeIds", storeIds)
+                .setParameter("codes", codes)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultList();
     }
 
-    public long countDistinctProductsForWarehouse(String warehouseBusinessUnitCode) {
+    public List<String> listActiveWarehouseCodes() {
         return em.createQuery(
-                        "select count(distinct f.productId) from FulfillmentAssignment f "
-                                + "where f.warehouseBusinessUnitCode = :buCode",
-                        Long.class)
-                .setParameter("buCode", warehouseBusinessUnitCode)
-                .getSingleResult();
+                        "select w.businessUnitCode from DbWarehouse w where w.archivedAt is null"
+                                + " order by w.businessUnitCode",
+                        String.class)
+                .getResultList();
+    }
+
+    public void remove(FulfillmentAssignment assignment) {
+        delete(assignment);
+        transactionHooks.afterCommit(
+                () ->
+                        constraintIndex.apply(
+                                index ->
+                                        index.remove(
+                                                assignment.warehouseBusinessUnitCode,
+                                                assignment.productId,
+                                                assignment.storeId)));
+    }
+
+    /**
+     * Existence of the referenced warehouse, product and store plus every count the assignment
+     * limits depend on. The counts come from the {@link FulfillmentConstraintIndex} when it is
+     * enabled and loaded (single-instance deployments only), otherwise from {@link
+     * #aggregateAssignmentCheck}.
+     */
+    public AssignmentCheck checkAssignment(
+            String warehouseBusinessUnitCode, Long productId, Long storeId) {
+        if (!constraintIndex.ready()) {
+            return aggregateAssignmentCheck(warehouseBusinessUnitCode, productId, storeId);
+        }
+        Object[] row =
+                (Object[])
+                        em.createNativeQuery(
+                                        "select"
+                                                + " exists(select 1 from warehouse w"
+                                                + " where w.businessUnitCode = :buCode"
+                                                + " and w.archivedAt is null),"
+                                                + " exists(select 1 from product p"
+                                                + " where p.id = :productId),"
+                                                + " exists(select 1 from store s"
+                                                + " where s.id = :storeId)")
+                                .setParameter("buCode", warehouseBusinessUnitCode)
+                                .setParameter("productId", productId)
+                                .setParameter("storeId", storeId)
+                                .getSingleResult();
+        return constraintIndex
+                .index()
+                .check(
+                        warehouseBusinessUnitCode,
+                        productId,
+                        storeId,
+                        (Boolean) row[0],
+                        (Boolean) row[1],
+                        (Boolean) row[2]);
     }
 
-    public boolean assignmentExists(
+    /**
+     * Existence of the referenced warehouse, product and store plus every count the assignment
+     * limits depend on, in one round trip. The conditional aggregates only scan assignments of the
+     * store or of the warehouse.
+     */
+    AssignmentCheck aggregateAssignmentCheck(
             String warehouseBusinessUnitCode, Long productId, Long storeId) {
-        return count(
-                "warehouseBusinessUnitCode = ?1 and productId = ?2 and storeId = ?3",
-                warehouseBusinessUnitCode,
-                productId,
-                storeId)
-                > 0;
-    }
-
-    public boolean warehouseFulfillsStore(String warehouseBusinessUnitCode, Long storeId) {
-        return count(
-                "warehouseBusinessUnitCode = ?1 and storeId = ?2",
-                warehouseBusinessUnitCode,
-                storeId)
-                > 0;
-    }
-
-    public boolean warehouseStoresProduct(String warehouseBusinessUnitCode, Long productId) {
-        return count(
-                "warehouseBusinessUnitCode = ?1 and productId = ?2",
-                warehouseBusinessUnitCode,
-                productId)
-                > 0;
+        Object[] row =
+                (Object[])
+                        em.createNativeQuery(
+                                        "select"
+                                                + " exists(select 1 from warehouse w"
+                                                + " where w.businessUnitCode = :buCode"
+                                                + " and w.archivedAt is null),"
+                                                + " exists(select 1 from product p"
+                                                + " where p.id = :productId),"
+                                                + " exists(select 1 from store s"
+                                                + " where s.id = :storeId),"
+                                                + " coalesce(bool_or(f.warehouseBusinessUnitCode"
+                                                + " = :buCode and f.productId = :productId"
+                                                + " and f.storeId = :storeId), false),"
+                                                + " count(distinct f.warehouseBusinessUnitCode)"
+                                                + " filter (where f.productId = :productId"
+                                                + " and f.storeId = :storeId),"
+                                                + " coalesce(bool_or(f.warehouseBusinessUnitCode"
+                                                + " = :buCode and f.storeId = :storeId), false),"
+                                                + " count(distinct f.warehouseBusinessUnitCode)"
+                                                + " filter (where f.storeId = :storeId),"
+                                                + " coalesce(bool_or(f.warehouseBusinessUnitCode"
+                                                + " = :buCode and f.productId = :productId),"
+                                                + " false),"
+                                                + " count(distinct f.productId) filter (where"
+                                                + " f.warehouseBusinessUnitCode = :buCode)"
+                                                + " from fulfillment_assignment f"
+                                                + " where f.storeId = :storeId"
+                                                + " or f.warehouseBusinessUnitCode = :buCode")
+                                .setParameter("buCode", warehouseBusinessUnitCode)
+                                .setParameter("productId", productId)
+                                .setParameter("storeId", storeId)
+                                .getSingleResult();
+        return new AssignmentCheck(
+                (Boolean) row[0],
+                (Boolean) row[1],
+                (Boolean) row[2],
+                (Boolean) row[3],
+                ((Number) row[4]).longValue(),
+                (Boolean) row[5],
+                ((Number) row[6]).longValue(),
+                (Boolean) row[7],
+                ((Number) row[8]).longValue());
+    }
+
+    @Override
+    public long deleteAll() {
+        transactionHooks.afterCommit(() -> constraintIndex.apply(FulfillmentIndex::clear));
+        // Panache only generates the methods a repository does not override, so the inherited
+        // default would throw; run the bulk delete it stands for directly.
+        return em.createQuery("delete from FulfillmentAssignment").executeUpdate();
+    }
+
+    /** Removes every assignment of a store with one bulk statement. */
+    public long deleteByStoreId(Long storeId) {
+        transactionHooks.afterCommit(
+                () -> constraintIndex.apply(index -> index.removeStore(storeId)));
+        return bulkDelete("storeId", storeId);
+    }
+
+    /** Removes every assignment served by a warehouse with one bulk statement. */
+    public long deleteByWarehouse(String warehouseBusinessUnitCode) {
+        transactionHooks.afterCommit(
+                () ->
+                        constraintIndex.apply(
+                                index -> index.removeWarehouse(warehouseBusinessUnitCode)));
+        return bulkDelete("warehouseBusinessUnitCode", warehouseBusinessUnitCode);
+    }
+
+    /** Removes every assignment of a product with one bulk statement. */
+    public long deleteByProductId(Long productId) {
+        transactionHooks.afterCommit(
+                () -> constraintIndex.apply(index -> index.removeProduct(productId)));
+        return bulkDelete("productId", productId);
+    }
+
+    private long bulkDelete(String field, Object value) {
+        long deleted = delete(field, value);
+        if (deleted > 0) {
+            em.getEntityManagerFactory().getCache().evict(FulfillmentAssignment.class);
+        }
+        return deleted;
+    }
+
+    private static void index(
+            FulfillmentIndex index,
+            List<FulfillmentAssignment> assignments,
+            List<FulfillmentAssignment> indexed) {
+        for (FulfillmentAssignment a : assignments) {
+            if (index.add(a.warehouseBusinessUnitCode, a.productId, a.storeId)) {
+                indexed.add(a);
+            }
+        }
+    }
+
+    private static void unindex(FulfillmentIndex index, List<FulfillmentAssignment> indexed) {
+        for (FulfillmentAssignment a : indexed) {
+            index.remove(a.warehouseBusinessUnitCode, a.productId, a.storeId);
+        }
     }
 }
@@ -1,8 +1,7 @@
 package com.fulfilment.application.monolith.fulfillment;
 
-import com.fulfilment.application.monolith.products.ProductRepository;
-import com.fulfilment.application.monolith.stores.Store;
-import com.fulfilment.application.monolith.warehouses.adapters.database.WarehouseRepository;
+import com.fulfilment.application.monolith.errors.ErrorCode;
+import com.fulfilment.application.monolith.stores.StoreImportFormat;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import jakarta.transaction.Transactional;
@@ -12,8 +11,9 @@ import jakarta.ws.rs.GET;
 import jakarta.ws.rs.POST;
 import jakarta.ws.rs.Path;
 import jakarta.ws.rs.Produces;
-import jakarta.ws.rs.WebApplicationException;
+import jakarta.ws.rs.QueryParam;
 import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.StreamingOutput;
 import org.jboss.logging.Logger;
 
 import java.time.LocalDateTime;
@@ -25,88 +25,153 @@ import java.util.List;
 @Consumes("application/json")
 public class FulfillmentResource {
 
-    static final int MAX_WAREHOUSES_PER_PRODUCT_PER_STORE = 2;
-    static final int MAX_WAREHOUSES_PER_STORE = 3;
-    static final int MAX_PRODUCTS_PER_WAREHOUSE = 5;
+    static final int MAX_BATCH_SIZE = 1000;
+    static final int DEFAULT_PAGE_SIZE = 50;
+    static final int MAX_PAGE_SIZE = 500;
 
     private static final Logger LOGGER = Logger.getLogger(FulfillmentResource.class);
 
     @Inject
     FulfillmentRepository fulfillmentRepository;
     @Inject
-    WarehouseRepository warehouseRepository;
+    FulfillmentBatchCreator fulfillmentBatchCreator;
     @Inject
-    ProductRepository productRepository;
+    FulfillmentExport fulfillmentExport;
+    @Inject
+    SupplyPlanner supplyPlanner;
+    @Inject
+    FulfillmentLocks fulfillmentLocks;
+    @Inject
+    FulfillmentLimitService limitService;
 
+    /** Streams every assignment as a JSON array in id order; see also {@link #page}. */
     @GET
-    public List<FulfillmentAssignment> listAll() {
-        return fulfillmentRepository.listAll();
+    public StreamingOutput listAll() {
+        return fulfillmentExport.jsonArray(AssignmentFilter.ALL);
     }
 
     @GET
     @Path("store/{storeId}")
-    public List<FulfillmentAssignment> listByStore(Long storeId) {
+    public StreamingOutput listByStore(Long storeId) {
         LOGGER.debugf("Fetching assignments for store %d", storeId);
-        return fulfillmentRepository.findByStoreId(storeId);
+        return fulfillmentExport.jsonArray(AssignmentFilter.store(storeId));
     }
 
     @GET
     @Path("warehouse/{businessUnitCode}")
-    public List<FulfillmentAssignment> listByWarehouse(String businessUnitCode) {
+    public StreamingOutput listByWarehouse(String businessUnitCode) {
         LOGGER.debugf("Fetching assignments for warehouse %s", businessUnitCode);
-        return fulfillmentRepository.findByWarehouse(businessUnitCode);
+        return fulfillmentExport.jsonArray(AssignmentFilter.warehouse(businessUnitCode));
     }
 
     @GET
     @Path("product/{productId}")
-    public List<FulfillmentAssignment> listByProduct(Long productId) {
+    public StreamingOutput listByProduct(Long productId) {
         LOGGER.debugf("Fetching assignments for product %d", productId);
-        return fulfillmentRepository.findByProductId(productId);
+        return fulfillmentExport.jsonArray(AssignmentFilter.product(productId));
+    }
+
+    /** Keyset page in id order, optionally filtered by store, warehouse and product. */
+    @GET
+    @Path("page")
+    public FulfillmentPage page(
+            @QueryParam("afterId") Long afterId,
+            @QueryParam("limit") Integer limit,
+            @QueryParam("storeId") Long storeId,
+            @QueryParam("warehouse") String warehouse,
+            @QueryParam("productId") Long productId) {
+        int size = limit == null ? DEFAULT_PAGE_SIZE : limit;
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw ErrorCode.INVALID_PAGE_LIMIT.exception(
+                    "limit must be between 1 and " + MAX_PAGE_SIZE + ".");
+        }
+        return fulfillmentRepository.page(
+                new AssignmentFilter(storeId, warehouse, productId), afterId, size);
+    }
+
+    /** Streams the (optionally filtered) assignments as NDJSON, one object per line. */
+    @GET
+    @Path("export")
+    @Produces(StoreImportFormat.NDJSON_MEDIA_TYPE)
+    public StreamingOutput export(
+            @QueryParam("storeId") Long storeId,
+            @QueryParam("warehouse") String warehouse,
+            @QueryParam("productId") Long productId) {
+        return fulfillmentExport.ndjson(new AssignmentFilter(storeId, warehouse, productId));
+    }
+
+    /**
+     * Streams every assignment as a binary fulfillment matrix (see {@link
+     * FulfillmentMatrixWriter}), a fraction of the size of the JSON listing; {@code gzip=true}
+     * compresses the body as well.
+     */
+    @GET
+    @Path("matrix")
+    @Produces(FulfillmentMatrixWriter.MEDIA_TYPE)
+    public StreamingOutput matrix(@QueryParam("gzip") boolean gzip) {
+        return fulfillmentExport.matrix(gzip);
+    }
+
+    @GET
+    @Path("route")
+    public List<WarehouseRoute> route(
+            @QueryParam("storeId") Long storeId, @QueryParam("productId") Long productId) {
+        if (storeId == null || productId == null) {
+            throw ErrorCode.MISSING_ROUTE_PARAMETERS.exception();
+        }
+        return fulfillmentRepository.findRoute(storeId, productId);
     }
 
     @POST
     @Transactional
     public Response create(FulfillmentAssignment assignment) {
         if (assignment == null) {
-            throw new WebApplicationException("Fulfillment assignment payload is required.", 422);
+            throw ErrorCode.MISSING_ASSIGNMENT_PAYLOAD.exception();
         }
         if (assignment.warehouseBusinessUnitCode == null
                 || assignment.warehouseBusinessUnitCode.isBlank()) {
-            throw new WebApplicationException("warehouseBusinessUnitCode is required.", 422);
+            throw ErrorCode.MISSING_WAREHOUSE_CODE.exception();
         }
         if (assignment.productId == null) {
-            throw new WebApplicationException("productId is required.", 422);
+            throw ErrorCode.MISSING_PRODUCT_ID.exception();
         }
         if (assignment.storeId == null) {
-            throw new WebApplicationException("storeId is required.", 422);
+            throw ErrorCode.MISSING_STORE_ID.exception();
         }
 
-        if (warehouseRepository.findByBusinessUnitCode(assignment.warehouseBusinessUnitCode)
-                == null) {
-            throw new WebApplicationException(
+        // counts read after the lock already include every earlier write to this store/warehouse
+        fulfillmentLocks.lock(
+                List.of(assignment.storeId), List.of(assignment.warehouseBusinessUnitCode));
+        AssignmentCheck check =
+                fulfillmentRepository.checkAssignment(
+                        assignment.warehouseBusinessUnitCode,
+                        assignment.productId,
+                        assignment.storeId);
+        if (!check.warehouseExists()) {
+            throw ErrorCode.WAREHOUSE_NOT_FOUND.exception(
                     "Warehouse with businessUnitCode '"
                             + assignment.warehouseBusinessUnitCode
-                            + "' not found.",
-                    404);
+                            + "' not found.");
         }
-        if (productRepository.findById(assignment.productId) == null) {
-            throw new WebApplicationException(
-                    "Product with id " + assignment.productId + " not found.", 404);
+        if (!check.productExists()) {
+            throw ErrorCode.PRODUCT_NOT_FOUND.exception(
+                    "Product with id " + assignment.productId + " not found.");
         }
-        if (Store.findById(assignment.storeId) == null) {
-            throw new WebApplicationException(
-                    "Store with id " + assignment.storeId + " not found.", 404);
+        if (!check.storeExists()) {
+            throw ErrorCode.STORE_NOT_FOUND.exception(
+                    "Store with id " + assignment.storeId + " not found.");
         }
 
-        if (fulfillmentRepository.assignmentExists(
-                assignment.warehouseBusinessUnitCode, assignment.productId, assignment.storeId)) {
-            throw new WebApplicationException("This fulfillment assignment already exists.", 409);
+        if (check.assignmentExists()) {
+            throw ErrorCode.ASSIGNMENT_EXISTS.exception();
         }
 
-        enforceConstraints(assignment);
+        limitService
+                .forPair(assignment.storeId, assignment.warehouseBusinessUnitCode)
+                .enforce(assignment, check);
 
         assignment.createdAt = LocalDateTime.now();
-        fulfillmentRepository.persist(assignment);
+        fulfillmentRepository.add(assignment);
 
         LOGGER.infof(
                 "Created assignment: warehouse=%s product=%d store=%d",
@@ -115,68 +180,56 @@ public class FulfillmentResource {
         return Response.ok(assignment).status(201).build();
     }
 
+    /** Creates every assignment or none; limits count existing rows and earlier batch items. */
+    @POST
+    @Path("batch")
+    public Response createBatch(List<FulfillmentAssignment> assignments) {
+        if (assignments != null && assignments.size() > MAX_BATCH_SIZE) {
+            throw ErrorCode.BATCH_TOO_LARGE.exception(
+                    "Batch must not contain more than " + MAX_BATCH_SIZE + " assignments.");
+        }
+        return Response.ok(fulfillmentBatchCreator.create(assignments)).status(201).build();
+    }
+
+    /**
+     * Proposes warehouses for every uncovered store/product pair within the limits; with {@code
+     * apply=true} the plan is written in one batch, or not at all if any pair stays uncovered.
+     */
+    @POST
+    @Path("plan")
+    public SupplyPlan plan(SupplyPlanRequest request, @QueryParam("apply") boolean apply) {
+        return supplyPlanner.plan(request, apply);
+    }
+
     @DELETE
     @Path("{id}")
     @Transactional
     public Response delete(Long id) {
         FulfillmentAssignment entity = fulfillmentRepository.findById(id);
         if (entity == null) {
-            throw new WebApplicationException(
-                    "Fulfillment assignment with id " + id + " does not exist.", 404);
+            throw ErrorCode.ASSIGNMENT_NOT_FOUND.exception(
+                    "Fulfillment assignment with id " + id + " does not exist.");
         }
-        fulfillmentRepository.delete(entity);
+        fulfillmentRepository.remove(entity);
         LOGGER.infof("Deleted assignment %d", id);
         return Response.status(204).build();
     }
 
-    private void enforceConstraints(FulfillmentAssignment assignment) {
-        long warehousesForProduct =
-                fulfillmentRepository.countWarehousesForProductAtStore(
-                        assignment.productId, assignment.storeId);
-        if (warehousesForProduct >= MAX_WAREHOUSES_PER_PRODUCT_PER_STORE) {
-            throw new WebApplicationException(
-                    "Product "
-                            + assignment.productId
-                            + " already has "
-                            + MAX_WAREHOUSES_PER_PRODUCT_PER_STORE
-                            + " warehouses fulfilling it for store "
-                            + assignment.storeId
-                            + ". Maximum reached.",
-                    422);
-        }
-
-        boolean isNewWarehouseForStore =
-                !fulfillmentRepository.warehouseFulfillsStore(
-                        assignment.warehouseBusinessUnitCode, assignment.storeId);
-
-        if (isNewWarehouseForStore) {
-            long warehousesForStore =
-                    fulfillmentRepository.countDistinctWarehousesForStore(assignment.storeId);
-            if (warehousesForStore >= MAX_WAREHOUSES_PER_STORE) {
-                throw new WebApplicationException(
-                        "Store "
-                                + assignment.storeId
-                                + " already has "
-                                + MAX_WAREHOUSES_PER_STORE
-                                + " warehouses fulfilling it. Maximum reached.",
-                        422);
-            }
-        }
+    @DELETE
+    @Path("warehouse/{businessUnitCode}")
+    @Transactional
+    public BulkDeleteResult deleteByWarehouse(String businessUnitCode) {
+        long deleted = fulfillmentRepository.deleteByWarehouse(businessUnitCode);
+        LOGGER.infof("Deleted %d assignments for warehouse %s", deleted, businessUnitCode);
+        return new BulkDeleteResult(deleted);
+    }
 
-        if (!fulfillmentRepository.warehouseStoresProduct(
-                assignment.warehouseBusinessUnitCode, assignment.productId)) {
-            long productsInWarehouse =
-                    fulfillmentRepository.countDistinctProductsForWarehouse(
-                            assignment.warehouseBusinessUnitCode);
-            if (productsInWarehouse >= MAX_PRODUCTS_PER_WAREHOUSE) {
-                throw new WebApplicationException(
-                        "Warehouse '"
-                                + assignment.warehouseBusinessUnitCode
-                                + "' already stores "
-                                + MAX_PRODUCTS_PER_WAREHOUSE
-                                + " product types. Maximum reached.",
-                        422);
-            }
-        }
+    @DELETE
+    @Path("product/{productId}")
+    @Transactional
+    public BulkDeleteResult deleteByProduct(Long productId) {
+        long deleted = fulfillmentRepository.deleteByProductId(productId);
+        LOGGER.infof("Deleted %d assignments for product %d", deleted, productId);
+        return new BulkDeleteResult(deleted);
     }
 }
@@ -0,0 +1,33 @@
+package com.fulfilment.application.monolith.fulfillment;
+
+import com.fulfilment.application.monolith.warehouses.domain.ports.WarehouseAssignmentStore;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+import java.util.List;
+
+/**
+ * Fulfillment side of the warehouse lifecycle. Detaching takes the warehouse's {@link
+ * FulfillmentLocks} lock first. Single and batch assignment writes take the same lock before they
+ * check that the warehouse is active, so a write queued behind an archive only runs that check
+ * once the archive has committed, and is rejected.
+ */
+@ApplicationScoped
+public class FulfillmentWarehouseAssignments implements WarehouseAssignmentStore {
+
+    @Inject
+    FulfillmentRepository fulfillmentRepository;
+    @Inject
+    FulfillmentLocks fulfillmentLocks;
+
+    @Override
+    public long detachAll(String businessUnitCode) {
+        fulfillmentLocks.lock(List.of(), List.of(businessUnitCode));
+        return fulfillmentRepository.deleteByWarehouse(businessUnitCode);
+    }
+
+    @Override
+    public long count(String businessUnitCode) {
+        return fulfillmentRepository.count("warehouseBusinessUnitCode", businessUnitCode);
+    }
+}
@@ -0,0 +1,21 @@
+package com.fulfilment.application.monolith.fulfillment;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+/** Limit overrides for one store; a {@code null} limit falls back to the configured default. */
+@Entity
+@Table(name = "store_fulfillment_limit")
+public class StoreFulfillmentLimit {
+
+    @Id
+    public Long storeId;
+
+    public Integer maxWarehouses;
+
+    public Integer maxWarehousesPerProduct;
+
+    public StoreFulfillmentLimit() {
+    }
+}
@@ -0,0 +1,404 @@
+package com.fulfilment.application.monolith.fulfillment;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Proposes warehouses for uncovered (store, product) demand without breaking the per-store and
+ * per-warehouse limits of a {@link FulfillmentLimitTable}, counting the assignments that already
+ * exist. Every pair gets one warehouse, so a per-product-per-store limit of at least one always
+ * holds.
+ *
+ * <p>The search is a randomised greedy construction restarted until the time budget runs out, a
+ * plan covers everything at the objective's {@linkplain #lowerBound lower bound}, or {@value
+ * #STALL_ATTEMPTS} attempts in a row bring no improvement. One worker per pool thread runs with its
+ * own random stream on the caller's shared pool, and the best plan of all workers wins. Plans are
+ * compared by uncovered demand first, then by the objective: the number of warehouses the plan
+ * uses, or the heaviest warehouse load (existing plus planned assignments).
+ *
+ * <p>All keys are dictionary-encoded to ints up front, so an attempt only touches primitive arrays
+ * and one {@link BitSet} of demanded products per warehouse.
+ */
+final class SupplyNetworkOptimiser {
+
+    /** Attempts in a row without a better plan after which a worker gives up early. */
+    static final int STALL_ATTEMPTS = 1_000;
+
+    enum Objective {
+        MIN_WAREHOUSES,
+        BALANCE
+    }
+
+    record Demand(long storeId, long productId) {}
+
+    record Planned(long storeId, long productId, String warehouseBusinessUnitCode) {}
+
+    record Solution(
+            List<Planned> assignments,
+            List<Demand> uncovered,
+            int warehousesUsed,
+            int maxWarehouseLoad,
+            long attempts) {}
+
+    private final String[] warehouses;
+    private final int[] maxProducts;
+    private final long[] storeIds;
+    private final long[] productIds;
+
+    /** Demanded product indices per store, already-covered pairs removed. */
+    private final int[][] storeDemand;
+
+    private final int[] maxWarehouses;
+
+    private final int[] baseProductCount;
+    private final BitSet[] baseStocked;
+    private final int[] baseLoad;
+    private final int[][] baseStoreWarehouses;
+    private final int[] baseStoreOtherWarehouses;
+
+    SupplyNetworkOptimiser(
+            FulfillmentLimitTable limits,
+            List<String> candidateWarehouses,
+            List<AssignmentKey> existing,
+            List<Demand> demand) {
+        this.warehouses = candidateWarehouses.stream().distinct().toArray(String[]::new);
+        this.maxProducts = new int[warehouses.length];
+        Map<String, Integer> warehouseIndex = new HashMap<>();
+        for (int w = 0; w < warehouses.length; w++) {
+            warehouseIndex.put(warehouses[w], w);
+            maxProducts[w] = limits.maxProductsPerWarehouse(warehouses[w]);
+        }
+
+        Map<Long, Integer> storeIndex = new LinkedHashMap<>();
+        Map<Long, Integer> productIndex = new LinkedHashMap<>();
+        for (Demand pair : demand) {
+            storeIndex.putIfAbsent(pair.storeId(), storeIndex.size());
+            productIndex.putIfAbsent(pair.productId(), productIndex.size());
+        }
+        storeIds = storeIndex.keySet().stream().mapToLong(Long::longValue).toArray();
+        productIds = productIndex.keySet().stream().mapToLong(Long::longValue).toArray();
+        maxWarehouses = Arrays.stream(storeIds).mapToInt(limits::maxWarehousesPerStore).toArray();
+
+        // existing assignments: per-warehouse product sets and loads, per-store warehouse sets
+        List<Set<Long>> warehouseProducts = new ArrayList<>();
+        baseStocked = new BitSet[warehouses.length];
+        baseLoad = new int[warehouses.length];
+        for (int w = 0; w < warehouses.length; w++) {
+            warehouseProducts.add(new HashSet<>());
+            baseStocked[w] = new BitSet(productIds.length);
+        }
+        List<Set<String>> storeWarehouses = new ArrayList<>();
+        for (int s = 0; s < storeIds.length; s++) {
+            storeWarehouses.add(new HashSet<>());
+        }
+        Set<Demand> covered = new HashSet<>();
+        for (AssignmentKey key : existing) {
+            Integer w = warehouseIndex.get(key.warehouseBusinessUnitCode());
+            if (w != null) {
+                warehouseProducts.get(w).add(key.productId());
+                baseLoad[w]++;
+                Integer p = productIndex.get(key.productId());
+                if (p != null) {
+                    baseStocked[w].set(p);
+                }
+            }
+            Integer s = storeIndex.get(key.storeId());
+            if (s != null) {
+                storeWarehouses.get(s).add(key.warehouseBusinessUnitCode());
+                covered.add(new Demand(key.storeId(), key.productId()));
+            }
+        }
+        baseProductCount = warehouseProducts.stream().mapToInt(Set::size).toArray();
+
+        baseStoreWarehouses = new int[storeIds.length][];
+        baseStoreOtherWarehouses = new int[storeIds.length];
+        for (int s = 0; s < storeIds.length; s++) {
+            List<Integer> known = new ArrayList<>();
+            for (String code : storeWarehouses.get(s)) {
+                Integer w = warehouseIndex.get(code);
+                if (w == null) {
+                    baseStoreOtherWarehouses[s]++;
+                } else {
+                    known.add(w);
+                }
+            }
+            baseStoreWarehouses[s] = known.stream().mapToInt(Integer::intValue).toArray();
+        }
+
+        List<List<Integer>> perStore = new ArrayList<>();
+        for (int s = 0; s < storeIds.length; s++) {
+            perStore.add(new ArrayList<>());
+        }
+        Set<Demand> seen = new HashSet<>();
+        for (Demand pair : demand) {
+            if (!covered.contains(pair) && seen.add(pair)) {
+                perStore.get(storeIndex.get(pair.storeId()))
+                        .add(productIndex.get(pair.productId()));
+            }
+        }
+        storeDemand = new int[storeIds.length][];
+        for (int s = 0; s < storeIds.length; s++) {
+            storeDemand[s] = perStore.get(s).stream().mapToInt(Integer::intValue).toArray();
+        }
+    }
+
+    /** Searches with one worker per thread of {@code pool}, which is shared and not shut down. */
+    Solution solve(Objective objective, Duration budget, ForkJoinPool pool) {
+        long deadline = System.nanoTime() + budget.toNanos();
+        int bound = lowerBound(objective);
+        int parallelism = pool.getParallelism();
+        List<ForkJoinTask<Attempt>> workers = new ArrayList<>(parallelism);
+        for (int i = 0; i < parallelism; i++) {
+            long seed = 0x5EED + i;
+            workers.add(pool.submit(() -> search(objective, bound, deadline, seed)));
+        }
+        Attempt best = null;
+        long attempts = 0;
+        for (ForkJoinTask<Attempt> worker : workers) {
+            Attempt candidate = worker.join();
+            attempts += candidate.attempts;
+            if (best == null || candidate.betterThan(best)) {
+                best = candidate;
+            }
+        }
+        return best.toSolution(attempts);
+    }
+
+    /**
+     * No plan that covers all demand can cost less: one warehouse as soon as there is demand, or
+     * for balance the heaviest existing load and the average load once everything is placed.
+     */
+    int lowerBound(Objective objective) {
+        int demand = totalDemand();
+        if (objective == Objective.MIN_WAREHOUSES) {
+            return demand > 0 ? 1 : 0;
+        }
+        long total = demand;
+        int heaviest = 0;
+        for (int load : baseLoad) {
+            total += load;
+            heaviest = Math.max(heaviest, load);
+        }
+        if (warehouses.length == 0) {
+            return heaviest;
+        }
+        return (int) Math.max(heaviest, (total + warehouses.length - 1) / warehouses.length);
+    }
+
+    private Attempt search(Objective objective, int bound, long deadline, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        // the first attempt of every worker is the plain greedy order, without noise
+        Attempt best = construct(objective, random, false);
+        long attempts = 1;
+        int stalled = 0;
+        while (System.nanoTime() < deadline
+                && (best.uncovered > 0 || best.cost > bound)
+                && stalled < STALL_ATTEMPTS) {
+            Attempt candidate = construct(objective, random, true);
+            attempts++;
+            if (candidate.betterThan(best)) {
+                best = candidate;
+                stalled = 0;
+            } else {
+                stalled++;
+            }
+        }
+        best.attempts = attempts;
+        return best;
+    }
+
+    private Attempt construct(Objective objective, SplittableRandom random, boolean noisy) {
+        int[] productCount = baseProductCount.clone();
+        int[] load = baseLoad.clone();
+        BitSet[] stocked = new BitSet[warehouses.length];
+        for (int w = 0; w < warehouses.length; w++) {
+            stocked[w] = (BitSet) baseStocked[w].clone();
+        }
+        boolean[] usedByPlan = new boolean[warehouses.length];
+        int[] chosen = new int[totalDemand()];
+        int[] order = storeOrder(random, noisy);
+
+        int uncovered = 0;
+        int[] offsets = demandOffsets();
+        int[] storeWarehouses = new int[warehouses.length];
+        for (int s : order) {
+            int known = baseStoreWarehouses[s].length;
+            System.arraycopy(baseStoreWarehouses[s], 0, storeWarehouses, 0, known);
+            int distinct = known + baseStoreOtherWarehouses[s];
+            int[] products = storeDemand[s].clone();
+            if (noisy) {
+                shuffle(products, random);
+            }
+            for (int i = 0; i < products.length; i++) {
+                int p = products[i];
+                int best = -1;
+                double bestScore = Double.MAX_VALUE;
+                for (int w = 0; w < warehouses.length; w++) {
+                    boolean serves = contains(storeWarehouses, known, w);
+                    if (!serves && distinct >= maxWarehouses[s]) {
+                        continue;
+                    }
+                    boolean stocks = stocked[w].get(p);
+                    if (!stocks && productCount[w] >= maxProducts[w]) {
+                        continue;
+                    }
+                    double score =
+                            objective == Objective.MIN_WAREHOUSES
+                                    ? (serves ? 0 : 4)
+                                            + (stocks ? 0 : 2)
+                                            + (usedByPlan[w] || productCount[w] > 0 ? 0 : 8)
+                                    : load[w] + (serves ? 0 : 0.5) + (stocks ? 0 : 0.25);
+                    if (noisy) {
+                        score += random.nextDouble() * 1.5;
+                    }
+                    if (score < bestScore) {
+                        bestScore = score;
+                        best = w;
+                    }
+                }
+                int slot = offsets[s] + indexOf(storeDemand[s], p);
+                chosen[slot] = best;
+                if (best < 0) {
+                    uncovered++;
+                    continue;
+                }
+                if (!contains(storeWarehouses, known, best)) {
+                    storeWarehouses[known++] = best;
+                    distinct++;
+                }
+                if (!stocked[best].get(p)) {
+                    stocked[best].set(p);
+                    productCount[best]++;
+                }
+                load[best]++;
+                usedByPlan[best] = true;
+            }
+        }
+
+        int used = 0;
+        int maxLoad = 0;
+        for (int w = 0; w < warehouses.length; w++) {
+            if (usedByPlan[w]) {
+                used++;
+            }
+            maxLoad = Math.max(maxLoad, load[w]);
+        }
+        int cost = objective == Objective.MIN_WAREHOUSES ? used : maxLoad;
+        return new Attempt(chosen, uncovered, cost, used, maxLoad);
+    }
+
+    private int[] storeOrder(SplittableRandom random, boolean noisy) {
+        Integer[] order = new Integer[storeIds.length];
+        for (int s = 0; s < order.length; s++) {
+            order[s] = s;
+        }
+        if (noisy) {
+            for (int i = order.length - 1; i > 0; i--) {
+                int j = random.nextInt(i + 1);
+                Integer tmp = order[i];
+                order[i] = order[j];
+                order[j] = tmp;
+            }
+        }
+        // most constrained stores first; the sort is stable, so shuffled ties stay shuffled
+        Arrays.sort(order, (a, b) -> Integer.compare(storeDemand[b].length, storeDemand[a].length));
+        return Arrays.stream(order).mapToInt(Integer::intValue).toArray();
+    }
+
+    private int totalDemand() {
+        int total = 0;
+        for (int[] products : storeDemand) {
+            total += products.length;
+        }
+        return total;
+    }
+
+    private int[] demandOffsets() {
+        int[] offsets = new int[storeDemand.length];
+        for (int s = 1; s < storeDemand.length; s++) {
+            offsets[s] = offsets[s - 1] + storeDemand[s - 1].length;
+        }
+        return offsets;
+    }
+
+    private static boolean contains(int[] values, int size, int value) {
+        for (int i = 0; i < size; i++) {
+            if (values[i] == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int indexOf(int[] values, int value) {
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] == value) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static void shuffle(int[] values, SplittableRandom random) {
+        for (int i = values.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int tmp = values[i];
+            values[i] = values[j];
+            values[j] = tmp;
+        }
+    }
+
+    /** One constructed plan: the chosen warehouse per demand slot, or -1 when uncovered. */
+    private final class Attempt {
+
+        final int[] chosen;
+        final int uncovered;
+        final int cost;
+        final int used;
+        final int maxLoad;
+        long attempts;
+
+        Attempt(int[] chosen, int uncovered, int cost, int used, int maxLoad) {
+            this.chosen = chosen;
+            this.uncovered = uncovered;
+            this.cost = cost;
+            this.used = used;
+            this.maxLoad = maxLoad;
+        }
+
+        boolean betterThan(Attempt other) {
+            if (uncovered != other.uncovered) {
+                return uncovered < other.uncovered;
+            }
+            return cost < other.cost;
+        }
+
+        Solution toSolution(long totalAttempts) {
+            List<Planned> planned = new ArrayList<>();
+            List<Demand> missing = new ArrayList<>();
+            int slot = 0;
+            for (int s = 0; s < storeDemand.length; s++) {
+                for (int p : storeDemand[s]) {
+                    int w = chosen[slot++];
+                    if (w < 0) {
+                        missing.add(new Demand(storeIds[s], productIds[p]));
+                    } else {
+                        planned.add(new Planned(storeIds[s], productIds[p], warehouses[w]));
+                    }
+                }
+            }
+            return new Solution(planned, missing, used, maxLoad, totalAttempts);
+        }
+    }
+}
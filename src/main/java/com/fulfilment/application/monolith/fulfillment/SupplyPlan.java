@@ -0,0 +1,20 @@
+package com.fulfilment.application.monolith.fulfillment;
+
+import java.util.List;
+
+/**
+ * Result of {@code POST /fulfillment/plan}: the proposed assignments, the demand that could not be
+ * covered within the limits, and the shape of the resulting network.
+ */
+public record SupplyPlan(
+        String objective,
+        List<PlannedAssignment> assignments,
+        List<SupplyPlanRequest.SupplyDemand> uncovered,
+        int warehousesUsed,
+        int maxWarehouseLoad,
+        long attempts,
+        boolean applied) {
+
+    public record PlannedAssignment(
+            Long storeId, Long productId, String warehouseBusinessUnitCode) {}
+}
@@ -0,0 +1,17 @@
+package com.fulfilment.application.monolith.fulfillment;
+
+import java.util.List;
+
+/**
+ * Body of {@code POST /fulfillment/plan}. {@code objective} is {@code MIN_WAREHOUSES} (default) or
+ * {@code BALANCE}; {@code warehouses} optionally restricts the candidates to those codes.
+ */
+public record SupplyPlanRequest(
+        List<SupplyDemand> demand,
+        String objective,
+        Long timeBudgetMillis,
+        List<String> warehouses) {
+
+    /** A store that needs a product fulfilled. */
+    public record SupplyDemand(Long storeId, Long productId) {}
+}
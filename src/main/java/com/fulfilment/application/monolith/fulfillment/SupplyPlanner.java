@@ -0,0 +1,212 @@
+package com.fulfilment.application.monolith.fulfillment;
+
+import com.fulfilment.application.monolith.errors.ErrorCode;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Plans warehouses for a demand set with {@link SupplyNetworkOptimiser} and optionally writes the
+ * plan through {@link FulfillmentBatchCreator}, which re-checks every limit in its own
+ * transaction. The search itself runs outside any transaction, on one fork-join pool shared by all
+ * requests; at most {@code fulfillment.plan.max-concurrent} plans run at a time and further
+ * requests are turned away with 503 rather than queued behind a full time budget.
+ */
+@ApplicationScoped
+public class SupplyPlanner {
+
+    static final int MAX_DEMAND = 100_000;
+
+    private static final Logger LOGGER = Logger.getLogger(SupplyPlanner.class);
+
+    @Inject
+    FulfillmentRepository fulfillmentRepository;
+
+    @Inject
+    FulfillmentBatchCreator fulfillmentBatchCreator;
+
+    @Inject
+    FulfillmentLimitService limitService;
+
+    @ConfigProperty(name = "fulfillment.plan.default-budget", defaultValue = "2s")
+    Duration defaultBudget;
+
+    @ConfigProperty(name = "fulfillment.plan.max-budget", defaultValue = "30s")
+    Duration maxBudget;
+
+    @ConfigProperty(name = "fulfillment.plan.parallelism", defaultValue = "0")
+    int parallelism;
+
+    @ConfigProperty(name = "fulfillment.plan.max-concurrent", defaultValue = "2")
+    int maxConcurrent;
+
+    private ForkJoinPool pool;
+    private Semaphore running;
+
+    @PostConstruct
+    void init() {
+        pool =
+                new ForkJoinPool(
+                        parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+        running = new Semaphore(maxConcurrent);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        pool.shutdownNow();
+    }
+
+    public SupplyPlan plan(SupplyPlanRequest request, boolean apply) {
+        if (request == null || request.demand() == null || request.demand().isEmpty()) {
+            throw ErrorCode.MISSING_DEMAND.exception();
+        }
+        if (request.demand().size() > MAX_DEMAND) {
+            throw ErrorCode.DEMAND_TOO_LARGE.exception(
+                    "demand must not contain more than " + MAX_DEMAND + " pairs.");
+        }
+        SupplyNetworkOptimiser.Objective objective = objective(request.objective());
+        Duration budget = budget(request.timeBudgetMillis());
+
+        List<SupplyNetworkOptimiser.Demand> demand = new ArrayList<>(request.demand().size());
+        Set<Long> storeIds = new LinkedHashSet<>();
+        Set<Long> productIds = new LinkedHashSet<>();
+        for (int i = 0; i < request.demand().size(); i++) {
+            SupplyPlanRequest.SupplyDemand pair = request.demand().get(i);
+            if (pair == null || pair.storeId() == null || pair.productId() == null) {
+                throw ErrorCode.INCOMPLETE_DEMAND_ITEM.exception(
+                        "Item " + i + ": storeId and productId are required.");
+            }
+            demand.add(new SupplyNetworkOptimiser.Demand(pair.storeId(), pair.productId()));
+            storeIds.add(pair.storeId());
+            productIds.add(pair.productId());
+        }
+        FulfillmentBatchCreator.requireAll(
+                ErrorCode.STORE_NOT_FOUND,
+                "Stores",
+                storeIds,
+                fulfillmentRepository.findExistingStoreIds(storeIds));
+        FulfillmentBatchCreator.requireAll(
+                ErrorCode.PRODUCT_NOT_FOUND,
+                "Products",
+                productIds,
+                fulfillmentRepository.findExistingProductIds(productIds));
+
+        List<String> candidates = candidates(request.warehouses());
+        SupplyNetworkOptimiser optimiser =
+                new SupplyNetworkOptimiser(
+                        limitService.table(),
+                        candidates,
+                        fulfillmentRepository.findAssignmentKeys(storeIds, candidates),
+                        demand);
+        if (!running.tryAcquire()) {
+            throw ErrorCode.PLANNER_BUSY.exception();
+        }
+        SupplyNetworkOptimiser.Solution solution;
+        try {
+            solution = optimiser.solve(objective, budget, pool);
+        } finally {
+            running.release();
+        }
+        LOGGER.infof(
+                "Planned %d assignments over %d warehouses (%d uncovered) in %d attempts",
+                solution.assignments().size(),
+                solution.warehousesUsed(),
+                solution.uncovered().size(),
+                solution.attempts());
+
+        if (apply && !solution.uncovered().isEmpty()) {
+            throw ErrorCode.PLAN_INCOMPLETE.exception(
+                    "Plan leaves "
+                            + solution.uncovered().size()
+                            + " store/product pairs uncovered; nothing was applied.");
+        }
+        if (apply && !solution.assignments().isEmpty()) {
+            fulfillmentBatchCreator.create(toAssignments(solution.assignments()));
+        }
+        return toPlan(objective, solution, apply);
+    }
+
+    private List<String> candidates(List<String> requested) {
+        if (requested == null || requested.isEmpty()) {
+            return fulfillmentRepository.listActiveWarehouseCodes();
+        }
+        Set<String> wanted = new LinkedHashSet<>(requested);
+        FulfillmentBatchCreator.requireAll(
+                ErrorCode.WAREHOUSE_NOT_FOUND,
+                "Warehouses",
+                wanted,
+                fulfillmentRepository.findActiveWarehouseCodes(wanted));
+        return new ArrayList<>(wanted);
+    }
+
+    private static SupplyNetworkOptimiser.Objective objective(String value) {
+        if (value == null || value.isBlank()) {
+            return SupplyNetworkOptimiser.Objective.MIN_WAREHOUSES;
+        }
+        try {
+            return SupplyNetworkOptimiser.Objective.valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw ErrorCode.UNKNOWN_OBJECTIVE.exception();
+        }
+    }
+
+    private Duration budget(Long millis) {
+        if (millis == null) {
+            return defaultBudget;
+        }
+        Duration budget = Duration.ofMillis(millis);
+        if (millis <= 0 || budget.compareTo(maxBudget) > 0) {
+            throw ErrorCode.INVALID_TIME_BUDGET.exception(
+                    "timeBudgetMillis must be between 1 and " + maxBudget.toMillis() + ".");
+        }
+        return budget;
+    }
+
+    private static List<FulfillmentAssignment> toAssignments(
+            List<SupplyNetworkOptimiser.Planned> planned) {
+        List<FulfillmentAssignment> assignments = new ArrayList<>(planned.size());
+        for (SupplyNetworkOptimiser.Planned p : planned) {
+            FulfillmentAssignment assignment = new FulfillmentAssignment();
+            assignment.warehouseBusinessUnitCode = p.warehouseBusinessUnitCode();
+            assignment.productId = p.productId();
+            assignment.storeId = p.storeId();
+            assignments.add(assignment);
+        }
+        return assignments;
+    }
+
+    private static SupplyPlan toPlan(
+            SupplyNetworkOptimiser.Objective objective,
+            SupplyNetworkOptimiser.Solution solution,
+            boolean applied) {
+        return new SupplyPlan(
+                objective.name(),
+                solution.assignments().stream()
+                        .map(
+                                p ->
+                                        new SupplyPlan.PlannedAssignment(
+                                                p.storeId(),
+                                                p.productId(),
+                                                p.warehouseBusinessUnitCode()))
+                        .toList(),
+                solution.uncovered().stream()
+                        .map(d -> new SupplyPlanRequest.SupplyDemand(d.storeId(), d.productId()))
+                        .toList(),
+                solution.warehousesUsed(),
+                solution.maxWarehouseLoad(),
+                solution.attempts(),
+                applied && !solution.assignments().isEmpty());
+    }
+}
@@ -0,0 +1,19 @@
+package com.fulfilment.application.monolith.fulfillment;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+/** Limit override for one warehouse; a {@code null} limit falls back to the configured default. */
+@Entity
+@Table(name = "warehouse_fulfillment_limit")
+public class WarehouseFulfillmentLimit {
+
+    @Id
+    public String businessUnitCode;
+
+    public Integer maxProducts;
+
+    public WarehouseFulfillmentLimit() {
+    }
+}
@@ -0,0 +1,6 @@
+package com.fulfilment.application.monolith.fulfillment;
+
+/** An active warehouse assigned to a (store, product) pair, with its routing figures. */
+public record WarehouseRoute(
+        String businessUnitCode, String location, int capacity, int stock, int headroom) {
+}
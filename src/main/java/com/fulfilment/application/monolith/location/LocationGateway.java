@@ -2,6 +2,8 @@ package com.fulfilment.application.monolith.location;
 
 import com.fulfilment.application.monolith.warehouses.domain.models.Location;
 import com.fulfilment.application.monolith.warehouses.domain.ports.LocationResolver;
+import io.opentelemetry.instrumentation.annotations.SpanAttribute;
+import io.opentelemetry.instrumentation.annotations.WithSpan;
 import jakarta.enterprise.context.ApplicationScoped;
 import org.jboss.logging.Logger;
 
@@ -27,7 +29,8 @@ public class LocationGateway implements LocationResolver {
     }
 
     @Override
-    public Location resolveByIdentifier(String identifier) {
+    @WithSpan
+    public Location resolveByIdentifier(@SpanAttribute("location.identifier") String identifier) {
         if (identifier == null || identifier.isBlank()) {
             return null;
         }
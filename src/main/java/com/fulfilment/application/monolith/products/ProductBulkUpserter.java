@@ -0,0 +1,250 @@
+package com.fulfilment.application.monolith.products;
+
+import com.fulfilment.application.monolith.TransactionHooks;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.hibernate.Session;
+import org.jboss.logging.Logger;
+
+import java.math.BigDecimal;
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Upserts products by their unique name. Each chunk is sent as a single {@code INSERT ... SELECT
+ * FROM unnest(...) ON CONFLICT (name) DO UPDATE} statement with one array parameter per column, so
+ * a chunk costs one round trip regardless of its size, and {@code RETURNING (xmax = 0)} tells
+ * created rows from updated ones. Every chunk commits in its own transaction.
+ *
+ * <p>Ids come from {@code product_seq} the way Hibernate's pooled-lo optimizer (the Quarkus
+ * default) takes them: one {@code nextval} reserves the {@value #ID_BLOCK} ids starting at the
+ * value it returns. A chunk draws one value per block of rows instead of one per row, which would
+ * burn a whole block on every row.
+ */
+@ApplicationScoped
+public class ProductBulkUpserter {
+
+    private static final Logger LOGGER = Logger.getLogger(ProductBulkUpserter.class);
+
+    /** The sequence's INCREMENT BY, which Hibernate uses as its allocation size. */
+    static final int ID_BLOCK = 50;
+
+    private static final String UPSERT =
+            "WITH blocks AS MATERIALIZED"
+                    + " (SELECT g - 1 AS block, nextval('product_seq') AS lo"
+                    + " FROM generate_series(1, ?) AS g)"
+                    + " INSERT INTO product (id, name, description, price, stock)"
+                    + " SELECT b.lo + (u.n - 1) % "
+                    + ID_BLOCK
+                    + ", u.name, u.description, u.price, u.stock"
+                    + " FROM unnest(?::text[], ?::text[], ?::numeric[], ?::int4[])"
+                    + " WITH ORDINALITY AS u(name, description, price, stock, n)"
+                    + " JOIN blocks b ON b.block = (u.n - 1) / "
+                    + ID_BLOCK
+                    + " ON CONFLICT (name) DO UPDATE SET description = EXCLUDED.description,"
+                    + " price = EXCLUDED.price, stock = EXCLUDED.stock"
+                    + " RETURNING id, name, stock, (xmax = 0) AS inserted";
+
+    private static final int MAX_NAME_LENGTH = 40;
+    private static final int MAX_DESCRIPTION_LENGTH = 255;
+    private static final BigDecimal MAX_PRICE = new BigDecimal("99999999.99");
+
+    @Inject
+    EntityManager em;
+    @Inject
+    TransactionHooks transactionHooks;
+    @Inject
+    StockReservationService stockReservationService;
+    @Inject
+    ProductFullTextSearch productFullTextSearch;
+    @Inject
+    ProductSnapshot productSnapshot;
+
+    @ConfigProperty(name = "product.bulk.chunk-size", defaultValue = "5000")
+    int chunkSize;
+
+    public ProductUpsertResult upsert(List<Product> products) {
+        ProductUpsertResult result = new ProductUpsertResult();
+
+        // the last occurrence of a name wins; earlier ones are reported as duplicates
+        Map<String, Integer> latest = new LinkedHashMap<>();
+        for (int i = 0; i < products.size(); i++) {
+            Product product = products.get(i);
+            String error = validate(product);
+            if (error != null) {
+                result.record(
+                        i,
+                        product == null ? null : product.name,
+                        null,
+                        ProductUpsertResult.Outcome.REJECTED,
+                        error);
+                continue;
+            }
+            Integer previous = latest.remove(product.name);
+            if (previous != null) {
+                result.record(
+                        previous,
+                        product.name,
+                        null,
+                        ProductUpsertResult.Outcome.DUPLICATE,
+                        "Superseded by item " + i + ".");
+            }
+            latest.put(product.name, i);
+        }
+
+        List<Integer> chunk = new ArrayList<>(chunkSize);
+        for (int index : latest.values()) {
+            chunk.add(index);
+            if (chunk.size() >= chunkSize) {
+                upsertChunk(products, chunk, result);
+                chunk.clear();
+            }
+        }
+        upsertChunk(products, chunk, result);
+
+        result.sortRows();
+        LOGGER.infof(
+                "Bulk upserted products: %d created, %d updated, %d rejected, %d duplicates",
+                result.created, result.updated, result.rejected, result.duplicates);
+        return result;
+    }
+
+    private void upsertChunk(
+            List<Product> products, List<Integer> chunk, ProductUpsertResult result) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        try {
+            Map<String, Written> written =
+                    QuarkusTransaction.requiringNew().call(() -> writeChunk(products, chunk));
+            for (int index : chunk) {
+                String name = products.get(index).name;
+                Written row = written.get(name);
+                result.record(
+                        index,
+                        name,
+                        row.id(),
+                        row.inserted()
+                                ? ProductUpsertResult.Outcome.CREATED
+                                : ProductUpsertResult.Outcome.UPDATED,
+                        null);
+            }
+        } catch (RuntimeException e) {
+            LOGGER.warnf(
+                    "Bulk product upsert chunk of %d failed: %s", chunk.size(), e.getMessage());
+            for (int index : chunk) {
+                result.record(
+                        index,
+                        products.get(index).name,
+                        null,
+                        ProductUpsertResult.Outcome.REJECTED,
+                        "Chunk rolled back: " + e.getMessage());
+            }
+        }
+    }
+
+    private Map<String, Written> writeChunk(List<Product> products, List<Integer> chunk) {
+        Map<String, Written> written =
+                em.unwrap(Session.class)
+                        .doReturningWork(connection -> execute(connection, products, chunk));
+
+        // the statement bypassed the persistence context, so drop any cached products
+        em.getEntityManagerFactory().getCache().evict(Product.class);
+        transactionHooks.afterCommit(
+                () -> {
+                    for (int index : chunk) {
+                        Product product = products.get(index);
+                        Written row = written.get(product.name);
+                        stockReservationService.stockChanged(row.id(), row.stock());
+                        productFullTextSearch.indexProduct(
+                                row.id(), product.name, product.description);
+                        productSnapshot.markChanged(row.id());
+                    }
+                });
+        return written;
+    }
+
+    private static Map<String, Written> execute(
+            Connection connection, List<Product> products, List<Integer> chunk)
+            throws SQLException {
+        int size = chunk.size();
+        String[] names = new String[size];
+        String[] descriptions = new String[size];
+        BigDecimal[] prices = new BigDecimal[size];
+        Integer[] stocks = new Integer[size];
+        for (int i = 0; i < size; i++) {
+            Product product = products.get(chunk.get(i));
+            names[i] = product.name;
+            descriptions[i] = product.description;
+            prices[i] = product.price;
+            stocks[i] = product.stock;
+        }
+
+        Map<String, Written> written = new HashMap<>(size * 2);
+        try (PreparedStatement statement = connection.prepareStatement(UPSERT)) {
+            Array[] arrays = {
+                connection.createArrayOf("text", names),
+                connection.createArrayOf("text", descriptions),
+                connection.createArrayOf("numeric", prices),
+                connection.createArrayOf("int4", stocks)
+            };
+            statement.setInt(1, (size + ID_BLOCK - 1) / ID_BLOCK);
+            for (int i = 0; i < arrays.length; i++) {
+                statement.setArray(i + 2, arrays[i]);
+            }
+            try (ResultSet rs = statement.executeQuery()) {
+                while (rs.next()) {
+                    written.put(
+                            rs.getString(2),
+                            new Written(rs.getLong(1), rs.getInt(3), rs.getBoolean(4)));
+                }
+            } finally {
+                for (Array array : arrays) {
+                    array.free();
+                }
+            }
+        }
+        return written;
+    }
+
+    private static String validate(Product product) {
+        if (product == null) {
+            return "Item is empty.";
+        }
+        if (product.id != null) {
+            return "Id was invalidly set on request.";
+        }
+        if (product.name == null || product.name.isBlank()) {
+            return "Product Name was not set on request.";
+        }
+        if (product.name.length() > MAX_NAME_LENGTH) {
+            return "Product Name is longer than " + MAX_NAME_LENGTH + " characters.";
+        }
+        if (product.description != null && product.description.length() > MAX_DESCRIPTION_LENGTH) {
+            return "Description is longer than " + MAX_DESCRIPTION_LENGTH + " characters.";
+        }
+        if (product.price != null
+                && (product.price.signum() < 0
+                        || product.price.scale() > 2
+                        || product.price.compareTo(MAX_PRICE) > 0)) {
+            return "Price must be between 0 and " + MAX_PRICE + " with at most 2 decimals.";
+        }
+        if (product.stock < 0) {
+            return "Stock must be >= 0.";
+        }
+        return null;
+    }
+
+    private record Written(long id, int stock, boolean inserted) {}
+}
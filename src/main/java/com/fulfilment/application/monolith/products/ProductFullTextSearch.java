@@ -0,0 +1,120 @@
+package com.fulfilment.application.monolith.products;
+
+import com.fulfilment.application.monolith.search.FullTextIndex;
+import com.fulfilment.application.monolith.search.NameMatch;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import jakarta.ws.rs.WebApplicationException;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.hibernate.jpa.HibernateHints;
+import org.jboss.logging.Logger;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Full-text search over product name and description, served from a {@link FullTextIndex} held in
+ * memory. The index is built at startup by scanning the product table in parallel id ranges and is
+ * then kept current from committed product writes.
+ */
+@ApplicationScoped
+public class ProductFullTextSearch {
+
+    public static final int DEFAULT_LIMIT = 20;
+    public static final int MAX_LIMIT = 100;
+
+    private static final Logger LOGGER = Logger.getLogger(ProductFullTextSearch.class);
+
+    @Inject
+    EntityManager em;
+
+    @ConfigProperty(name = "product.fulltext.build-parallelism", defaultValue = "4")
+    int buildParallelism;
+
+    private final FullTextIndex index = new FullTextIndex();
+
+    void onStart(@Observes StartupEvent event) {
+        rebuild();
+    }
+
+    public List<NameMatch> search(String query, Integer limit) {
+        if (query == null || query.isBlank()) {
+            throw new WebApplicationException("Search query 'q' is required.", 422);
+        }
+        int max = limit == null ? DEFAULT_LIMIT : limit;
+        if (max < 1 || max > MAX_LIMIT) {
+            throw new WebApplicationException(
+                    "limit must be between 1 and " + MAX_LIMIT + ".", 422);
+        }
+        return index.search(query, max);
+    }
+
+    /** Called once a product create or update has committed. */
+    public void indexProduct(long id, String name, String description) {
+        index.put(id, name, description);
+    }
+
+    /** Called once a product delete has committed. */
+    public void removeProduct(long id) {
+        index.remove(id);
+    }
+
+    void rebuild() {
+        long start = System.nanoTime();
+        Object[] bounds = QuarkusTransaction.requiringNew().call(this::readIdBounds);
+        index.clear();
+        if (bounds[0] == null) {
+            return;
+        }
+
+        long min = (Long) bounds[0];
+        long max = (Long) bounds[1];
+        long span = (max - min) / buildParallelism + 1;
+        ExecutorService scanners = Executors.newFixedThreadPool(buildParallelism);
+        try {
+            List<CompletableFuture<Void>> scans = new ArrayList<>(buildParallelism);
+            for (long from = min; from <= max; from += span) {
+                long lower = from;
+                long upper = Math.min(max, from + span - 1);
+                scans.add(CompletableFuture.runAsync(() -> scan(lower, upper), scanners));
+            }
+            CompletableFuture.allOf(scans.toArray(CompletableFuture[]::new)).join();
+        } finally {
+            scanners.shutdown();
+        }
+        LOGGER.infof(
+                "Product full-text index built with %d products in %d ms",
+                index.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private void scan(long lower, long upper) {
+        List<Object[]> rows =
+                QuarkusTransaction.requiringNew().call(() -> readRange(lower, upper));
+        for (Object[] row : rows) {
+            index.put((Long) row[0], (String) row[1], (String) row[2]);
+        }
+    }
+
+    private Object[] readIdBounds() {
+        return em.createQuery("select min(p.id), max(p.id) from Product p", Object[].class)
+                .getSingleResult();
+    }
+
+    private List<Object[]> readRange(long lower, long upper) {
+        return em.createQuery(
+                        "select p.id, p.name, p.description from Product p"
+                                + " where p.id between :lower and :upper",
+                        Object[].class)
+                .setParameter("lower", lower)
+                .setParameter("upper", upper)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultList();
+    }
+}
@@ -0,0 +1,10 @@
+package com.fulfilment.application.monolith.products;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One keyset page of products. Pass {@code nextAfterId} back as {@code afterId} to fetch the next
+ * page; it is {@code null} on the last page.
+ */
+public record ProductPage(List<Map<String, Object>> items, Long nextAfterId) {}
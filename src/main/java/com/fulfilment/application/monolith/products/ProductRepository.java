@@ -2,6 +2,93 @@ package com.fulfilment.application.monolith.products;
 
 import io.quarkus.hibernate.orm.panache.PanacheRepository;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.ws.rs.WebApplicationException;
+import org.hibernate.jpa.HibernateHints;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
 @ApplicationScoped
-public class ProductRepository implements PanacheRepository<Product> {}
+public class ProductRepository implements PanacheRepository<Product> {
+
+    static final List<String> SELECTABLE_FIELDS =
+            List.of("id", "name", "description", "price", "stock");
+
+    private static final String VIEW_SELECT =
+            "select new com.fulfilment.application.monolith.products.ProductView("
+                    + "p.id, p.name, p.description, p.price, p.stock) from Product p ";
+
+    public List<ProductView> listViews() {
+        return getEntityManager()
+                .createQuery(VIEW_SELECT + "order by p.name", ProductView.class)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultList();
+    }
+
+    public List<ProductView> listViews(Collection<Long> ids) {
+        return getEntityManager()
+                .createQuery(VIEW_SELECT + "where p.id in :ids", ProductView.class)
+                .setParameter("ids", ids)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultList();
+    }
+
+    public ProductView findView(Long id) {
+        return getEntityManager()
+                .createQuery(VIEW_SELECT + "where p.id = :id", ProductView.class)
+                .setParameter("id", id)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream()
+                .findFirst()
+                .orElse(null);
+    }
+
+    /**
+     * Keyset page ordered by id, selecting only the requested columns. The id is always selected
+     * because it is the page cursor.
+     */
+    public ProductPage page(Long afterId, int limit, List<String> fields) {
+        List<String> columns = new ArrayList<>();
+        columns.add("id");
+        for (String field : fields) {
+            if (!SELECTABLE_FIELDS.contains(field)) {
+                throw new WebApplicationException("Unknown product field '" + field + "'.", 422);
+            }
+            if (!columns.contains(field)) {
+                columns.add(field);
+            }
+        }
+
+        StringBuilder jpql = new StringBuilder("select ");
+        for (int i = 0; i < columns.size(); i++) {
+            jpql.append(i == 0 ? "" : ", ").append("p.").append(columns.get(i));
+        }
+        jpql.append(" from Product p where p.id > :after order by p.id");
+
+        List<?> rows =
+                getEntityManager()
+                        .createQuery(jpql.toString())
+                        .setParameter("after", afterId == null ? 0L : afterId)
+                        .setHint(HibernateHints.HINT_READ_ONLY, true)
+                        .setMaxResults(limit + 1)
+                        .getResultList();
+
+        boolean hasMore = rows.size() > limit;
+        List<Map<String, Object>> items = new ArrayList<>(Math.min(rows.size(), limit));
+        for (int r = 0; r < rows.size() && r < limit; r++) {
+            // a single selected column comes back unwrapped
+            Object result = rows.get(r);
+            Object[] row = result instanceof Object[] array ? array : new Object[] {result};
+            Map<String, Object> item = new LinkedHashMap<>();
+            for (int c = 0; c < columns.size(); c++) {
+                item.put(columns.get(c), row[c]);
+            }
+            items.add(item);
+        }
+        Long next = hasMore ? (Long) items.get(items.size() - 1).get("id") : null;
+        return new ProductPage(items, next);
+    }
+}
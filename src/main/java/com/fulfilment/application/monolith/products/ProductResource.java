@@ -1,6 +1,9 @@
 package com.fulfilment.application.monolith.products;
 
-import io.quarkus.panache.common.Sort;
+import com.fulfilment.application.monolith.TransactionHooks;
+import com.fulfilment.application.monolith.fulfillment.FulfillmentRepository;
+import com.fulfilment.application.monolith.search.NameMatch;
+import com.fulfilment.application.monolith.search.TrigramNameSearch;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import jakarta.transaction.Transactional;
@@ -11,10 +14,13 @@ import jakarta.ws.rs.POST;
 import jakarta.ws.rs.PUT;
 import jakarta.ws.rs.Path;
 import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.QueryParam;
 import jakarta.ws.rs.WebApplicationException;
+import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
 import org.jboss.logging.Logger;
 
+import java.util.Arrays;
 import java.util.List;
 
 @Path("product")
@@ -27,21 +33,72 @@ public class ProductResource {
 
     @Inject
     ProductRepository productRepository;
+    @Inject
+    FulfillmentRepository fulfillmentRepository;
+    @Inject
+    TrigramNameSearch trigramNameSearch;
+    @Inject
+    StockReservationService stockReservationService;
+    @Inject
+    TransactionHooks transactionHooks;
+    @Inject
+    ProductBulkUpserter productBulkUpserter;
+    @Inject
+    ProductFullTextSearch productFullTextSearch;
+    @Inject
+    ProductSnapshot productSnapshot;
+
+    static final int DEFAULT_PAGE_SIZE = 50;
+    static final int MAX_PAGE_SIZE = 500;
+
+    @GET
+    public List<ProductView> get() {
+        return productRepository.listViews();
+    }
+
+    @GET
+    @Path("page")
+    public ProductPage page(
+            @QueryParam("afterId") Long afterId,
+            @QueryParam("limit") Integer limit,
+            @QueryParam("fields") String fields) {
+        int size = limit == null ? DEFAULT_PAGE_SIZE : limit;
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new WebApplicationException(
+                    "limit must be between 1 and " + MAX_PAGE_SIZE + ".", 422);
+        }
+        List<String> selected =
+                fields == null || fields.isBlank()
+                        ? ProductRepository.SELECTABLE_FIELDS
+                        : Arrays.stream(fields.split(",")).map(String::trim).toList();
+        return productRepository.page(afterId, size, selected);
+    }
+
+    @GET
+    @Path("search")
+    public List<NameMatch> search(@QueryParam("q") String q, @QueryParam("limit") Integer limit) {
+        return trigramNameSearch.search(TrigramNameSearch.Table.PRODUCT, q, limit);
+    }
 
     @GET
-    public List<Product> get() {
-        return productRepository.listAll(Sort.by("name"));
+    @Path("fulltext")
+    public List<NameMatch> fulltext(@QueryParam("q") String q, @QueryParam("limit") Integer limit) {
+        return productFullTextSearch.search(q, limit);
     }
 
     @GET
     @Path("{id}")
-    public Product getSingle(Long id) {
+    public Response getSingle(Long id) {
         LOGGER.debugf("Fetching product %d", id);
-        Product entity = productRepository.findById(id);
-        if (entity == null) {
+        byte[] json = productSnapshot.json(id);
+        if (json != null) {
+            return Response.ok(json, MediaType.APPLICATION_JSON_TYPE).build();
+        }
+        ProductView view = productRepository.findView(id);
+        if (view == null) {
             throw new WebApplicationException("Product with id of " + id + " does not exist.", 404);
         }
-        return entity;
+        return Response.ok(view).build();
     }
 
     @POST
@@ -52,10 +109,21 @@ public class ProductResource {
         }
 
         productRepository.persist(product);
+        transactionHooks.afterCommit(() -> productChanged(product));
         LOGGER.infof("Created product %s", product.name);
         return Response.ok(product).status(201).build();
     }
 
+    /** Creates or updates products keyed by name; see {@link ProductBulkUpserter}. */
+    @POST
+    @Path("bulk")
+    public ProductUpsertResult bulkUpsert(List<Product> products) {
+        if (products == null || products.isEmpty()) {
+            throw new WebApplicationException("Bulk request contains no products.", 422);
+        }
+        return productBulkUpserter.upsert(products);
+    }
+
     @PUT
     @Path("{id}")
     @Transactional
@@ -76,6 +144,7 @@ public class ProductResource {
         entity.stock = product.stock;
 
         productRepository.persist(entity);
+        transactionHooks.afterCommit(() -> productChanged(entity));
         LOGGER.infof("Updated product %d", id);
 
         return entity;
@@ -89,8 +158,21 @@ public class ProductResource {
         if (entity == null) {
             throw new WebApplicationException("Product with id of " + id + " does not exist.", 404);
         }
+        long assignments = fulfillmentRepository.deleteByProductId(id);
         productRepository.delete(entity);
-        LOGGER.infof("Deleted product %d", id);
+        transactionHooks.afterCommit(
+                () -> {
+                    stockReservationService.productRemoved(id);
+                    productFullTextSearch.removeProduct(id);
+                    productSnapshot.markChanged(id);
+                });
+        LOGGER.infof("Deleted product %d and %d fulfillment assignments", id, assignments);
         return Response.status(204).build();
     }
+
+    private void productChanged(Product product) {
+        stockReservationService.stockChanged(product.id, product.stock);
+        productFullTextSearch.indexProduct(product.id, product.name, product.description);
+        productSnapshot.markChanged(product.id);
+    }
 }
@@ -0,0 +1,45 @@
+package com.fulfilment.application.monolith.products;
+
+import com.fulfilment.application.monolith.snapshot.CatalogueSnapshot;
+import io.quarkus.runtime.StartupEvent;
+import io.quarkus.scheduler.Scheduled;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+
+import java.util.Collection;
+import java.util.List;
+
+/** Off-heap JSON snapshot of {@link ProductView}s backing {@code GET /product/{id}}. */
+@ApplicationScoped
+public class ProductSnapshot extends CatalogueSnapshot<ProductView> {
+
+    @Inject
+    ProductRepository productRepository;
+
+    void onStart(@Observes StartupEvent event) {
+        build();
+    }
+
+    @Scheduled(
+            every = "${catalogue.snapshot.refresh-interval:1s}",
+            concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    void scheduledRefresh() {
+        refresh();
+    }
+
+    @Override
+    protected List<ProductView> loadAll() {
+        return productRepository.listViews();
+    }
+
+    @Override
+    protected List<ProductView> load(Collection<Long> ids) {
+        return productRepository.listViews(ids);
+    }
+
+    @Override
+    protected long idOf(ProductView row) {
+        return row.id();
+    }
+}
@@ -0,0 +1,42 @@
+package com.fulfilment.application.monolith.products;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/** Outcome of {@code POST /product/bulk}; {@code rows} has one entry per request item, in order. */
+public class ProductUpsertResult {
+
+    public enum Outcome {
+        CREATED,
+        UPDATED,
+        REJECTED,
+        DUPLICATE
+    }
+
+    public long created;
+
+    public long updated;
+
+    public long rejected;
+
+    public long duplicates;
+
+    public List<RowOutcome> rows = new ArrayList<>();
+
+    void record(int index, String name, Long id, Outcome outcome, String error) {
+        switch (outcome) {
+            case CREATED -> created++;
+            case UPDATED -> updated++;
+            case REJECTED -> rejected++;
+            case DUPLICATE -> duplicates++;
+        }
+        rows.add(new RowOutcome(index, name, id, outcome, error));
+    }
+
+    void sortRows() {
+        rows.sort(Comparator.comparingInt(RowOutcome::index));
+    }
+
+    public record RowOutcome(int index, String name, Long id, Outcome outcome, String error) {}
+}
@@ -0,0 +1,7 @@
+package com.fulfilment.application.monolith.products;
+
+import java.math.BigDecimal;
+
+/** Read-only projection of {@link Product}; never attached to the persistence context. */
+public record ProductView(
+        Long id, String name, String description, BigDecimal price, int stock) {}
@@ -0,0 +1,4 @@
+package com.fulfilment.application.monolith.products;
+
+public record StockAvailability(Long productId, int available) {
+}
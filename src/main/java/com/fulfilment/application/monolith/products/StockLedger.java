@@ -0,0 +1,161 @@
+package com.fulfilment.application.monolith.products;
+
+import jakarta.ws.rs.WebApplicationException;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * In-memory, lock-free view of reservable stock. Every product has two counters:
+ *
+ * <ul>
+ *   <li>{@code stock} mirrors {@code Product.stock} as last written to the database;
+ *   <li>{@code available} is {@code stock} minus open reservations minus confirmed reservations
+ *       whose decrement has not been written to the product row yet.
+ * </ul>
+ *
+ * Reservations only CAS the {@code available} counter of their product, so a hot SKU never
+ * contends on a lock or on the product row.
+ */
+class StockLedger {
+
+    private final Map<Long, Counter> counters = new ConcurrentHashMap<>();
+    private final Map<UUID, StockReservation> open = new ConcurrentHashMap<>();
+
+    /** Sets the stock of a product as it now is in the database (load, create or PUT). */
+    void setStock(long productId, int stock) {
+        Counter counter = counters.computeIfAbsent(productId, id -> new Counter());
+        int previous = counter.stock.getAndSet(stock);
+        counter.available.addAndGet(stock - previous);
+    }
+
+    /** Records that confirmed quantity has now been subtracted from the product row. */
+    void confirmedWritten(long productId, int quantity) {
+        Counter counter = counters.get(productId);
+        if (counter != null) {
+            counter.stock.addAndGet(-quantity);
+        }
+    }
+
+    void removeProduct(long productId) {
+        counters.remove(productId);
+        open.values().removeIf(r -> r.productId == productId);
+    }
+
+    int available(long productId) {
+        return counter(productId).available.get();
+    }
+
+    StockReservation reserve(long productId, int quantity, Instant expiresAt) {
+        if (quantity <= 0) {
+            throw new WebApplicationException("quantity must be > 0", 422);
+        }
+        AtomicInteger available = counter(productId).available;
+        int current;
+        do {
+            current = available.get();
+            if (current < quantity) {
+                throw new WebApplicationException(
+                        "Insufficient stock for product "
+                                + productId
+                                + ": requested "
+                                + quantity
+                                + ", available "
+                                + current
+                                + ".",
+                        409);
+            }
+        } while (!available.compareAndSet(current, current - quantity));
+
+        StockReservation reservation =
+                new StockReservation(UUID.randomUUID(), productId, quantity, expiresAt);
+        open.put(reservation.id, reservation);
+        return reservation;
+    }
+
+    /** Re-applies a reservation that was still open when the application stopped. */
+    void restore(StockReservation reservation) {
+        Counter counter = counters.get(reservation.productId);
+        if (counter == null) {
+            return;
+        }
+        counter.available.addAndGet(-reservation.quantity);
+        open.put(reservation.id, reservation);
+    }
+
+    /** Confirms a reservation; its quantity stays out of {@code available} for good. */
+    StockReservation confirm(UUID id) {
+        StockReservation reservation = openReservation(id);
+        if (!reservation.transition(StockReservation.State.CONFIRMED)) {
+            throw notOpen(id);
+        }
+        open.remove(id);
+        return reservation;
+    }
+
+    StockReservation release(UUID id) {
+        StockReservation reservation = openReservation(id);
+        if (!reservation.transition(StockReservation.State.RELEASED)) {
+            throw notOpen(id);
+        }
+        giveBack(reservation);
+        return reservation;
+    }
+
+    /** Expires every open reservation whose TTL has passed and returns them. */
+    List<StockReservation> expire(Instant now) {
+        List<StockReservation> expired = new ArrayList<>();
+        for (StockReservation reservation : open.values()) {
+            if (!reservation.expiresAt.isAfter(now)
+                    && reservation.transition(StockReservation.State.EXPIRED)) {
+                giveBack(reservation);
+                expired.add(reservation);
+            }
+        }
+        return expired;
+    }
+
+    StockReservation find(UUID id) {
+        return open.get(id);
+    }
+
+    private void giveBack(StockReservation reservation) {
+        open.remove(reservation.id);
+        Counter counter = counters.get(reservation.productId);
+        if (counter != null) {
+            counter.available.addAndGet(reservation.quantity);
+        }
+    }
+
+    private Counter counter(long productId) {
+        Counter counter = counters.get(productId);
+        if (counter == null) {
+            throw new WebApplicationException(
+                    "Product with id of " + productId + " does not exist.", 404);
+        }
+        return counter;
+    }
+
+    private StockReservation openReservation(UUID id) {
+        StockReservation reservation = open.get(id);
+        if (reservation == null) {
+            throw notOpen(id);
+        }
+        return reservation;
+    }
+
+    private static WebApplicationException notOpen(UUID id) {
+        return new WebApplicationException(
+                "Reservation " + id + " does not exist or is no longer open.", 404);
+    }
+
+    private static final class Counter {
+        final AtomicInteger stock = new AtomicInteger();
+        final AtomicInteger available = new AtomicInteger();
+    }
+}
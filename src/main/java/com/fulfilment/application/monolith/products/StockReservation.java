@@ -0,0 +1,41 @@
+package com.fulfilment.application.monolith.products;
+
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
+
+/** A hold on product stock. Only the first transition out of {@code RESERVED} wins. */
+public class StockReservation {
+
+    public enum State {
+        RESERVED,
+        CONFIRMED,
+        RELEASED,
+        EXPIRED
+    }
+
+    public final UUID id;
+
+    public final long productId;
+
+    public final int quantity;
+
+    public final Instant expiresAt;
+
+    private final AtomicReference<State> state = new AtomicReference<>(State.RESERVED);
+
+    StockReservation(UUID id, long productId, int quantity, Instant expiresAt) {
+        this.id = id;
+        this.productId = productId;
+        this.quantity = quantity;
+        this.expiresAt = expiresAt;
+    }
+
+    public State getState() {
+        return state.get();
+    }
+
+    boolean transition(State target) {
+        return state.compareAndSet(State.RESERVED, target);
+    }
+}
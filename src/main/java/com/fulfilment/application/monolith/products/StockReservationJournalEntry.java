@@ -0,0 +1,58 @@
+package com.fulfilment.application.monolith.products;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Append-only record of a reservation state change. A reservation is open while its only entry is
+ * {@code RESERVED}; appending keeps journal writes to plain batched inserts.
+ */
+@Entity
+@Table(
+        name = "stock_reservation_journal",
+        indexes =
+                @Index(
+                        name = "ix_stock_reservation_journal_reservation",
+                        columnList = "reservationId"))
+public class StockReservationJournalEntry {
+
+    @Id
+    @GeneratedValue
+    public Long id;
+
+    @Column(nullable = false)
+    public UUID reservationId;
+
+    public long productId;
+
+    public int quantity;
+
+    @Enumerated(EnumType.STRING)
+    @Column(length = 10, nullable = false)
+    public StockReservation.State state;
+
+    public Instant expiresAt;
+
+    public Instant recordedAt;
+
+    public StockReservationJournalEntry() {
+    }
+
+    StockReservationJournalEntry(StockReservation reservation, StockReservation.State state) {
+        this.reservationId = reservation.id;
+        this.productId = reservation.productId;
+        this.quantity = reservation.quantity;
+        this.state = state;
+        this.expiresAt = reservation.expiresAt;
+        this.recordedAt = Instant.now();
+    }
+}
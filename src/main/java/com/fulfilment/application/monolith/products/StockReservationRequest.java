@@ -0,0 +1,5 @@
+package com.fulfilment.application.monolith.products;
+
+/** Body of {@code POST /product/reservations}; {@code ttlSeconds} is optional. */
+public record StockReservationRequest(Long productId, int quantity, Long ttlSeconds) {
+}
@@ -0,0 +1,60 @@
+package com.fulfilment.application.monolith.products;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.Consumes;
+import jakarta.ws.rs.DELETE;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.POST;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.WebApplicationException;
+import jakarta.ws.rs.core.Response;
+
+import java.util.UUID;
+
+@Path("product/reservations")
+@ApplicationScoped
+@Produces("application/json")
+@Consumes("application/json")
+public class StockReservationResource {
+
+    @Inject
+    StockReservationService stockReservationService;
+
+    @POST
+    public Response reserve(StockReservationRequest request) {
+        if (request == null) {
+            throw new WebApplicationException("Reservation request body is missing.", 422);
+        }
+        StockReservation reservation =
+                stockReservationService.reserve(
+                        request.productId(), request.quantity(), request.ttlSeconds());
+        return Response.ok(reservation).status(201).build();
+    }
+
+    @GET
+    @Path("{id}")
+    public StockReservation get(UUID id) {
+        return stockReservationService.find(id);
+    }
+
+    @POST
+    @Path("{id}/confirm")
+    @Consumes("*/*")
+    public StockReservation confirm(UUID id) {
+        return stockReservationService.confirm(id);
+    }
+
+    @DELETE
+    @Path("{id}")
+    public StockReservation release(UUID id) {
+        return stockReservationService.release(id);
+    }
+
+    @GET
+    @Path("availability/{productId}")
+    public StockAvailability availability(Long productId) {
+        return new StockAvailability(productId, stockReservationService.available(productId));
+    }
+}
@@ -0,0 +1,226 @@
+package com.fulfilment.application.monolith.products;
+
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.runtime.ShutdownEvent;
+import io.quarkus.runtime.StartupEvent;
+import io.quarkus.scheduler.Scheduled;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import jakarta.ws.rs.WebApplicationException;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.hibernate.jpa.HibernateHints;
+import org.jboss.logging.Logger;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedDeque;
+
+/**
+ * Reserves product stock against the in-memory {@link StockLedger} and journals every state change
+ * asynchronously. The journal is flushed in batches on a schedule, together with the stock
+ * decrement of confirmed reservations, so request threads never touch the product row. Open
+ * reservations are replayed from the journal on startup.
+ */
+@ApplicationScoped
+public class StockReservationService {
+
+    private static final Logger LOGGER = Logger.getLogger(StockReservationService.class);
+
+    @Inject
+    EntityManager em;
+    @Inject
+    ProductSnapshot productSnapshot;
+
+    @ConfigProperty(name = "stock.reservation.default-ttl", defaultValue = "15m")
+    Duration defaultTtl;
+
+    @ConfigProperty(name = "stock.reservation.max-ttl", defaultValue = "24h")
+    Duration maxTtl;
+
+    @ConfigProperty(name = "stock.reservation.flush-batch-size", defaultValue = "1000")
+    int flushBatchSize;
+
+    @ConfigProperty(name = "stock.reservation.journal-retention", defaultValue = "24h")
+    Duration journalRetention;
+
+    private final StockLedger ledger = new StockLedger();
+    private final ConcurrentLinkedDeque<StockReservationJournalEntry> pending =
+            new ConcurrentLinkedDeque<>();
+
+    void onStart(@Observes StartupEvent event) {
+        QuarkusTransaction.requiringNew().run(this::loadLedger);
+    }
+
+    void onStop(@Observes ShutdownEvent event) {
+        flush();
+    }
+
+    public StockReservation reserve(Long productId, int quantity, Long ttlSeconds) {
+        if (productId == null) {
+            throw new WebApplicationException("productId was not set on request.", 422);
+        }
+        Duration ttl = ttlSeconds == null ? defaultTtl : Duration.ofSeconds(ttlSeconds);
+        if (ttl.isNegative() || ttl.isZero() || ttl.compareTo(maxTtl) > 0) {
+            throw new WebApplicationException(
+                    "ttlSeconds must be between 1 and " + maxTtl.toSeconds() + ".", 422);
+        }
+        StockReservation reservation = ledger.reserve(productId, quantity, Instant.now().plus(ttl));
+        journal(reservation, StockReservation.State.RESERVED);
+        return reservation;
+    }
+
+    public StockReservation confirm(UUID id) {
+        StockReservation reservation = ledger.confirm(id);
+        journal(reservation, StockReservation.State.CONFIRMED);
+        return reservation;
+    }
+
+    public StockReservation release(UUID id) {
+        StockReservation reservation = ledger.release(id);
+        journal(reservation, StockReservation.State.RELEASED);
+        return reservation;
+    }
+
+    public StockReservation find(UUID id) {
+        StockReservation reservation = ledger.find(id);
+        if (reservation == null) {
+            throw new WebApplicationException(
+                    "Reservation " + id + " does not exist or is no longer open.", 404);
+        }
+        return reservation;
+    }
+
+    public int available(Long productId) {
+        return ledger.available(productId);
+    }
+
+    /** Called once a product create or update has committed. */
+    public void stockChanged(long productId, int stock) {
+        ledger.setStock(productId, stock);
+    }
+
+    /** Called once a product delete has committed. */
+    public void productRemoved(long productId) {
+        ledger.removeProduct(productId);
+    }
+
+    @Scheduled(
+            every = "${stock.reservation.expiry-interval:1s}",
+            concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    void expire() {
+        for (StockReservation reservation : ledger.expire(Instant.now())) {
+            journal(reservation, StockReservation.State.EXPIRED);
+        }
+    }
+
+    @Scheduled(
+            every = "${stock.reservation.flush-interval:1s}",
+            concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    synchronized void flush() {
+        while (!pending.isEmpty()) {
+            List<StockReservationJournalEntry> batch = new ArrayList<>(flushBatchSize);
+            StockReservationJournalEntry entry;
+            while (batch.size() < flushBatchSize && (entry = pending.pollFirst()) != null) {
+                batch.add(entry);
+            }
+            Map<Long, Integer> confirmed = confirmedQuantities(batch);
+            try {
+                QuarkusTransaction.requiringNew().run(() -> write(batch, confirmed));
+            } catch (RuntimeException e) {
+                for (int i = batch.size() - 1; i >= 0; i--) {
+                    pending.addFirst(batch.get(i));
+                }
+                LOGGER.errorf(e, "Flushing %d reservation journal entries failed", batch.size());
+                return;
+            }
+            confirmed.forEach(
+                    (productId, quantity) -> {
+                        ledger.confirmedWritten(productId, quantity);
+                        productSnapshot.markChanged(productId);
+                    });
+        }
+    }
+
+    @Scheduled(every = "1h", concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    void purgeJournal() {
+        Instant cutoff = Instant.now().minus(journalRetention);
+        int purged = QuarkusTransaction.requiringNew().call(() -> deleteClosedBefore(cutoff));
+        if (purged > 0) {
+            LOGGER.infof("Purged %d closed reservation journal entries", purged);
+        }
+    }
+
+    private int deleteClosedBefore(Instant cutoff) {
+        return em.createQuery(
+                        "delete from StockReservationJournalEntry e where e.reservationId in"
+                                + " (select t.reservationId from StockReservationJournalEntry t"
+                                + " where t.state <> :reserved and t.recordedAt < :cutoff)")
+                .setParameter("reserved", StockReservation.State.RESERVED)
+                .setParameter("cutoff", cutoff)
+                .executeUpdate();
+    }
+
+    private void journal(StockReservation reservation, StockReservation.State state) {
+        pending.addLast(new StockReservationJournalEntry(reservation, state));
+    }
+
+    private static Map<Long, Integer> confirmedQuantities(
+            List<StockReservationJournalEntry> batch) {
+        Map<Long, Integer> confirmed = new HashMap<>();
+        for (StockReservationJournalEntry entry : batch) {
+            if (entry.state == StockReservation.State.CONFIRMED) {
+                confirmed.merge(entry.productId, entry.quantity, Integer::sum);
+            }
+        }
+        return confirmed;
+    }
+
+    private void write(List<StockReservationJournalEntry> batch, Map<Long, Integer> confirmed) {
+        for (StockReservationJournalEntry entry : batch) {
+            em.persist(entry);
+        }
+        for (Map.Entry<Long, Integer> product : confirmed.entrySet()) {
+            em.createQuery("update Product p set p.stock = p.stock - :quantity where p.id = :id")
+                    .setParameter("quantity", product.getValue())
+                    .setParameter("id", product.getKey())
+                    .executeUpdate();
+            em.getEntityManagerFactory().getCache().evict(Product.class, product.getKey());
+        }
+    }
+
+    private void loadLedger() {
+        List<Object[]> stocks =
+                em.createQuery("select p.id, p.stock from Product p", Object[].class)
+                        .setHint(HibernateHints.HINT_READ_ONLY, true)
+                        .getResultList();
+        for (Object[] row : stocks) {
+            ledger.setStock((Long) row[0], (Integer) row[1]);
+        }
+
+        List<StockReservationJournalEntry> open =
+                em.createQuery(
+                                "from StockReservationJournalEntry e where e.state = :reserved"
+                                        + " and not exists (select 1 from"
+                                        + " StockReservationJournalEntry t where t.reservationId"
+                                        + " = e.reservationId and t.state <> :reserved)",
+                                StockReservationJournalEntry.class)
+                        .setParameter("reserved", StockReservation.State.RESERVED)
+                        .setHint(HibernateHints.HINT_READ_ONLY, true)
+                        .getResultList();
+        for (StockReservationJournalEntry entry : open) {
+            ledger.restore(
+                    new StockReservation(
+                            entry.reservationId, entry.productId, entry.quantity, entry.expiresAt));
+        }
+        LOGGER.infof(
+                "Stock ledger loaded for %d products with %d open reservations",
+                stocks.size(), open.size());
+    }
+}
@@ -0,0 +1,258 @@
+package com.fulfilment.application.monolith.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.PriorityQueue;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory inverted index ranked with BM25. Documents have a title, which counts {@link
+ * #TITLE_WEIGHT} times, and a free-text body. Postings are kept in primitive arrays together with
+ * the document length, so scoring a term never looks anything up per posting. A query term ending
+ * in {@code *} matches every indexed term with that prefix.
+ *
+ * <p>Searches share a read lock; {@link #put} and {@link #remove} take the write lock.
+ */
+public class FullTextIndex {
+
+    static final int TITLE_WEIGHT = 2;
+    static final int MAX_PREFIX_EXPANSIONS = 64;
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private final Map<String, Postings> postings = new HashMap<>();
+    private final NavigableSet<String> terms = new TreeSet<>();
+    private final Map<Long, Document> documents = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private long totalLength;
+
+    /** Adds the document, replacing any previous version with the same id. */
+    public void put(long id, String title, String body) {
+        Map<String, Integer> frequencies = new LinkedHashMap<>();
+        int length = 0;
+        for (String token : tokenize(title)) {
+            frequencies.merge(token, TITLE_WEIGHT, Integer::sum);
+            length += TITLE_WEIGHT;
+        }
+        for (String token : tokenize(body)) {
+            frequencies.merge(token, 1, Integer::sum);
+            length++;
+        }
+
+        lock.writeLock().lock();
+        try {
+            removeLocked(id);
+            for (Map.Entry<String, Integer> term : frequencies.entrySet()) {
+                postings.computeIfAbsent(term.getKey(), this::newPostings)
+                        .add(id, term.getValue(), length);
+            }
+            documents.put(
+                    id,
+                    new Document(title, length, frequencies.keySet().toArray(String[]::new)));
+            totalLength += length;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long id) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            terms.clear();
+            documents.clear();
+            totalLength = 0;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Returns the best {@code limit} documents; a document matches if any query term matches. */
+    public List<NameMatch> search(String query, int limit) {
+        List<String> queryTerms = new ArrayList<>();
+        for (String raw : query.trim().split("\\s+")) {
+            boolean prefix = raw.endsWith("*");
+            for (String token : tokenize(prefix ? raw.substring(0, raw.length() - 1) : raw)) {
+                queryTerms.add(prefix ? token + "*" : token);
+            }
+        }
+        if (queryTerms.isEmpty()) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            if (documents.isEmpty()) {
+                return List.of();
+            }
+            double averageLength = (double) totalLength / documents.size();
+            Map<Long, double[]> scores = new HashMap<>();
+            for (String term : queryTerms) {
+                for (Postings list : expand(term)) {
+                    list.score(documents.size(), averageLength, scores);
+                }
+            }
+            return top(scores, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Lower-cases, strips accents and splits on anything that is not a letter or a digit. */
+    public static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        String folded =
+                DIACRITICS
+                        .matcher(Normalizer.normalize(text, Normalizer.Form.NFD))
+                        .replaceAll("")
+                        .toLowerCase(Locale.ROOT);
+        List<String> tokens = new ArrayList<>();
+        for (String token : SEPARATORS.split(folded)) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    private List<Postings> expand(String term) {
+        if (!term.endsWith("*")) {
+            Postings list = postings.get(term);
+            return list == null ? List.of() : List.of(list);
+        }
+        String prefix = term.substring(0, term.length() - 1);
+        List<Postings> expanded = new ArrayList<>();
+        for (String candidate : terms.subSet(prefix, true, prefix + Character.MAX_VALUE, false)) {
+            expanded.add(postings.get(candidate));
+            if (expanded.size() == MAX_PREFIX_EXPANSIONS) {
+                break;
+            }
+        }
+        return expanded;
+    }
+
+    private List<NameMatch> top(Map<Long, double[]> scores, int limit) {
+        // min-heap on score; among equal scores the higher id is evicted first
+        Comparator<Map.Entry<Long, double[]>> worstFirst =
+                Comparator.<Map.Entry<Long, double[]>>comparingDouble(e -> e.getValue()[0])
+                        .thenComparing(Map.Entry::getKey, Comparator.reverseOrder());
+        PriorityQueue<Map.Entry<Long, double[]>> best = new PriorityQueue<>(limit + 1, worstFirst);
+        for (Map.Entry<Long, double[]> entry : scores.entrySet()) {
+            best.offer(entry);
+            if (best.size() > limit) {
+                best.poll();
+            }
+        }
+        NameMatch[] matches = new NameMatch[best.size()];
+        for (int i = matches.length - 1; i >= 0; i--) {
+            Map.Entry<Long, double[]> entry = best.poll();
+            matches[i] =
+                    new NameMatch(
+                            entry.getKey(),
+                            documents.get(entry.getKey()).title,
+                            entry.getValue()[0]);
+        }
+        return Arrays.asList(matches);
+    }
+
+    private Postings newPostings(String term) {
+        terms.add(term);
+        return new Postings();
+    }
+
+    private void removeLocked(long id) {
+        Document previous = documents.remove(id);
+        if (previous == null) {
+            return;
+        }
+        totalLength -= previous.length;
+        for (String term : previous.terms) {
+            Postings list = postings.get(term);
+            list.remove(id);
+            if (list.size == 0) {
+                postings.remove(term);
+                terms.remove(term);
+            }
+        }
+    }
+
+    private record Document(String title, int length, String[] terms) {}
+
+    /** Parallel primitive arrays of document id, term frequency and document length. */
+    private static final class Postings {
+
+        private long[] ids = new long[4];
+        private int[] frequencies = new int[4];
+        private int[] lengths = new int[4];
+        private int size;
+
+        void add(long id, int frequency, int length) {
+            if (size == ids.length) {
+                int capacity = size * 2;
+                ids = Arrays.copyOf(ids, capacity);
+                frequencies = Arrays.copyOf(frequencies, capacity);
+                lengths = Arrays.copyOf(lengths, capacity);
+            }
+            ids[size] = id;
+            frequencies[size] = frequency;
+            lengths[size] = length;
+            size++;
+        }
+
+        void remove(long id) {
+            for (int i = 0; i < size; i++) {
+                if (ids[i] == id) {
+                    size--;
+                    ids[i] = ids[size];
+                    frequencies[i] = frequencies[size];
+                    lengths[i] = lengths[size];
+                    return;
+                }
+            }
+        }
+
+        void score(int documentCount, double averageLength, Map<Long, double[]> scores) {
+            double idf = Math.log(1 + (documentCount - size + 0.5) / (size + 0.5));
+            for (int i = 0; i < size; i++) {
+                double tf = frequencies[i];
+                double norm = K1 * (1 - B + B * lengths[i] / averageLength);
+                double score = idf * tf * (K1 + 1) / (tf + norm);
+                scores.computeIfAbsent(ids[i], k -> new double[1])[0] += score;
+            }
+        }
+    }
+}
@@ -0,0 +1,3 @@
+package com.fulfilment.application.monolith.search;
+
+public record NameMatch(Long id, String name, double score) {}
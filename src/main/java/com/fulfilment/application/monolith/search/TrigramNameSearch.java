@@ -0,0 +1,81 @@
+package com.fulfilment.application.monolith.search;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import jakarta.ws.rs.WebApplicationException;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Fuzzy, accent-insensitive name lookup served by the {@code pg_trgm} GIN indexes created by the
+ * {@code V3__search_indexes.sql} migration. The {@code immutable_unaccent(lower(name))} expression
+ * must match the index definition exactly, otherwise Postgres falls back to a sequential scan.
+ */
+@ApplicationScoped
+public class TrigramNameSearch {
+
+    public static final int DEFAULT_LIMIT = 20;
+    public static final int MAX_LIMIT = 100;
+
+    /** Tables whose {@code name} column carries an {@code ix_<table>_name_trgm} index. */
+    public enum Table {
+        STORE("store"),
+        PRODUCT("product");
+
+        private final String sql;
+
+        Table(String sql) {
+            this.sql = sql;
+        }
+    }
+
+    @Inject
+    EntityManager em;
+
+    public List<NameMatch> search(Table table, String query, Integer limit) {
+        if (query == null || query.isBlank()) {
+            throw new WebApplicationException("Search query 'q' is required.", 422);
+        }
+        int max = limit == null ? DEFAULT_LIMIT : limit;
+        if (max < 1 || max > MAX_LIMIT) {
+            throw new WebApplicationException(
+                    "limit must be between 1 and " + MAX_LIMIT + ".", 422);
+        }
+
+        String normalized = query.trim();
+        @SuppressWarnings("unchecked")
+        List<Object[]> rows =
+                em.createNativeQuery(
+                                "select id, name,"
+                                        + " similarity(immutable_unaccent(lower(name)),"
+                                        + " immutable_unaccent(lower(:q))) as score"
+                                        + " from "
+                                        + table.sql
+                                        + " where immutable_unaccent(lower(name))"
+                                        + " % immutable_unaccent(lower(:q))"
+                                        + " or immutable_unaccent(lower(name))"
+                                        + " like immutable_unaccent(lower(:pattern)) escape '\\'"
+                                        + " order by score desc, name"
+                                        + " limit :limit")
+                        .setParameter("q", normalized)
+                        .setParameter("pattern", "%" + escapeLike(normalized) + "%")
+                        .setParameter("limit", max)
+                        .getResultList();
+
+        List<NameMatch> matches = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            matches.add(
+                    new NameMatch(
+                            ((Number) row[0]).longValue(),
+                            (String) row[1],
+                            ((Number) row[2]).doubleValue()));
+        }
+        return matches;
+    }
+
+    static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
@@ -0,0 +1,108 @@
+package com.fulfilment.application.monolith.snapshot;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Opt-in read model serving single rows of a read-mostly table as pre-serialised JSON from an
+ * {@link OffHeapSnapshot} ({@code catalogue.snapshot.enabled}).
+ *
+ * <p>Writers call {@link #markChanged} after commit. From then on the id is answered from the
+ * database until {@link #refresh} has folded the new row into the next snapshot version. Between
+ * the commit and that call a read can still return the previous version of the row, so the
+ * snapshot may lag a write by the time its after-commit hook takes to run. Subclasses supply the
+ * queries and schedule {@link #refresh}.
+ */
+public abstract class CatalogueSnapshot<T> {
+
+    private static final Logger LOGGER = Logger.getLogger(CatalogueSnapshot.class);
+
+    @Inject
+    ObjectMapper objectMapper;
+
+    @ConfigProperty(name = "catalogue.snapshot.enabled", defaultValue = "false")
+    boolean enabled;
+
+    private final AtomicReference<OffHeapSnapshot> current =
+            new AtomicReference<>(OffHeapSnapshot.EMPTY);
+    private final Map<Long, Long> dirty = new ConcurrentHashMap<>();
+    private final AtomicLong changeStamps = new AtomicLong();
+
+    /** Reads every row, in a transaction. */
+    protected abstract List<T> loadAll();
+
+    /** Reads the given rows, in a transaction; ids missing from the result were deleted. */
+    protected abstract List<T> load(Collection<Long> ids);
+
+    protected abstract long idOf(T row);
+
+    /** The JSON of the row, or {@code null} when the caller has to read the database. */
+    public byte[] json(long id) {
+        if (!enabled || dirty.containsKey(id)) {
+            return null;
+        }
+        return current.get().get(id);
+    }
+
+    public void markChanged(long id) {
+        if (enabled) {
+            dirty.put(id, changeStamps.incrementAndGet());
+        }
+    }
+
+    protected synchronized void build() {
+        if (!enabled) {
+            return;
+        }
+        List<T> rows = QuarkusTransaction.requiringNew().call(this::loadAll);
+        Map<Long, byte[]> documents = new HashMap<>(rows.size() * 2);
+        for (T row : rows) {
+            documents.put(idOf(row), serialize(row));
+        }
+        OffHeapSnapshot built = OffHeapSnapshot.EMPTY.apply(documents);
+        current.set(built);
+        LOGGER.infof(
+                "%s built with %d rows (%d bytes off-heap)",
+                getClass().getSimpleName(), rows.size(), built.sizeInBytes());
+    }
+
+    protected synchronized void refresh() {
+        if (!enabled || dirty.isEmpty()) {
+            return;
+        }
+        Map<Long, Long> pending = Map.copyOf(dirty);
+        List<T> rows = QuarkusTransaction.requiringNew().call(() -> load(pending.keySet()));
+
+        Map<Long, byte[]> changes = new HashMap<>(pending.size() * 2);
+        for (Long id : pending.keySet()) {
+            changes.put(id, null);
+        }
+        for (T row : rows) {
+            changes.put(idOf(row), serialize(row));
+        }
+        current.set(current.get().apply(changes));
+
+        // ids changed again while we were loading keep their newer stamp and stay dirty
+        pending.forEach(dirty::remove);
+    }
+
+    private byte[] serialize(T row) {
+        try {
+            return objectMapper.writeValueAsBytes(row);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialise snapshot row " + idOf(row), e);
+        }
+    }
+}
@@ -0,0 +1,202 @@
+package com.fulfilment.application.monolith.snapshot;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable, versioned set of pre-serialised JSON documents keyed by id. The bytes live in direct
+ * buffers outside the Java heap, one per segment of {@value #SEGMENT_IDS} consecutive ids; the heap
+ * only holds small sorted index arrays, so a snapshot of a few hundred thousand rows costs the
+ * garbage collector next to nothing.
+ *
+ * <p>{@link #apply} produces the next version: segments without changes are shared with it as they
+ * are, and only segments holding a changed id are rewritten into a new buffer. A refresh therefore
+ * allocates direct memory in proportion to the segments it touches, not to the whole snapshot;
+ * replaced segments are released by the garbage collector once no version refers to them.
+ */
+public final class OffHeapSnapshot {
+
+    static final int SEGMENT_BITS = 10;
+    static final int SEGMENT_IDS = 1 << SEGMENT_BITS;
+
+    public static final OffHeapSnapshot EMPTY =
+            new OffHeapSnapshot(0, new long[0], new Segment[0]);
+
+    private final long version;
+    private final long[] segmentKeys;
+    private final Segment[] segments;
+    private final int size;
+    private final long sizeInBytes;
+
+    private OffHeapSnapshot(long version, long[] segmentKeys, Segment[] segments) {
+        this.version = version;
+        this.segmentKeys = segmentKeys;
+        this.segments = segments;
+        int documents = 0;
+        long bytes = 0;
+        for (Segment segment : segments) {
+            documents += segment.ids.length;
+            bytes += segment.data.capacity();
+        }
+        this.size = documents;
+        this.sizeInBytes = bytes;
+    }
+
+    /** Returns a copy of the document bytes, or {@code null} if the id is not in the snapshot. */
+    public byte[] get(long id) {
+        int s = Arrays.binarySearch(segmentKeys, id >> SEGMENT_BITS);
+        return s < 0 ? null : segments[s].get(id);
+    }
+
+    public long version() {
+        return version;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public long sizeInBytes() {
+        return sizeInBytes;
+    }
+
+    /** Number of direct buffers backing this version. */
+    int segmentCount() {
+        return segments.length;
+    }
+
+    /**
+     * Returns the next version with {@code changes} applied; a {@code null} value removes the
+     * document. This snapshot is left untouched, so readers holding it are never affected.
+     */
+    public OffHeapSnapshot apply(Map<Long, byte[]> changes) {
+        long[] changed = changes.keySet().stream().mapToLong(Long::longValue).sorted().toArray();
+
+        List<Long> keys = new ArrayList<>(segments.length + 1);
+        List<Segment> merged = new ArrayList<>(segments.length + 1);
+        int s = 0;
+        int c = 0;
+        while (s < segments.length || c < changed.length) {
+            long key =
+                    c == changed.length
+                            ? segmentKeys[s]
+                            : s == segments.length
+                                    ? changed[c] >> SEGMENT_BITS
+                                    : Math.min(segmentKeys[s], changed[c] >> SEGMENT_BITS);
+            Segment previous = null;
+            if (s < segments.length && segmentKeys[s] == key) {
+                previous = segments[s++];
+            }
+            int from = c;
+            while (c < changed.length && changed[c] >> SEGMENT_BITS == key) {
+                c++;
+            }
+            Segment segment = previous;
+            if (from < c) {
+                segment = Segment.merge(previous, Arrays.copyOfRange(changed, from, c), changes);
+            }
+            if (segment != null) {
+                keys.add(key);
+                merged.add(segment);
+            }
+        }
+
+        return new OffHeapSnapshot(
+                version + 1,
+                keys.stream().mapToLong(Long::longValue).toArray(),
+                merged.toArray(new Segment[0]));
+    }
+
+    /** Documents of one id range, sorted by id, back to back in one direct buffer. */
+    private static final class Segment {
+
+        private final long[] ids;
+        private final int[] offsets;
+        private final int[] lengths;
+        private final ByteBuffer data;
+
+        private Segment(long[] ids, int[] offsets, int[] lengths, ByteBuffer data) {
+            this.ids = ids;
+            this.offsets = offsets;
+            this.lengths = lengths;
+            this.data = data;
+        }
+
+        byte[] get(long id) {
+            int i = Arrays.binarySearch(ids, id);
+            if (i < 0) {
+                return null;
+            }
+            byte[] document = new byte[lengths[i]];
+            data.get(offsets[i], document);
+            return document;
+        }
+
+        /**
+         * The segment with the sorted {@code changed} ids applied to {@code previous} (which may
+         * be {@code null}), or {@code null} when no document is left.
+         */
+        static Segment merge(Segment previous, long[] changed, Map<Long, byte[]> changes) {
+            long[] ids = previous == null ? new long[0] : previous.ids;
+
+            // first pass: the merged id list and its total size
+            long[] mergedIds = new long[ids.length + changed.length];
+            int count = 0;
+            long bytes = 0;
+            int i = 0;
+            int c = 0;
+            while (i < ids.length || c < changed.length) {
+                long id;
+                if (c == changed.length || (i < ids.length && ids[i] < changed[c])) {
+                    id = ids[i];
+                    bytes += previous.lengths[i++];
+                } else {
+                    id = changed[c++];
+                    if (i < ids.length && ids[i] == id) {
+                        i++;
+                    }
+                    byte[] document = changes.get(id);
+                    if (document == null) {
+                        continue;
+                    }
+                    bytes += document.length;
+                }
+                mergedIds[count++] = id;
+            }
+            if (count == 0) {
+                return null;
+            }
+            if (bytes > Integer.MAX_VALUE) {
+                throw new IllegalStateException("Snapshot segment exceeds 2 GiB");
+            }
+
+            // second pass: copy unchanged documents from the old buffer, write changed ones
+            ByteBuffer merged = ByteBuffer.allocateDirect((int) bytes);
+            int[] mergedOffsets = new int[count];
+            int[] mergedLengths = new int[count];
+            int position = 0;
+            i = 0;
+            for (int m = 0; m < count; m++) {
+                long id = mergedIds[m];
+                while (i < ids.length && ids[i] < id) {
+                    i++;
+                }
+                byte[] document = changes.get(id);
+                mergedOffsets[m] = position;
+                if (document != null) {
+                    merged.put(position, document);
+                    mergedLengths[m] = document.length;
+                } else {
+                    merged.put(position, previous.data, previous.offsets[i], previous.lengths[i]);
+                    mergedLengths[m] = previous.lengths[i];
+                }
+                position += mergedLengths[m];
+            }
+            return new Segment(
+                    Arrays.copyOf(mergedIds, count), mergedOffsets, mergedLengths, merged);
+        }
+    }
+}
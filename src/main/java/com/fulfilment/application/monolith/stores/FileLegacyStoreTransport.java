@@ -0,0 +1,42 @@
+package com.fulfilment.application.monolith.stores;
+
+import io.smallrye.common.annotation.Identifier;
+import jakarta.enterprise.context.ApplicationScoped;
+import org.jboss.logging.Logger;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/** Local stand-in for the legacy system that round-trips each payload through a temp file. */
+@ApplicationScoped
+@Identifier("file")
+public class FileLegacyStoreTransport implements LegacyStoreTransport {
+
+    private static final Logger LOGGER = Logger.getLogger(FileLegacyStoreTransport.class);
+
+    @Override
+    public String name() {
+        return "file";
+    }
+
+    @Override
+    public void send(String reference, String content) {
+        try {
+            Path tempFile = Files.createTempFile(reference, ".txt");
+            LOGGER.debugf("Temporary file created at: %s", tempFile);
+
+            Files.write(tempFile, content.getBytes(StandardCharsets.UTF_8));
+            LOGGER.debug("Data written to temporary file.");
+
+            String readContent = Files.readString(tempFile, StandardCharsets.UTF_8);
+            LOGGER.debugf("Data read from temporary file: %s", readContent);
+
+            Files.delete(tempFile);
+            LOGGER.debug("Temporary file deleted.");
+        } catch (IOException | IllegalArgumentException e) {
+            throw new LegacyStoreTransportException("Failed to write legacy store temp file", e);
+        }
+    }
+}
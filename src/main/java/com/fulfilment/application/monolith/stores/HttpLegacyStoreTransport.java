@@ -0,0 +1,121 @@
+package com.fulfilment.application.monolith.stores;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.smallrye.common.annotation.Identifier;
+import io.smallrye.faulttolerance.api.CircuitBreakerMaintenance;
+import io.smallrye.faulttolerance.api.CircuitBreakerName;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.eclipse.microprofile.faulttolerance.Bulkhead;
+import org.eclipse.microprofile.faulttolerance.CircuitBreaker;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+/**
+ * Talks to the remote legacy store manager over HTTP. The shared {@link HttpClient} keeps pooled
+ * keep-alive connections; every call is bounded by the request timeout, the bulkhead caps how many
+ * threads can be stuck on a slow legacy system, and the circuit breaker fails fast while it is
+ * down. Limits can be tuned with the MicroProfile Fault Tolerance keys, e.g. {@code
+ * com.fulfilment.application.monolith.stores.HttpLegacyStoreTransport/send/Bulkhead/value}.
+ */
+@ApplicationScoped
+@Identifier("http")
+public class HttpLegacyStoreTransport implements LegacyStoreTransport {
+
+    static final String CIRCUIT_BREAKER = "legacy-store-manager";
+
+    @ConfigProperty(
+            name = "legacy.store-manager.http.url",
+            defaultValue = "http://localhost:8090/legacy/stores")
+    URI url;
+
+    @ConfigProperty(name = "legacy.store-manager.http.connect-timeout", defaultValue = "2s")
+    Duration connectTimeout;
+
+    @ConfigProperty(name = "legacy.store-manager.http.request-timeout", defaultValue = "5s")
+    Duration requestTimeout;
+
+    @Inject
+    MeterRegistry meterRegistry;
+    @Inject
+    CircuitBreakerMaintenance circuitBreakerMaintenance;
+
+    private HttpClient client;
+
+    HttpLegacyStoreTransport() {
+    }
+
+    HttpLegacyStoreTransport(URI url, Duration connectTimeout, Duration requestTimeout) {
+        this.url = url;
+        this.connectTimeout = connectTimeout;
+        this.requestTimeout = requestTimeout;
+        this.client = createClient();
+    }
+
+    @PostConstruct
+    void init() {
+        client = createClient();
+        Gauge.builder("legacy.gateway.circuit.state", this::circuitState)
+                .description("Legacy circuit breaker state: 0 closed, 1 half-open, 2 open")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public String name() {
+        return "http";
+    }
+
+    @Override
+    @Bulkhead(10)
+    @CircuitBreaker(requestVolumeThreshold = 20, failureRatio = 0.5, delay = 5000)
+    @CircuitBreakerName(CIRCUIT_BREAKER)
+    public void send(String reference, String content) {
+        HttpRequest request =
+                HttpRequest.newBuilder(url)
+                        .timeout(requestTimeout)
+                        .header("Content-Type", "text/plain; charset=UTF-8")
+                        .header(
+                                "X-Legacy-Reference",
+                                URLEncoder.encode(reference, StandardCharsets.UTF_8))
+                        .POST(HttpRequest.BodyPublishers.ofString(content, StandardCharsets.UTF_8))
+                        .build();
+        HttpResponse<Void> response;
+        try {
+            response = client.send(request, HttpResponse.BodyHandlers.discarding());
+        } catch (IOException e) {
+            throw new LegacyStoreTransportException("Legacy store manager call failed", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new LegacyStoreTransportException("Legacy store manager call interrupted", e);
+        }
+        if (response.statusCode() >= 300) {
+            throw new LegacyStoreTransportException(
+                    "Legacy store manager responded with HTTP " + response.statusCode());
+        }
+    }
+
+    private HttpClient createClient() {
+        return HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(connectTimeout)
+                .build();
+    }
+
+    private double circuitState() {
+        return switch (circuitBreakerMaintenance.currentState(CIRCUIT_BREAKER)) {
+            case CLOSED -> 0;
+            case HALF_OPEN -> 1;
+            case OPEN -> 2;
+        };
+    }
+}
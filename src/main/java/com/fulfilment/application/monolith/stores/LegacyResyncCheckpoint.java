@@ -0,0 +1,25 @@
+package com.fulfilment.application.monolith.stores;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+import java.time.LocalDateTime;
+
+/** Highest store id whose chunk was fully pushed to the legacy system. */
+@Entity
+@Table(name = "legacy_resync_checkpoint")
+public class LegacyResyncCheckpoint {
+
+    static final long SINGLETON_ID = 1L;
+
+    @Id
+    public Long id;
+
+    public Long lastStoreId;
+
+    public LocalDateTime updatedAt;
+
+    public LegacyResyncCheckpoint() {
+    }
+}
@@ -0,0 +1,224 @@
+package com.fulfilment.application.monolith.stores;
+
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import jakarta.ws.rs.WebApplicationException;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.hibernate.jpa.HibernateHints;
+import org.jboss.logging.Logger;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Re-pushes every store to the legacy system after an outage. Stores are read in id order, one
+ * chunk per short read-only transaction, and each chunk is fully drained before the next is read
+ * so that the checkpoint is always safe to resume from. Calls run on a dedicated bounded pool and
+ * are rate limited, so the live API keeps its connections and worker threads.
+ *
+ * <p>A store the legacy system did not take stops the run in {@code FAILED}: the checkpoint only
+ * moves up to the store before the first failure of the chunk, so a resume retries it (and pushes
+ * the rest of that chunk again, which the legacy update tolerates). While the circuit breaker is
+ * open every call fails fast, so the job stops after one chunk instead of walking the checkpoint
+ * to the end of the table.
+ */
+@ApplicationScoped
+public class LegacyResyncJob {
+
+    public enum State {
+        IDLE,
+        RUNNING,
+        COMPLETED,
+        CANCELLED,
+        FAILED
+    }
+
+    private static final Logger LOGGER = Logger.getLogger(LegacyResyncJob.class);
+
+    @Inject
+    EntityManager em;
+    @Inject
+    LegacyStoreManagerGateway legacyStoreManagerGateway;
+
+    @ConfigProperty(name = "legacy.resync.chunk-size", defaultValue = "500")
+    int chunkSize;
+
+    @ConfigProperty(name = "legacy.resync.parallelism", defaultValue = "4")
+    int parallelism;
+
+    @ConfigProperty(name = "legacy.resync.rate-per-second", defaultValue = "200")
+    double ratePerSecond;
+
+    private final AtomicLong processed = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+
+    private volatile State state = State.IDLE;
+    private volatile boolean cancelRequested;
+    private volatile long total;
+    private volatile Long lastStoreId;
+    private volatile LocalDateTime startedAt;
+    private volatile LocalDateTime finishedAt;
+
+    public synchronized LegacyResyncStatus start(boolean resume) {
+        if (state == State.RUNNING) {
+            throw new WebApplicationException("A legacy resync is already running.", 409);
+        }
+
+        long fromId = resume ? loadCheckpoint() : 0L;
+        total = QuarkusTransaction.requiringNew().call(() -> countStoresAfter(fromId));
+        processed.set(0);
+        failed.set(0);
+        lastStoreId = fromId;
+        cancelRequested = false;
+        startedAt = LocalDateTime.now();
+        finishedAt = null;
+        state = State.RUNNING;
+
+        Thread runner = new Thread(() -> run(fromId), "legacy-resync");
+        runner.setDaemon(true);
+        runner.start();
+
+        LOGGER.infof("Legacy resync started after store id %d (%d stores)", fromId, total);
+        return status();
+    }
+
+    public LegacyResyncStatus cancel() {
+        if (state == State.RUNNING) {
+            cancelRequested = true;
+            LOGGER.info("Legacy resync cancellation requested");
+        }
+        return status();
+    }
+
+    public LegacyResyncStatus status() {
+        return new LegacyResyncStatus(
+                state, total, processed.get(), failed.get(), lastStoreId, startedAt, finishedAt);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        cancelRequested = true;
+    }
+
+    private void run(long fromId) {
+        ExecutorService workers =
+                Executors.newFixedThreadPool(
+                        parallelism,
+                        task -> {
+                            Thread thread = new Thread(task, "legacy-resync-worker");
+                            thread.setDaemon(true);
+                            return thread;
+                        });
+        RateLimiter rateLimiter = new RateLimiter(ratePerSecond);
+        long after = fromId;
+        try {
+            while (!cancelRequested) {
+                List<Store> chunk = fetchChunk(after);
+                if (chunk.isEmpty()) {
+                    break;
+                }
+
+                List<CompletableFuture<Boolean>> calls = new ArrayList<>(chunk.size());
+                for (Store store : chunk) {
+                    rateLimiter.acquire();
+                    calls.add(CompletableFuture.supplyAsync(() -> push(store), workers));
+                }
+                CompletableFuture.allOf(calls.toArray(CompletableFuture[]::new)).join();
+
+                // stores are in id order: stop short of the first one that was not pushed
+                boolean chunkFailed = false;
+                for (int i = 0; i < chunk.size() && !chunkFailed; i++) {
+                    if (calls.get(i).join()) {
+                        after = chunk.get(i).id;
+                    } else {
+                        chunkFailed = true;
+                    }
+                }
+                saveCheckpoint(after);
+                lastStoreId = after;
+                if (chunkFailed) {
+                    break;
+                }
+            }
+            if (failed.get() > 0) {
+                state = State.FAILED;
+            } else {
+                state = cancelRequested ? State.CANCELLED : State.COMPLETED;
+            }
+            LOGGER.infof(
+                    "Legacy resync %s: %d pushed, %d failed, checkpoint at store id %d",
+                    state, processed.get(), failed.get(), after);
+        } catch (RuntimeException e) {
+            state = State.FAILED;
+            LOGGER.error("Legacy resync failed", e);
+        } finally {
+            workers.shutdownNow();
+            finishedAt = LocalDateTime.now();
+        }
+    }
+
+    /** Returns whether the legacy system took the store. */
+    private boolean push(Store store) {
+        try {
+            legacyStoreManagerGateway.updateStoreOnLegacySystem(store);
+            return true;
+        } catch (RuntimeException e) {
+            failed.incrementAndGet();
+            LOGGER.warnf("Legacy resync of store %d failed: %s", store.id, e.getMessage());
+            return false;
+        } finally {
+            processed.incrementAndGet();
+        }
+    }
+
+    private List<Store> fetchChunk(long after) {
+        return QuarkusTransaction.requiringNew().call(() -> readChunk(after));
+    }
+
+    private long countStoresAfter(long after) {
+        return em.createQuery("select count(s) from Store s where s.id > :after", Long.class)
+                .setParameter("after", after)
+                .getSingleResult();
+    }
+
+    private List<Store> readChunk(long after) {
+        return em.createQuery("from Store s where s.id > :after order by s.id", Store.class)
+                .setParameter("after", after)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .setMaxResults(chunkSize)
+                .getResultList();
+    }
+
+    private long loadCheckpoint() {
+        LegacyResyncCheckpoint checkpoint =
+                QuarkusTransaction.requiringNew().call(this::findCheckpoint);
+        return checkpoint == null || checkpoint.lastStoreId == null ? 0L : checkpoint.lastStoreId;
+    }
+
+    private void saveCheckpoint(long storeId) {
+        QuarkusTransaction.requiringNew().run(() -> writeCheckpoint(storeId));
+    }
+
+    private LegacyResyncCheckpoint findCheckpoint() {
+        return em.find(LegacyResyncCheckpoint.class, LegacyResyncCheckpoint.SINGLETON_ID);
+    }
+
+    private void writeCheckpoint(long storeId) {
+        LegacyResyncCheckpoint checkpoint = findCheckpoint();
+        if (checkpoint == null) {
+            checkpoint = new LegacyResyncCheckpoint();
+            checkpoint.id = LegacyResyncCheckpoint.SINGLETON_ID;
+            em.persist(checkpoint);
+        }
+        checkpoint.lastStoreId = storeId;
+        checkpoint.updatedAt = LocalDateTime.now();
+    }
+}
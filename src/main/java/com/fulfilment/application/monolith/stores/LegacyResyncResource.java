@@ -0,0 +1,35 @@
+package com.fulfilment.application.monolith.stores;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.DELETE;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.POST;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.QueryParam;
+import jakarta.ws.rs.core.Response;
+
+@Path("admin/legacy-resync")
+@ApplicationScoped
+@Produces("application/json")
+public class LegacyResyncResource {
+
+    @Inject
+    LegacyResyncJob legacyResyncJob;
+
+    @POST
+    public Response start(@QueryParam("resume") boolean resume) {
+        return Response.accepted(legacyResyncJob.start(resume)).build();
+    }
+
+    @GET
+    public LegacyResyncStatus status() {
+        return legacyResyncJob.status();
+    }
+
+    @DELETE
+    public LegacyResyncStatus cancel() {
+        return legacyResyncJob.cancel();
+    }
+}
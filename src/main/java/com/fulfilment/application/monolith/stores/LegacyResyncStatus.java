@@ -0,0 +1,12 @@
+package com.fulfilment.application.monolith.stores;
+
+import java.time.LocalDateTime;
+
+public record LegacyResyncStatus(
+        LegacyResyncJob.State state,
+        long total,
+        long processed,
+        long failed,
+        Long lastStoreId,
+        LocalDateTime startedAt,
+        LocalDateTime finishedAt) {}
@@ -1,46 +1,100 @@
 package com.fulfilment.application.monolith.stores;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.instrumentation.annotations.WithSpan;
+import io.smallrye.common.annotation.Identifier;
+import jakarta.annotation.PostConstruct;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.inject.Any;
+import jakarta.enterprise.inject.Instance;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.eclipse.microprofile.faulttolerance.exceptions.BulkheadException;
+import org.eclipse.microprofile.faulttolerance.exceptions.CircuitBreakerOpenException;
 import org.jboss.logging.Logger;
 
-import java.nio.charset.StandardCharsets;
-import java.nio.file.Files;
-import java.nio.file.Path;
+import java.util.List;
 
 @ApplicationScoped
 public class LegacyStoreManagerGateway {
 
     private static final Logger LOGGER = Logger.getLogger(LegacyStoreManagerGateway.class);
 
+    @Inject
+    @Any
+    Instance<LegacyStoreTransport> transports;
+    @Inject
+    MeterRegistry meterRegistry;
+
+    @ConfigProperty(name = "legacy.store-manager.transport", defaultValue = "file")
+    String transportName;
+
+    private LegacyStoreTransport transport;
+
+    @PostConstruct
+    void selectTransport() {
+        Instance<LegacyStoreTransport> selected =
+                transports.select(Identifier.Literal.of(transportName));
+        if (!selected.isResolvable()) {
+            throw new IllegalStateException(
+                    "Unknown legacy.store-manager.transport '" + transportName + "'");
+        }
+        transport = selected.get();
+        LOGGER.infof("Legacy store manager transport: %s", transport.name());
+    }
+
+    @WithSpan(value = "legacy.store-manager.create", kind = SpanKind.CLIENT)
     public void createStoreOnLegacySystem(Store store) {
-        writeToFile(store);
+        send(store.name, describe(store));
     }
 
+    @WithSpan(value = "legacy.store-manager.update", kind = SpanKind.CLIENT)
     public void updateStoreOnLegacySystem(Store store) {
-        writeToFile(store);
+        send(store.name, describe(store));
+    }
+
+    /** Pushes a whole chunk of newly created stores in a single legacy call. */
+    @WithSpan(value = "legacy.store-manager.create-batch", kind = SpanKind.CLIENT)
+    public void createStoresOnLegacySystem(List<Store> stores) {
+        if (stores.isEmpty()) {
+            return;
+        }
+        StringBuilder content = new StringBuilder();
+        for (Store store : stores) {
+            content.append(describe(store)).append('\n');
+        }
+        send("store-batch", content.toString());
+    }
+
+    private static String describe(Store store) {
+        return "Store created. [ name ="
+                + store.name
+                + " ] [ items on stock ="
+                + store.quantityProductsInStock
+                + "]";
     }
 
-    private void writeToFile(Store store) {
+    private void send(String reference, String content) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "success";
         try {
-            Path tempFile = Files.createTempFile(store.name, ".txt");
-            LOGGER.debugf("Temporary file created at: %s", tempFile);
-
-            String content =
-                    "Store created. [ name ="
-                            + store.name
-                            + " ] [ items on stock ="
-                            + store.quantityProductsInStock
-                            + "]";
-            Files.write(tempFile, content.getBytes(StandardCharsets.UTF_8));
-            LOGGER.debug("Data written to temporary file.");
-
-            String readContent = Files.readString(tempFile, StandardCharsets.UTF_8);
-            LOGGER.debugf("Data read from temporary file: %s", readContent);
-
-            Files.delete(tempFile);
-            LOGGER.debug("Temporary file deleted.");
-        } catch (Exception e) {
-            LOGGER.error("Failed to write legacy store temp file", e);
+            transport.send(reference, content);
+        } catch (CircuitBreakerOpenException | BulkheadException e) {
+            outcome = "rejected";
+            throw e;
+        } catch (RuntimeException e) {
+            outcome = "failure";
+            throw e;
+        } finally {
+            sample.stop(
+                    Timer.builder("legacy.gateway.calls")
+                            .description("Latency of calls to the legacy store manager")
+                            .tag("transport", transport.name())
+                            .tag("outcome", outcome)
+                            .publishPercentileHistogram()
+                            .register(meterRegistry));
         }
     }
 }
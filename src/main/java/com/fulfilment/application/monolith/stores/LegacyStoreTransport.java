@@ -0,0 +1,18 @@
+package com.fulfilment.application.monolith.stores;
+
+/**
+ * Delivers store payloads to the legacy store manager. Implementations are CDI beans qualified
+ * with {@code @Identifier}; {@code legacy.store-manager.transport} selects the active one.
+ */
+public interface LegacyStoreTransport {
+
+    /** Short name used to tag metrics, e.g. {@code file} or {@code http}. */
+    String name();
+
+    /**
+     * Sends one payload.
+     *
+     * @throws LegacyStoreTransportException if the legacy system did not accept the payload
+     */
+    void send(String reference, String content);
+}
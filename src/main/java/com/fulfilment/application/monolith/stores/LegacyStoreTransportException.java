@@ -0,0 +1,12 @@
+package com.fulfilment.application.monolith.stores;
+
+public class LegacyStoreTransportException extends RuntimeException {
+
+    public LegacyStoreTransportException(String message) {
+        super(message);
+    }
+
+    public LegacyStoreTransportException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,37 @@
+package com.fulfilment.application.monolith.stores;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/** Spaces out permits evenly so that at most {@code permitsPerSecond} are handed out. */
+class RateLimiter {
+
+    private final long intervalNanos;
+    private long nextFreeSlot;
+
+    RateLimiter(double permitsPerSecond) {
+        if (permitsPerSecond <= 0) {
+            throw new IllegalArgumentException("permitsPerSecond must be > 0");
+        }
+        this.intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / permitsPerSecond);
+        this.nextFreeSlot = System.nanoTime();
+    }
+
+    /** Blocks until the next permit is available. */
+    void acquire() {
+        long waitUntil;
+        synchronized (this) {
+            long now = System.nanoTime();
+            waitUntil = Math.max(nextFreeSlot, now);
+            nextFreeSlot = waitUntil + intervalNanos;
+        }
+        long remaining;
+        while ((remaining = waitUntil - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(remaining);
+            if (Thread.interrupted()) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+}
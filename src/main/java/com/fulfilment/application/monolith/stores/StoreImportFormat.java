@@ -0,0 +1,25 @@
+package com.fulfilment.application.monolith.stores;
+
+import jakarta.ws.rs.WebApplicationException;
+import jakarta.ws.rs.core.MediaType;
+
+public enum StoreImportFormat {
+    CSV,
+    NDJSON;
+
+    public static final String CSV_MEDIA_TYPE = "text/csv";
+    public static final String NDJSON_MEDIA_TYPE = "application/x-ndjson";
+
+    static StoreImportFormat fromMediaType(MediaType mediaType) {
+        if (mediaType != null) {
+            String type = mediaType.getType() + "/" + mediaType.getSubtype();
+            if (CSV_MEDIA_TYPE.equalsIgnoreCase(type)) {
+                return CSV;
+            }
+            if (NDJSON_MEDIA_TYPE.equalsIgnoreCase(type)) {
+                return NDJSON;
+            }
+        }
+        throw new WebApplicationException("Unsupported import media type: " + mediaType, 415);
+    }
+}
@@ -0,0 +1,181 @@
+package com.fulfilment.application.monolith.stores;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.ws.rs.WebApplicationException;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads and validates store rows one line at a time, so memory use does not depend on the size
+ * of the uploaded file.
+ */
+class StoreImportReader {
+
+    static final int MAX_NAME_LENGTH = 40;
+
+    private static final String NAME_COLUMN = "name";
+    private static final String QUANTITY_COLUMN = "quantityProductsInStock";
+
+    private final BufferedReader reader;
+    private final StoreImportFormat format;
+    private final ObjectMapper objectMapper;
+
+    private long lineNumber;
+    private int nameIndex = -1;
+    private int quantityIndex = -1;
+
+    StoreImportReader(BufferedReader reader, StoreImportFormat format, ObjectMapper objectMapper) {
+        this.reader = reader;
+        this.format = format;
+        this.objectMapper = objectMapper;
+    }
+
+    /** Returns the next non-blank row, or {@code null} once the input is exhausted. */
+    Row next() throws IOException {
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            if (format == StoreImportFormat.CSV && nameIndex < 0) {
+                readHeader(line);
+                continue;
+            }
+            return format == StoreImportFormat.CSV ? parseCsv(line) : parseJson(line);
+        }
+        if (format == StoreImportFormat.CSV && nameIndex < 0) {
+            throw new WebApplicationException("CSV import requires a header line.", 422);
+        }
+        return null;
+    }
+
+    private void readHeader(String line) {
+        List<String> columns = splitCsv(line);
+        if (columns == null) {
+            throw new WebApplicationException("CSV header has an unterminated quote.", 422);
+        }
+        for (int i = 0; i < columns.size(); i++) {
+            String column = columns.get(i).trim();
+            if (NAME_COLUMN.equalsIgnoreCase(column)) {
+                nameIndex = i;
+            } else if (QUANTITY_COLUMN.equalsIgnoreCase(column)) {
+                quantityIndex = i;
+            }
+        }
+        if (nameIndex < 0) {
+            throw new WebApplicationException(
+                    "CSV header must contain a '" + NAME_COLUMN + "' column.", 422);
+        }
+    }
+
+    private Row parseCsv(String line) {
+        List<String> fields = splitCsv(line);
+        if (fields == null) {
+            return Row.invalid(lineNumber, "Unterminated quoted field.");
+        }
+        String name = nameIndex < fields.size() ? fields.get(nameIndex).trim() : null;
+        String quantity =
+                quantityIndex >= 0 && quantityIndex < fields.size()
+                        ? fields.get(quantityIndex).trim()
+                        : null;
+
+        int parsedQuantity = 0;
+        if (quantity != null && !quantity.isEmpty()) {
+            try {
+                parsedQuantity = Integer.parseInt(quantity);
+            } catch (NumberFormatException e) {
+                return Row.invalid(lineNumber, QUANTITY_COLUMN + " must be an integer.");
+            }
+        }
+        return validate(name, parsedQuantity);
+    }
+
+    private Row parseJson(String line) {
+        JsonNode node;
+        try {
+            node = objectMapper.readTree(line);
+        } catch (JsonProcessingException e) {
+            return Row.invalid(lineNumber, "Malformed JSON.");
+        }
+        if (node == null || !node.isObject()) {
+            return Row.invalid(lineNumber, "Each line must be a JSON object.");
+        }
+        if (node.hasNonNull("id")) {
+            return Row.invalid(lineNumber, "Id was invalidly set on request.");
+        }
+
+        JsonNode quantity = node.get(QUANTITY_COLUMN);
+        if (quantity != null && !quantity.isNull() && !quantity.canConvertToInt()) {
+            return Row.invalid(lineNumber, QUANTITY_COLUMN + " must be an integer.");
+        }
+        JsonNode name = node.get(NAME_COLUMN);
+        return validate(
+                name == null || name.isNull() ? null : name.asText().trim(),
+                quantity == null ? 0 : quantity.asInt());
+    }
+
+    private Row validate(String name, int quantity) {
+        if (name == null || name.isEmpty()) {
+            return Row.invalid(lineNumber, "Store Name was not set on request.");
+        }
+        if (name.length() > MAX_NAME_LENGTH) {
+            return Row.invalid(
+                    lineNumber, "Store Name exceeds " + MAX_NAME_LENGTH + " characters.");
+        }
+        if (quantity < 0) {
+            return Row.invalid(lineNumber, QUANTITY_COLUMN + " must be >= 0.");
+        }
+        return new Row(lineNumber, name, quantity, null);
+    }
+
+    /** Splits one RFC 4180 line; returns {@code null} if a quoted field is not terminated. */
+    static List<String> splitCsv(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"') {
+                    if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                        current.append('"');
+                        i++;
+                    } else {
+                        quoted = false;
+                    }
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        if (quoted) {
+            return null;
+        }
+        fields.add(current.toString());
+        return fields;
+    }
+
+    record Row(long line, String name, int quantity, String error) {
+
+        static Row invalid(long line, String error) {
+            return new Row(line, null, 0, error);
+        }
+
+        boolean valid() {
+            return error == null;
+        }
+    }
+}
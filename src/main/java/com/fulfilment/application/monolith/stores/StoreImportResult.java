@@ -0,0 +1,25 @@
+package com.fulfilment.application.monolith.stores;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class StoreImportResult {
+
+    /** Only the first rejections are reported so the response stays small for huge files. */
+    static final int MAX_REPORTED_ERRORS = 100;
+
+    public long imported;
+
+    public long rejected;
+
+    public List<RowError> errors = new ArrayList<>();
+
+    void reject(long line, String message) {
+        rejected++;
+        if (errors.size() < MAX_REPORTED_ERRORS) {
+            errors.add(new RowError(line, message));
+        }
+    }
+
+    public record RowError(long line, String error) {}
+}
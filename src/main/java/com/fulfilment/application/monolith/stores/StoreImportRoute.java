@@ -0,0 +1,225 @@
+package com.fulfilment.application.monolith.stores;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.quarkus.runtime.configuration.MemorySize;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpHeaders;
+import io.vertx.core.http.HttpServerRequest;
+import io.vertx.ext.web.Router;
+import io.vertx.ext.web.RoutingContext;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.WebApplicationException;
+import jakarta.ws.rs.core.MediaType;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * Serves {@code POST /store/import} ahead of the REST layer, so this route alone accepts uploads up
+ * to {@code store.import.max-body-size}; every other endpoint keeps the global {@code
+ * quarkus.http.limits.max-body-size}. The body is handed to {@link StoreImporter} as a stream on a
+ * worker thread and read with back-pressure, never buffered whole.
+ */
+@ApplicationScoped
+public class StoreImportRoute {
+
+    static final String PATH = "/store/import";
+
+    /** Runs before the order -2 handler that enforces the global body limit. */
+    private static final int ORDER = -3;
+
+    private static final Logger LOGGER = Logger.getLogger(StoreImportRoute.class);
+
+    @Inject
+    StoreImporter storeImporter;
+    @Inject
+    ObjectMapper objectMapper;
+
+    @ConfigProperty(name = "store.import.max-body-size", defaultValue = "1G")
+    MemorySize maxBodySize;
+
+    void register(@Observes Router router) {
+        router.post(PATH).order(ORDER).handler(this::handle);
+    }
+
+    private void handle(RoutingContext ctx) {
+        HttpServerRequest request = ctx.request();
+        long limit = maxBodySize.asLongValue();
+        String contentLength = request.getHeader(HttpHeaders.CONTENT_LENGTH);
+        if (contentLength != null) {
+            long length;
+            try {
+                length = Long.parseLong(contentLength.trim());
+            } catch (NumberFormatException e) {
+                fail(ctx, new WebApplicationException("Invalid Content-Length.", 400));
+                return;
+            }
+            if (length > limit) {
+                fail(
+                        ctx,
+                        new WebApplicationException(
+                                "Import body exceeds " + limit + " bytes.", 413));
+                return;
+            }
+        }
+        StoreImportFormat format;
+        try {
+            String contentType = request.getHeader(HttpHeaders.CONTENT_TYPE);
+            format =
+                    StoreImportFormat.fromMediaType(
+                            contentType == null ? null : MediaType.valueOf(contentType));
+        } catch (RuntimeException e) {
+            fail(ctx, e);
+            return;
+        }
+
+        RequestBodyStream body = new RequestBodyStream(request, limit);
+        ctx.vertx()
+                .executeBlocking(() -> storeImporter.importStores(body, format), false)
+                .onComplete(
+                        result -> {
+                            if (result.failed()) {
+                                fail(ctx, result.cause());
+                                return;
+                            }
+                            respond(ctx, result.result());
+                        });
+    }
+
+    private void respond(RoutingContext ctx, StoreImportResult result) {
+        byte[] json;
+        try {
+            json = objectMapper.writeValueAsBytes(result);
+        } catch (IOException e) {
+            fail(ctx, e);
+            return;
+        }
+        ctx.response()
+                .putHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON)
+                .end(Buffer.buffer(json));
+    }
+
+    /** Answers in the shape {@code ErrorMapper} gives every REST endpoint. */
+    private void fail(RoutingContext ctx, Throwable failure) {
+        int code = 500;
+        if (failure instanceof WebApplicationException e) {
+            code = e.getResponse().getStatus();
+        }
+        if (code >= 500) {
+            LOGGER.error("Store import failed", failure);
+        } else {
+            LOGGER.debugf("Store import rejected %d: %s", code, failure.getMessage());
+        }
+        ObjectNode json = objectMapper.createObjectNode();
+        json.put("exceptionType", failure.getClass().getName());
+        json.put("code", code);
+        if (failure.getMessage() != null) {
+            json.put("error", failure.getMessage());
+        }
+        if (code == 413) {
+            // the rest of the upload is not read, so the connection cannot be reused
+            ctx.response().putHeader(HttpHeaders.CONNECTION, "close");
+        }
+        ctx.response()
+                .setStatusCode(code)
+                .putHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON)
+                .end(json.toString());
+    }
+
+    /**
+     * Blocking view of a paused request body. The reader asks for a few chunks at a time, so at
+     * most {@link #PREFETCH} chunks are held in memory whatever the upload size.
+     */
+    static final class RequestBodyStream extends InputStream {
+
+        private static final int PREFETCH = 16;
+        private static final Buffer END = Buffer.buffer();
+
+        private final HttpServerRequest request;
+        private final BlockingQueue<Buffer> chunks = new LinkedBlockingQueue<>();
+        private volatile Exception failure;
+        private long received;
+        private Buffer current;
+        private int position;
+
+        RequestBodyStream(HttpServerRequest request, long limit) {
+            this.request = request;
+            request.pause();
+            request.handler(
+                    chunk -> {
+                        if (failure != null) {
+                            return;
+                        }
+                        received += chunk.length();
+                        if (received > limit) {
+                            failure =
+                                    new WebApplicationException(
+                                            "Import body exceeds " + limit + " bytes.", 413);
+                            chunks.add(END);
+                        } else {
+                            chunks.add(chunk);
+                        }
+                    });
+            request.exceptionHandler(
+                    e -> {
+                        failure = new IOException(e.getMessage(), e);
+                        chunks.add(END);
+                    });
+            request.endHandler(v -> chunks.add(END));
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] one = new byte[1];
+            return read(one, 0, 1) < 0 ? -1 : one[0] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (len == 0) {
+                return 0;
+            }
+            while (current == null || position == current.length()) {
+                if (current == END) {
+                    return -1;
+                }
+                current = next();
+                position = 0;
+                if (current == END) {
+                    if (failure instanceof WebApplicationException e) {
+                        throw e;
+                    }
+                    if (failure instanceof IOException e) {
+                        throw e;
+                    }
+                    return -1;
+                }
+            }
+            int n = Math.min(len, current.length() - position);
+            current.getBytes(position, position + n, b, off);
+            position += n;
+            return n;
+        }
+
+        private Buffer next() throws IOException {
+            Buffer chunk = chunks.poll();
+            if (chunk != null) {
+                return chunk;
+            }
+            request.fetch(PREFETCH);
+            try {
+                return chunks.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while reading the import body", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package com.fulfilment.application.monolith.stores;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fulfilment.application.monolith.TransactionHooks;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import jakarta.ws.rs.WebApplicationException;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Streams a bulk store upload into the database in fixed-size chunks. Each chunk is committed in
+ * its own transaction, flushed as JDBC batches and followed by a single legacy sync call.
+ */
+@ApplicationScoped
+public class StoreImporter {
+
+    private static final Logger LOGGER = Logger.getLogger(StoreImporter.class);
+
+    @Inject
+    EntityManager em;
+    @Inject
+    ObjectMapper objectMapper;
+    @Inject
+    LegacyStoreManagerGateway legacyStoreManagerGateway;
+    @Inject
+    TransactionHooks transactionHooks;
+    @Inject
+    StoreSnapshot storeSnapshot;
+
+    @ConfigProperty(name = "store.import.batch-size", defaultValue = "500")
+    int batchSize;
+
+    public StoreImportResult importStores(InputStream body, StoreImportFormat format) {
+        StoreImportResult result = new StoreImportResult();
+        StoreImportReader reader =
+                new StoreImportReader(
+                        new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8)),
+                        format,
+                        objectMapper);
+
+        List<StoreImportReader.Row> chunk = new ArrayList<>(batchSize);
+        try {
+            StoreImportReader.Row row;
+            while ((row = reader.next()) != null) {
+                if (!row.valid()) {
+                    result.reject(row.line(), row.error());
+                    continue;
+                }
+                chunk.add(row);
+                if (chunk.size() >= batchSize) {
+                    persistChunk(chunk, result);
+                    chunk.clear();
+                }
+            }
+        } catch (IOException e) {
+            throw new WebApplicationException("Failed to read import body: " + e.getMessage(), 400);
+        }
+        persistChunk(chunk, result);
+
+        LOGGER.infof("Imported %d stores (%d rows rejected)", result.imported, result.rejected);
+        return result;
+    }
+
+    private void persistChunk(List<StoreImportReader.Row> chunk, StoreImportResult result) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+
+        List<StoreImportReader.Row> duplicates = new ArrayList<>();
+        try {
+            int created =
+                    QuarkusTransaction.requiringNew().call(() -> insertChunk(chunk, duplicates));
+            result.imported += created;
+            for (StoreImportReader.Row duplicate : duplicates) {
+                result.reject(
+                        duplicate.line(),
+                        "Store with name '" + duplicate.name() + "' already exists.");
+            }
+        } catch (RuntimeException e) {
+            LOGGER.warnf(
+                    "Store import chunk at lines %d-%d failed: %s",
+                    chunk.get(0).line(), chunk.get(chunk.size() - 1).line(), e.getMessage());
+            for (StoreImportReader.Row row : chunk) {
+                result.reject(row.line(), "Chunk rolled back: " + e.getMessage());
+            }
+        }
+    }
+
+    private int insertChunk(
+            List<StoreImportReader.Row> chunk, List<StoreImportReader.Row> duplicates) {
+        Set<String> names = new HashSet<>();
+        for (StoreImportReader.Row row : chunk) {
+            names.add(row.name());
+        }
+        Set<String> taken =
+                new HashSet<>(
+                        em.createQuery(
+                                        "select s.name from Store s where s.name in :names",
+                                        String.class)
+                                .setParameter("names", names)
+                                .getResultList());
+
+        List<Store> created = new ArrayList<>(chunk.size());
+        for (StoreImportReader.Row row : chunk) {
+            if (!taken.add(row.name())) {
+                duplicates.add(row);
+                continue;
+            }
+            Store store = new Store(row.name());
+            store.quantityProductsInStock = row.quantity();
+            em.persist(store);
+            created.add(store);
+        }
+
+        em.flush();
+        em.clear();
+
+        transactionHooks.afterCommit(
+                () -> {
+                    created.forEach(store -> storeSnapshot.markChanged(store.id));
+                    legacyStoreManagerGateway.createStoresOnLegacySystem(created);
+                });
+        return created.size();
+    }
+}
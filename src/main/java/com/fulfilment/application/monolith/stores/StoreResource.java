@@ -1,10 +1,13 @@
 package com.fulfilment.application.monolith.stores;
 
+import com.fulfilment.application.monolith.TransactionHooks;
+import com.fulfilment.application.monolith.fulfillment.FulfillmentLimitService;
+import com.fulfilment.application.monolith.fulfillment.FulfillmentRepository;
+import com.fulfilment.application.monolith.search.NameMatch;
+import com.fulfilment.application.monolith.search.TrigramNameSearch;
 import io.quarkus.panache.common.Sort;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
-import jakarta.transaction.Synchronization;
-import jakarta.transaction.TransactionSynchronizationRegistry;
 import jakarta.transaction.Transactional;
 import jakarta.ws.rs.Consumes;
 import jakarta.ws.rs.DELETE;
@@ -14,14 +17,14 @@ import jakarta.ws.rs.POST;
 import jakarta.ws.rs.PUT;
 import jakarta.ws.rs.Path;
 import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.QueryParam;
 import jakarta.ws.rs.WebApplicationException;
+import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
 import org.jboss.logging.Logger;
 
 import java.util.List;
 
-import static jakarta.transaction.Status.STATUS_COMMITTED;
-
 @Path("store")
 @ApplicationScoped
 @Produces("application/json")
@@ -31,7 +34,15 @@ public class StoreResource {
     @Inject
     LegacyStoreManagerGateway legacyStoreManagerGateway;
     @Inject
-    TransactionSynchronizationRegistry txSyncRegistry;
+    TransactionHooks transactionHooks;
+    @Inject
+    FulfillmentRepository fulfillmentRepository;
+    @Inject
+    FulfillmentLimitService fulfillmentLimitService;
+    @Inject
+    TrigramNameSearch trigramNameSearch;
+    @Inject
+    StoreSnapshot storeSnapshot;
 
     private static final Logger LOGGER = Logger.getLogger(StoreResource.class.getName());
 
@@ -40,15 +51,25 @@ public class StoreResource {
         return Store.listAll(Sort.by("name"));
     }
 
+    @GET
+    @Path("search")
+    public List<NameMatch> search(@QueryParam("q") String q, @QueryParam("limit") Integer limit) {
+        return trigramNameSearch.search(TrigramNameSearch.Table.STORE, q, limit);
+    }
+
     @GET
     @Path("{id}")
-    public Store getSingle(Long id) {
+    public Response getSingle(Long id) {
         LOGGER.debugf("Fetching store %d", id);
+        byte[] json = storeSnapshot.json(id);
+        if (json != null) {
+            return Response.ok(json, MediaType.APPLICATION_JSON_TYPE).build();
+        }
         Store entity = Store.findById(id);
         if (entity == null) {
             throw new WebApplicationException("Store with id of " + id + " does not exist.", 404);
         }
-        return entity;
+        return Response.ok(entity).build();
     }
 
     @POST
@@ -61,7 +82,9 @@ public class StoreResource {
         store.persist();
         LOGGER.infof("Created store %s", store.name);
 
-        runAfterCommit(() -> legacyStoreManagerGateway.createStoreOnLegacySystem(store));
+        transactionHooks.afterCommit(
+                () -> legacyStoreManagerGateway.createStoreOnLegacySystem(store));
+        transactionHooks.afterCommit(() -> storeSnapshot.markChanged(store.id));
 
         return Response.ok(store).status(201).build();
     }
@@ -84,7 +107,9 @@ public class StoreResource {
         entity.quantityProductsInStock = updatedStore.quantityProductsInStock;
         LOGGER.infof("Updated store %d", id);
 
-        runAfterCommit(() -> legacyStoreManagerGateway.updateStoreOnLegacySystem(entity));
+        transactionHooks.afterCommit(
+                () -> legacyStoreManagerGateway.updateStoreOnLegacySystem(entity));
+        transactionHooks.afterCommit(() -> storeSnapshot.markChanged(id));
 
         return entity;
     }
@@ -106,7 +131,9 @@ public class StoreResource {
         entity.quantityProductsInStock = updatedStore.quantityProductsInStock;
         LOGGER.infof("Patched store %d", id);
 
-        runAfterCommit(() -> legacyStoreManagerGateway.updateStoreOnLegacySystem(entity));
+        transactionHooks.afterCommit(
+                () -> legacyStoreManagerGateway.updateStoreOnLegacySystem(entity));
+        transactionHooks.afterCommit(() -> storeSnapshot.markChanged(id));
 
         return entity;
     }
@@ -119,32 +146,15 @@ public class StoreResource {
         if (entity == null) {
             throw new WebApplicationException("Store with id of " + id + " does not exist.", 404);
         }
+        long assignments = fulfillmentRepository.deleteByStoreId(id);
+        fulfillmentLimitService.removeStore(id);
         entity.delete();
-        LOGGER.infof("Deleted store %d", id);
+        LOGGER.infof("Deleted store %d and %d fulfillment assignments", id, assignments);
 
-        runAfterCommit(() -> legacyStoreManagerGateway.updateStoreOnLegacySystem(entity));
+        transactionHooks.afterCommit(
+                () -> legacyStoreManagerGateway.updateStoreOnLegacySystem(entity));
+        transactionHooks.afterCommit(() -> storeSnapshot.markChanged(id));
 
         return Response.status(204).build();
     }
-
-    private void runAfterCommit(Runnable action) {
-        txSyncRegistry.registerInterposedSynchronization(
-                new Synchronization() {
-                    @Override
-                    public void beforeCompletion() {
-                        // no-op
-                    }
-
-                    @Override
-                    public void afterCompletion(int status) {
-                        if (status == STATUS_COMMITTED) {
-                            try {
-                                action.run();
-                            } catch (Exception e) {
-                                LOGGER.error("Legacy call failed after commit", e);
-                            }
-                        }
-                    }
-                });
-    }
 }
@@ -0,0 +1,52 @@
+package com.fulfilment.application.monolith.stores;
+
+import com.fulfilment.application.monolith.snapshot.CatalogueSnapshot;
+import io.quarkus.runtime.StartupEvent;
+import io.quarkus.scheduler.Scheduled;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import org.hibernate.jpa.HibernateHints;
+
+import java.util.Collection;
+import java.util.List;
+
+/** Off-heap JSON snapshot of {@link Store}s backing {@code GET /store/{id}}. */
+@ApplicationScoped
+public class StoreSnapshot extends CatalogueSnapshot<Store> {
+
+    @Inject
+    EntityManager em;
+
+    void onStart(@Observes StartupEvent event) {
+        build();
+    }
+
+    @Scheduled(
+            every = "${catalogue.snapshot.refresh-interval:1s}",
+            concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    void scheduledRefresh() {
+        refresh();
+    }
+
+    @Override
+    protected List<Store> loadAll() {
+        return em.createQuery("from Store", Store.class)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultList();
+    }
+
+    @Override
+    protected List<Store> load(Collection<Long> ids) {
+        return em.createQuery("from Store s where s.id in :ids", Store.class)
+                .setParameter("ids", ids)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultList();
+    }
+
+    @Override
+    protected long idOf(Store row) {
+        return row.id;
+    }
+}
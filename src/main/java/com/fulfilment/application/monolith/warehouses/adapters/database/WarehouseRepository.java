@@ -1,7 +1,9 @@
 package com.fulfilment.application.monolith.warehouses.adapters.database;
 
+import com.fulfilment.application.monolith.LatencyMetrics;
 import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
 import com.fulfilment.application.monolith.warehouses.domain.ports.WarehouseStore;
+import io.micrometer.core.annotation.Timed;
 import io.quarkus.hibernate.orm.panache.PanacheRepository;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.ws.rs.WebApplicationException;
@@ -10,6 +12,7 @@ import java.time.LocalDateTime;
 import java.util.List;
 
 @ApplicationScoped
+@Timed(LatencyMetrics.REPOSITORY_QUERIES)
 public class WarehouseRepository implements WarehouseStore, PanacheRepository<DbWarehouse> {
 
     @Override
@@ -32,6 +35,8 @@ public class WarehouseRepository implements WarehouseStore, PanacheRepository<Db
         db.archivedAt = warehouse.archivedAt;
 
         persist(db);
+        // the id comes from the pooled sequence on persist, so callers need no re-read
+        warehouse.id = db.id;
     }
 
     @Override
@@ -1,5 +1,6 @@
 package com.fulfilment.application.monolith.warehouses.adapters.restapi;
 
+import com.fulfilment.application.monolith.errors.ErrorCode;
 import com.fulfilment.application.monolith.warehouses.adapters.database.WarehouseRepository;
 import com.fulfilment.application.monolith.warehouses.domain.usecases.ArchiveWarehouse;
 import com.fulfilment.application.monolith.warehouses.domain.usecases.CreateWarehouse;
@@ -40,12 +41,7 @@ public class WarehouseResourceImpl implements WarehouseResource {
         LOGGER.infof("Creating warehouse %s", data.getBusinessUnitCode());
         var domain = toDomain(data);
         createWarehouse.create(domain);
-
-        var stored = warehouseRepository.findByBusinessUnitCode(domain.businessUnitCode);
-        if (stored == null) {
-            throw new WebApplicationException("Warehouse was not created", 500);
-        }
-        return toWarehouseResponse(stored);
+        return toWarehouseResponse(domain);
     }
 
     @Override
@@ -53,7 +49,7 @@ public class WarehouseResourceImpl implements WarehouseResource {
         LOGGER.debugf("Fetching warehouse id=%s", id);
         var found = warehouseRepository.getById(parseId(id));
         if (found == null) {
-            throw new WebApplicationException("Warehouse not found", 404);
+            throw ErrorCode.WAREHOUSE_NOT_FOUND.exception();
         }
         return toWarehouseResponse(found);
     }
@@ -93,7 +89,7 @@ public class WarehouseResourceImpl implements WarehouseResource {
     private com.fulfilment.application.monolith.warehouses.domain.models.Warehouse toDomain(
             Warehouse data) {
         if (data == null) {
-            throw new WebApplicationException("Warehouse payload is required", 422);
+            throw ErrorCode.MISSING_PAYLOAD.exception();
         }
         var domain = new com.fulfilment.application.monolith.warehouses.domain.models.Warehouse();
         domain.businessUnitCode = data.getBusinessUnitCode();
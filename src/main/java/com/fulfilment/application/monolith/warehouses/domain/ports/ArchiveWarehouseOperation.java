@@ -1,5 +1,6 @@
 package com.fulfilment.application.monolith.warehouses.domain.ports;
 
 public interface ArchiveWarehouseOperation {
-    void archive(Long id);
+    /** Archives the warehouse and returns how many fulfillment assignments were detached. */
+    long archive(Long id);
 }
@@ -0,0 +1,14 @@
+package com.fulfilment.application.monolith.warehouses.domain.ports;
+
+/**
+ * The fulfillment assignments served by a warehouse, keyed by its business unit code. Every
+ * operation is a single set-based statement, whatever the number of assignments.
+ */
+public interface WarehouseAssignmentStore {
+
+    /** Removes every assignment of the warehouse and returns how many there were. */
+    long detachAll(String businessUnitCode);
+
+    /** Number of assignments of the warehouse. */
+    long count(String businessUnitCode);
+}
@@ -1,39 +1,53 @@
 package com.fulfilment.application.monolith.warehouses.domain.usecases;
 
+import com.fulfilment.application.monolith.LatencyMetrics;
+import com.fulfilment.application.monolith.errors.ErrorCode;
 import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
 import com.fulfilment.application.monolith.warehouses.domain.ports.ArchiveWarehouseOperation;
+import com.fulfilment.application.monolith.warehouses.domain.ports.WarehouseAssignmentStore;
 import com.fulfilment.application.monolith.warehouses.domain.ports.WarehouseStore;
+import io.micrometer.core.annotation.Timed;
+import io.opentelemetry.instrumentation.annotations.WithSpan;
 import jakarta.enterprise.context.ApplicationScoped;
-import jakarta.ws.rs.WebApplicationException;
 import org.jboss.logging.Logger;
 
 import java.time.LocalDateTime;
 
 @ApplicationScoped
+@Timed(LatencyMetrics.USE_CASES)
 public class ArchiveWarehouse implements ArchiveWarehouseOperation {
 
     private static final Logger LOGGER = Logger.getLogger(ArchiveWarehouse.class);
 
     private final WarehouseStore warehouseStore;
+    private final WarehouseAssignmentStore assignmentStore;
 
-    public ArchiveWarehouse(WarehouseStore warehouseStore) {
+    public ArchiveWarehouse(
+            WarehouseStore warehouseStore, WarehouseAssignmentStore assignmentStore) {
         this.warehouseStore = warehouseStore;
+        this.assignmentStore = assignmentStore;
     }
 
+    /** An archived warehouse serves nobody, so its assignments are removed with it. */
     @Override
-    public void archive(Long id) {
+    @WithSpan
+    public long archive(Long id) {
         if (id == null) {
-            throw new WebApplicationException("Warehouse id is required", 422);
+            throw ErrorCode.MISSING_WAREHOUSE_ID.exception();
         }
 
         Warehouse existing = warehouseStore.getById(id);
         if (existing == null) {
-            throw new WebApplicationException("Warehouse not found", 404);
+            throw ErrorCode.WAREHOUSE_NOT_FOUND.exception();
         }
 
         existing.archivedAt = LocalDateTime.now();
         warehouseStore.update(existing);
+        long detached = assignmentStore.detachAll(existing.businessUnitCode);
 
-        LOGGER.infof("Archived warehouse %s (id=%d)", existing.businessUnitCode, id);
+        LOGGER.infof(
+                "Archived warehouse %s (id=%d), detached %d fulfillment assignments",
+                existing.businessUnitCode, id, detached);
+        return detached;
     }
 }
@@ -1,18 +1,22 @@
 package com.fulfilment.application.monolith.warehouses.domain.usecases;
 
+import com.fulfilment.application.monolith.LatencyMetrics;
+import com.fulfilment.application.monolith.errors.ErrorCode;
 import com.fulfilment.application.monolith.warehouses.domain.models.Location;
 import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
 import com.fulfilment.application.monolith.warehouses.domain.ports.CreateWarehouseOperation;
 import com.fulfilment.application.monolith.warehouses.domain.ports.LocationResolver;
 import com.fulfilment.application.monolith.warehouses.domain.ports.WarehouseStore;
+import io.micrometer.core.annotation.Timed;
+import io.opentelemetry.instrumentation.annotations.WithSpan;
 import jakarta.enterprise.context.ApplicationScoped;
-import jakarta.ws.rs.WebApplicationException;
 import org.jboss.logging.Logger;
 
 import java.time.LocalDateTime;
 import java.util.List;
 
 @ApplicationScoped
+@Timed(LatencyMetrics.USE_CASES)
 public class CreateWarehouse implements CreateWarehouseOperation {
 
     private static final Logger LOGGER = Logger.getLogger(CreateWarehouse.class);
@@ -26,16 +30,17 @@ public class CreateWarehouse implements CreateWarehouseOperation {
     }
 
     @Override
+    @WithSpan
     public void create(Warehouse warehouse) {
         WarehouseValidator.validateRequiredFields(warehouse);
 
         if (warehouseStore.findByBusinessUnitCode(warehouse.businessUnitCode) != null) {
-            throw new WebApplicationException("businessUnitCode already exists", 409);
+            throw WarehouseValidator.reject(ErrorCode.DUPLICATE_BUSINESS_UNIT_CODE);
         }
 
         Location location = locationResolver.resolveByIdentifier(warehouse.location);
         if (location == null) {
-            throw new WebApplicationException("Invalid location", 422);
+            throw WarehouseValidator.reject(ErrorCode.UNKNOWN_LOCATION);
         }
 
         List<Warehouse> all = warehouseStore.getAll();
@@ -46,7 +51,7 @@ public class CreateWarehouse implements CreateWarehouseOperation {
                         .toList();
 
         if (activeAtLocation.size() >= location.maxNumberOfWarehouses) {
-            throw new WebApplicationException("Max number of warehouses reached for location", 422);
+            throw WarehouseValidator.reject(ErrorCode.LOCATION_WAREHOUSE_LIMIT);
         }
 
         int currentTotalCapacity =
@@ -55,7 +60,7 @@ public class CreateWarehouse implements CreateWarehouseOperation {
                         .reduce(0, Integer::sum);
 
         if (currentTotalCapacity + warehouse.capacity > location.maxCapacity) {
-            throw new WebApplicationException("Location max capacity exceeded", 422);
+            throw WarehouseValidator.reject(ErrorCode.LOCATION_CAPACITY_LIMIT);
         }
 
         WarehouseValidator.validateStockWithinCapacity(warehouse);
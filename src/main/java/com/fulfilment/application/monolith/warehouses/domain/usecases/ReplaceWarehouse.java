@@ -1,32 +1,46 @@
 package com.fulfilment.application.monolith.warehouses.domain.usecases;
 
+import com.fulfilment.application.monolith.LatencyMetrics;
+import com.fulfilment.application.monolith.errors.ErrorCode;
 import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
 import com.fulfilment.application.monolith.warehouses.domain.ports.ReplaceWarehouseOperation;
+import com.fulfilment.application.monolith.warehouses.domain.ports.WarehouseAssignmentStore;
 import com.fulfilment.application.monolith.warehouses.domain.ports.WarehouseStore;
+import io.micrometer.core.annotation.Timed;
+import io.opentelemetry.instrumentation.annotations.WithSpan;
 import jakarta.enterprise.context.ApplicationScoped;
-import jakarta.ws.rs.WebApplicationException;
 import org.jboss.logging.Logger;
 
 import java.time.LocalDateTime;
 
 @ApplicationScoped
+@Timed(LatencyMetrics.USE_CASES)
 public class ReplaceWarehouse implements ReplaceWarehouseOperation {
 
     private static final Logger LOGGER = Logger.getLogger(ReplaceWarehouse.class);
 
     private final WarehouseStore warehouseStore;
+    private final WarehouseAssignmentStore assignmentStore;
 
-    public ReplaceWarehouse(WarehouseStore warehouseStore) {
+    public ReplaceWarehouse(
+            WarehouseStore warehouseStore, WarehouseAssignmentStore assignmentStore) {
         this.warehouseStore = warehouseStore;
+        this.assignmentStore = assignmentStore;
     }
 
+    /**
+     * The replacement keeps the business unit code, location and stock, which is everything an
+     * assignment and its limits depend on, so assignments carry over unchanged and are only
+     * counted. Capacity is the one attribute that changes, and no assignment limit reads it.
+     */
     @Override
-    public void replace(Warehouse newWarehouse) {
+    @WithSpan
+    public long replace(Warehouse newWarehouse) {
         WarehouseValidator.validateRequiredFields(newWarehouse);
 
         Warehouse current = warehouseStore.findByBusinessUnitCode(newWarehouse.businessUnitCode);
         if (current == null) {
-            throw new WebApplicationException("Warehouse to replace not found", 404);
+            throw ErrorCode.WAREHOUSE_NOT_FOUND.exception("Warehouse to replace not found");
         }
 
         WarehouseValidator.validateReplacement(newWarehouse, current);
@@ -43,9 +57,11 @@ public class ReplaceWarehouse implements ReplaceWarehouseOperation {
         replacement.archivedAt = null;
 
         warehouseStore.create(replacement);
+        long carried = assignmentStore.count(current.businessUnitCode);
 
         LOGGER.infof(
-                "Replaced warehouse %s, new capacity %d",
-                current.businessUnitCode, newWarehouse.capacity);
+                "Replaced warehouse %s, new capacity %d, %d fulfillment assignments carried over",
+                current.businessUnitCode, newWarehouse.capacity, carried);
+        return carried;
     }
 }
@@ -1,46 +1,55 @@
 package com.fulfilment.application.monolith.warehouses.domain.usecases;
 
+import com.fulfilment.application.monolith.errors.DomainException;
+import com.fulfilment.application.monolith.errors.ErrorCode;
+import com.fulfilment.application.monolith.errors.RejectionCounter;
 import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
-import jakarta.ws.rs.WebApplicationException;
 
 class WarehouseValidator {
 
+    /** Counter of rejected warehouse writes, tagged with the {@code reason} rule that failed. */
+    static final String REJECTIONS = "warehouse.validation.rejections";
+
+    private static final RejectionCounter REJECTED = new RejectionCounter(REJECTIONS, "reason");
+
     static void validateRequiredFields(Warehouse warehouse) {
         if (warehouse == null) {
-            throw new WebApplicationException("Warehouse payload is required", 422);
+            throw reject(ErrorCode.MISSING_PAYLOAD);
         }
         if (warehouse.businessUnitCode == null || warehouse.businessUnitCode.isBlank()) {
-            throw new WebApplicationException("businessUnitCode is required", 422);
+            throw reject(ErrorCode.MISSING_BUSINESS_UNIT_CODE);
         }
         if (warehouse.location == null || warehouse.location.isBlank()) {
-            throw new WebApplicationException("location is required", 422);
+            throw reject(ErrorCode.MISSING_LOCATION);
         }
         if (warehouse.capacity == null || warehouse.capacity <= 0) {
-            throw new WebApplicationException("capacity must be > 0", 422);
+            throw reject(ErrorCode.INVALID_CAPACITY);
         }
         if (warehouse.stock == null || warehouse.stock < 0) {
-            throw new WebApplicationException("stock must be >= 0", 422);
+            throw reject(ErrorCode.INVALID_STOCK);
         }
     }
 
     static void validateStockWithinCapacity(Warehouse warehouse) {
         if (warehouse.stock > warehouse.capacity) {
-            throw new WebApplicationException("Stock cannot exceed capacity", 422);
+            throw reject(ErrorCode.STOCK_EXCEEDS_CAPACITY);
         }
     }
 
     static void validateReplacement(Warehouse replacement, Warehouse current) {
         if (!replacement.location.equals(current.location)) {
-            throw new WebApplicationException(
-                    "Replacement warehouse must be in the same location", 422);
+            throw reject(ErrorCode.REPLACEMENT_LOCATION_CHANGED);
         }
         if (replacement.stock.intValue() != current.stock.intValue()) {
-            throw new WebApplicationException(
-                    "Replacement warehouse stock must match existing stock", 422);
+            throw reject(ErrorCode.REPLACEMENT_STOCK_MISMATCH);
         }
         if (replacement.capacity < current.stock) {
-            throw new WebApplicationException(
-                    "Replacement warehouse capacity must accommodate existing stock", 422);
+            throw reject(ErrorCode.REPLACEMENT_CAPACITY_BELOW_STOCK);
         }
     }
+
+    /** Counts the rejection and returns the exception to throw. */
+    static DomainException reject(ErrorCode code) {
+        return REJECTED.reject(code);
+    }
 }
@@ -0,0 +1,41 @@
+-- Baseline: the schema that was maintained by hand before migrations existed. Such databases are
+-- baselined at this version (quarkus.flyway.baseline-on-migrate) and continue from V2.
+
+CREATE SEQUENCE IF NOT EXISTS store_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS product_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS warehouse_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS fulfillment_assignment_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE store (
+    id                      bigint NOT NULL PRIMARY KEY,
+    name                    varchar(40) CONSTRAINT uq_store_name UNIQUE,
+    quantityProductsInStock integer NOT NULL
+);
+
+CREATE TABLE product (
+    id          bigint NOT NULL PRIMARY KEY,
+    name        varchar(40) CONSTRAINT uq_product_name UNIQUE,
+    description varchar(255),
+    price       numeric(10, 2),
+    stock       integer NOT NULL
+);
+
+CREATE TABLE warehouse (
+    id               bigint NOT NULL PRIMARY KEY,
+    businessUnitCode varchar(255),
+    location         varchar(255),
+    capacity         integer,
+    stock            integer,
+    createdAt        timestamp(6),
+    archivedAt       timestamp(6)
+);
+
+CREATE TABLE fulfillment_assignment (
+    id                        bigint       NOT NULL PRIMARY KEY,
+    warehouseBusinessUnitCode varchar(255) NOT NULL,
+    productId                 bigint       NOT NULL,
+    storeId                   bigint       NOT NULL,
+    createdAt                 timestamp(6) NOT NULL,
+    CONSTRAINT uq_warehouse_product_store
+        UNIQUE (warehouseBusinessUnitCode, productId, storeId)
+);
@@ -0,0 +1,34 @@
+-- Tables added after the baseline: store limit overrides, the stock reservation journal and the
+-- legacy resync checkpoint. IF NOT EXISTS, as some environments already created them by hand.
+
+CREATE SEQUENCE IF NOT EXISTS stock_reservation_journal_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS store_fulfillment_limit (
+    storeId                 bigint NOT NULL PRIMARY KEY,
+    maxWarehouses           integer,
+    maxWarehousesPerProduct integer
+);
+
+CREATE TABLE IF NOT EXISTS warehouse_fulfillment_limit (
+    businessUnitCode varchar(255) NOT NULL PRIMARY KEY,
+    maxProducts      integer
+);
+
+CREATE TABLE IF NOT EXISTS stock_reservation_journal (
+    id            bigint      NOT NULL PRIMARY KEY,
+    reservationId uuid        NOT NULL,
+    productId     bigint      NOT NULL,
+    quantity      integer     NOT NULL,
+    state         varchar(10) NOT NULL
+        CHECK (state IN ('RESERVED', 'CONFIRMED', 'RELEASED', 'EXPIRED')),
+    expiresAt     timestamp(6) with time zone,
+    recordedAt    timestamp(6) with time zone
+);
+CREATE INDEX IF NOT EXISTS ix_stock_reservation_journal_reservation
+    ON stock_reservation_journal (reservationId);
+
+CREATE TABLE IF NOT EXISTS legacy_resync_checkpoint (
+    id          bigint NOT NULL PRIMARY KEY,
+    lastStoreId bigint,
+    updatedAt   timestamp(6)
+);
@@ -0,0 +1,13 @@
+-- Trigram indexes behind GET /store/search and GET /product/search.
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+CREATE EXTENSION IF NOT EXISTS unaccent;
+
+-- unaccent() is only STABLE; index expressions need an IMMUTABLE wrapper with a fixed dictionary
+CREATE OR REPLACE FUNCTION immutable_unaccent(text) RETURNS text
+    LANGUAGE sql IMMUTABLE PARALLEL SAFE STRICT
+    AS 'SELECT public.unaccent(''public.unaccent''::regdictionary, $1)';
+
+CREATE INDEX IF NOT EXISTS ix_store_name_trgm
+    ON store USING gin (immutable_unaccent(lower(name)) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS ix_product_name_trgm
+    ON product USING gin (immutable_unaccent(lower(name)) gin_trgm_ops);
@@ -0,0 +1,24 @@
+-- Indexes shaped after the fulfillment hot paths. The unique constraint uq_warehouse_product_store
+-- already leads with the warehouse; these add the store- and product-leading access paths and
+-- partial indexes over active (not archived) warehouses.
+
+-- Store-leading and covering for every store-scoped limit count (distinct warehouses per store,
+-- distinct warehouses per store and product), GET /fulfillment/route and removeStore: all are
+-- answered by index-only scans.
+CREATE INDEX IF NOT EXISTS ix_fulfillment_store_product_warehouse
+    ON fulfillment_assignment (storeId, productId, warehouseBusinessUnitCode);
+
+-- Product-leading, for listings and bulk deletes by product.
+CREATE INDEX IF NOT EXISTS ix_fulfillment_product_store
+    ON fulfillment_assignment (productId, storeId) INCLUDE (warehouseBusinessUnitCode);
+
+-- Active-warehouse lookups by business unit code (existence checks, the route join, ordered code
+-- listings). INCLUDE makes the route join index-only.
+CREATE INDEX IF NOT EXISTS ix_warehouse_active_business_unit
+    ON warehouse (businessUnitCode) INCLUDE (location, capacity, stock)
+    WHERE archivedAt IS NULL;
+
+-- Active warehouses per location (location capacity validation).
+CREATE INDEX IF NOT EXISTS ix_warehouse_active_location
+    ON warehouse (location)
+    WHERE archivedAt IS NULL;
@@ -1,8 +1,14 @@
 package com.fulfilment.application.monolith;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fulfilment.application.monolith.errors.DomainException;
+import com.fulfilment.application.monolith.errors.EntityNotFoundException;
+import com.fulfilment.application.monolith.errors.ErrorCode;
+import com.fulfilment.application.monolith.errors.UnavailableException;
 import jakarta.ws.rs.WebApplicationException;
+import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -11,6 +17,7 @@ import java.lang.reflect.Field;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
 
 class ErrorMapperTest {
 
@@ -51,4 +58,46 @@ class ErrorMapperTest {
         ObjectNode body = (ObjectNode) response.getEntity();
         assertFalse(body.has("error"));
     }
+
+    @Test
+    void domainExceptionIsWrittenFromCachedBody() throws Exception {
+        Response response = mapper.toResponse(ErrorCode.WAREHOUSE_NOT_FOUND.exception());
+        assertEquals(404, response.getStatus());
+        assertEquals(MediaType.APPLICATION_JSON_TYPE, response.getMediaType());
+
+        JsonNode body = new ObjectMapper().readTree((byte[]) response.getEntity());
+        assertEquals(EntityNotFoundException.class.getName(), body.get("exceptionType").asText());
+        assertEquals(404, body.get("code").asInt());
+        assertEquals("WAREHOUSE_NOT_FOUND", body.get("errorCode").asText());
+        assertEquals("Warehouse not found", body.get("error").asText());
+
+        Response again = mapper.toResponse(ErrorCode.WAREHOUSE_NOT_FOUND.exception());
+        assertSame(response.getEntity(), again.getEntity());
+    }
+
+    @Test
+    void domainExceptionMessageIsEscaped() throws Exception {
+        String message = "Warehouse with businessUnitCode 'A\"B\n' not found.";
+        DomainException exception = ErrorCode.WAREHOUSE_NOT_FOUND.exception(message);
+
+        JsonNode body =
+                new ObjectMapper().readTree((byte[]) mapper.toResponse(exception).getEntity());
+        assertEquals(message, body.get("error").asText());
+        assertEquals("WAREHOUSE_NOT_FOUND", body.get("errorCode").asText());
+    }
+
+    @Test
+    void unavailableCodeMapsTo503() throws Exception {
+        Response response = mapper.toResponse(ErrorCode.PLANNER_BUSY.exception());
+        assertEquals(503, response.getStatus());
+
+        JsonNode body = new ObjectMapper().readTree((byte[]) response.getEntity());
+        assertEquals(UnavailableException.class.getName(), body.get("exceptionType").asText());
+        assertEquals("PLANNER_BUSY", body.get("errorCode").asText());
+    }
+
+    @Test
+    void domainExceptionsCaptureNoStackTrace() {
+        assertEquals(0, ErrorCode.ASSIGNMENT_EXISTS.exception().getStackTrace().length);
+    }
 }
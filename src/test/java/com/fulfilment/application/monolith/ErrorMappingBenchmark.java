@@ -0,0 +1,85 @@
+package com.fulfilment.application.monolith;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fulfilment.application.monolith.errors.ErrorCode;
+import jakarta.ws.rs.WebApplicationException;
+import jakarta.ws.rs.core.Response;
+import org.jboss.logmanager.Logger;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+
+/**
+ * Cost of rejecting a request, from throwing to holding the serialised body. {@code
+ * webApplicationException} is the old path: a stack-capturing exception mapped to an {@code
+ * ObjectNode}; the {@code domainException} cases are stackless and reuse the cached body, or
+ * escape only the message when it is request-specific.
+ *
+ * <p>Run with {@code mvn -Pbenchmark test -Dbenchmark=ErrorMapping}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ErrorMappingBenchmark {
+
+    private ObjectMapper objectMapper;
+    private ErrorMapper mapper;
+    private Logger logger;
+
+    @Setup
+    public void setUp() {
+        // Outside Quarkus the log manager is unconfigured and would build every debug record.
+        logger = Logger.getLogger(ErrorMapper.class.getName());
+        logger.setLevel(Level.INFO);
+        objectMapper = new ObjectMapper();
+        mapper = new ErrorMapper();
+        mapper.objectMapper = objectMapper;
+    }
+
+    @Benchmark
+    public byte[] webApplicationException() throws Exception {
+        Response response;
+        try {
+            throw new WebApplicationException("This fulfillment assignment already exists.", 409);
+        } catch (WebApplicationException e) {
+            response = mapper.toResponse(e);
+        }
+        return objectMapper.writeValueAsBytes(response.getEntity());
+    }
+
+    @Benchmark
+    public byte[] domainException() {
+        Response response;
+        try {
+            throw ErrorCode.ASSIGNMENT_EXISTS.exception();
+        } catch (RuntimeException e) {
+            response = mapper.toResponse(e);
+        }
+        return (byte[]) response.getEntity();
+    }
+
+    @Benchmark
+    public byte[] domainExceptionWithMessage() {
+        Response response;
+        try {
+            throw ErrorCode.ASSIGNMENT_EXISTS.exception(
+                    "Item 42: this fulfillment assignment already exists.");
+        } catch (RuntimeException e) {
+            response = mapper.toResponse(e);
+        }
+        return (byte[]) response.getEntity();
+    }
+}
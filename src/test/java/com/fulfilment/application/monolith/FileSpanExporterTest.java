@@ -0,0 +1,56 @@
+package com.fulfilment.application.monolith;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.context.Scope;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.export.SimpleSpanProcessor;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FileSpanExporterTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void writesOneLinePerSpanWithParentLinks() throws Exception {
+        Path file = dir.resolve("traces/spans.ndjson");
+        FileSpanExporter exporter = new FileSpanExporter(file);
+        try (SdkTracerProvider provider =
+                SdkTracerProvider.builder()
+                        .addSpanProcessor(SimpleSpanProcessor.create(exporter))
+                        .build()) {
+            Tracer tracer = provider.get("test");
+            Span parent = tracer.spanBuilder("POST /warehouse").startSpan();
+            try (Scope ignored = parent.makeCurrent()) {
+                tracer.spanBuilder("CreateWarehouse.create")
+                        .setAttribute("location.identifier", "ZWOLLE-001")
+                        .startSpan()
+                        .end();
+            } finally {
+                parent.end();
+            }
+        }
+
+        ObjectMapper mapper = new ObjectMapper();
+        List<String> lines = Files.readAllLines(file);
+        assertEquals(2, lines.size());
+        JsonNode child = mapper.readTree(lines.get(0));
+        JsonNode parent = mapper.readTree(lines.get(1));
+        assertEquals("CreateWarehouse.create", child.get("name").asText());
+        assertEquals("ZWOLLE-001", child.at("/attributes/location.identifier").asText());
+        assertEquals(parent.get("spanId").asText(), child.get("parentSpanId").asText());
+        assertEquals(parent.get("traceId").asText(), child.get("traceId").asText());
+        assertTrue(parent.get("parentSpanId").isNull());
+    }
+}
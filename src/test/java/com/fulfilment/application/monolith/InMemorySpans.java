@@ -0,0 +1,40 @@
+package com.fulfilment.application.monolith;
+
+import io.opentelemetry.sdk.testing.exporter.InMemorySpanExporter;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.inject.Produces;
+import jakarta.inject.Singleton;
+
+import java.util.List;
+import java.util.function.Predicate;
+
+/** Captures every finished span of a {@code @QuarkusTest} so tests can assert on traces. */
+@ApplicationScoped
+public class InMemorySpans {
+
+    private final InMemorySpanExporter exporter = InMemorySpanExporter.create();
+
+    @Produces
+    @Singleton
+    InMemorySpanExporter exporter() {
+        return exporter;
+    }
+
+    public void reset() {
+        exporter.reset();
+    }
+
+    /** Waits for spans to be exported until one matches {@code until}, then returns them all. */
+    public List<SpanData> await(Predicate<SpanData> until) throws InterruptedException {
+        long deadline = System.nanoTime() + 5_000_000_000L;
+        while (System.nanoTime() < deadline) {
+            List<SpanData> spans = exporter.getFinishedSpanItems();
+            if (spans.stream().anyMatch(until)) {
+                return spans;
+            }
+            Thread.sleep(20);
+        }
+        throw new AssertionError("No matching span within 5s: " + exporter.getFinishedSpanItems());
+    }
+}
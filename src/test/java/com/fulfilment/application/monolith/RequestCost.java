@@ -0,0 +1,92 @@
+package com.fulfilment.application.monolith;
+
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Measures what one HTTP request costs the database. SQL statements are counted from the JDBC
+ * client spans of the request's own trace, so statements Hibernate never sees (advisory locks,
+ * {@code doWork}) are included and set-up work outside the request is not. Sequence fetches are
+ * left out: whether an insert needs a new pooled block depends on how many ids earlier tests took
+ * from the JVM-wide optimizer, not on the request. Entity loads and second-level cache traffic
+ * come from Hibernate statistics, enabled in the test profile.
+ */
+@ApplicationScoped
+public class RequestCost {
+
+    private static final AttributeKey<String> DB_SYSTEM = AttributeKey.stringKey("db.system");
+    private static final AttributeKey<String> DB_STATEMENT =
+            AttributeKey.stringKey("db.statement");
+
+    @Inject
+    InMemorySpans spans;
+    @Inject
+    EntityManagerFactory entityManagerFactory;
+
+    public record Cost(
+            List<String> statements, long entityLoads, long cacheHits, long cacheMisses) {
+
+        @Override
+        public String toString() {
+            return statements.size()
+                    + " statements, "
+                    + entityLoads
+                    + " entity loads, "
+                    + cacheHits
+                    + "/"
+                    + (cacheHits + cacheMisses)
+                    + " cache hits:\n  "
+                    + String.join("\n  ", statements);
+        }
+    }
+
+    /** Runs {@code request}, which must send exactly one HTTP request, and returns its cost. */
+    public Cost measure(Runnable request) throws InterruptedException {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        spans.reset();
+        statistics.clear();
+
+        request.run();
+
+        List<SpanData> finished = spans.await(s -> s.getKind() == SpanKind.SERVER);
+        String traceId =
+                finished.stream()
+                        .filter(s -> s.getKind() == SpanKind.SERVER)
+                        .findFirst()
+                        .orElseThrow()
+                        .getTraceId();
+        List<String> statements =
+                finished.stream()
+                        .filter(s -> s.getTraceId().equals(traceId))
+                        .filter(s -> s.getAttributes().get(DB_SYSTEM) != null)
+                        // the pool's DataSource.getConnection span is not a round trip
+                        .filter(s -> s.getAttributes().get(DB_STATEMENT) != null)
+                        .sorted(Comparator.comparingLong(SpanData::getStartEpochNanos))
+                        .map(s -> s.getAttributes().get(DB_STATEMENT))
+                        .filter(sql -> !sql.startsWith("select nextval("))
+                        .toList();
+        return new Cost(
+                statements,
+                statistics.getEntityLoadCount() + statistics.getEntityFetchCount(),
+                statistics.getSecondLevelCacheHitCount(),
+                statistics.getSecondLevelCacheMissCount());
+    }
+
+    /** Fails with the statements that ran when the request needs more than {@code budget}. */
+    public Cost assertWithin(int budget, Runnable request) throws InterruptedException {
+        Cost cost = measure(request);
+        if (cost.statements().size() > budget) {
+            throw new AssertionError("Statement budget of " + budget + " exceeded: " + cost);
+        }
+        return cost;
+    }
+}
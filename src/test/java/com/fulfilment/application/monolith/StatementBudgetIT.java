@@ -0,0 +1,175 @@
+package com.fulfilment.application.monolith;
+
+import com.fulfilment.application.monolith.fulfillment.FulfillmentRepository;
+import com.fulfilment.application.monolith.products.Product;
+import com.fulfilment.application.monolith.products.ProductRepository;
+import com.fulfilment.application.monolith.stores.Store;
+import com.fulfilment.application.monolith.warehouses.adapters.database.WarehouseRepository;
+import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
+import io.quarkus.test.junit.QuarkusTest;
+import io.restassured.http.ContentType;
+import jakarta.inject.Inject;
+import jakarta.transaction.Transactional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static io.restassured.RestAssured.given;
+
+/**
+ * Round-trip budget of each endpoint: the most SQL statements one request may run. A budget that
+ * starts failing means a new query, an N+1 or a re-read crept into the path; lower a budget when
+ * a change removes statements. The budgets are the counts measured on PostgreSQL 15, without
+ * sequence fetches (see {@link RequestCost}).
+ */
+@QuarkusTest
+public class StatementBudgetIT {
+
+    @Inject
+    RequestCost requestCost;
+    @Inject
+    FulfillmentRepository fulfillmentRepository;
+    @Inject
+    WarehouseRepository warehouseRepository;
+    @Inject
+    ProductRepository productRepository;
+
+    private Long warehouseId;
+    private Long productA, productB;
+    private Long storeA, storeB;
+
+    @BeforeEach
+    @Transactional
+    void setUp() {
+        fulfillmentRepository.deleteAll();
+        warehouseRepository.deleteAll();
+        productRepository.deleteAll();
+        Store.deleteAll();
+
+        Warehouse warehouse = new Warehouse();
+        warehouse.businessUnitCode = "BGT.001";
+        warehouse.location = "AMSTERDAM-001";
+        warehouse.capacity = 50;
+        warehouse.stock = 10;
+        warehouse.createdAt = LocalDateTime.now();
+        warehouseRepository.create(warehouse);
+        warehouseId = warehouse.id;
+
+        productA = seedProduct("BILLY");
+        productB = seedProduct("POÄNG");
+        storeA = seedStore("DELFT");
+        storeB = seedStore("UTRECHT");
+    }
+
+    @Test
+    public void testWarehouseEndpoints() throws Exception {
+        requestCost.assertWithin(
+                3,
+                () ->
+                        given().contentType(ContentType.JSON)
+                                .body(warehouse("BGT.002", 20, 5))
+                                .post("warehouse")
+                                .then()
+                                .statusCode(200));
+        requestCost.assertWithin(
+                1, () -> given().get("warehouse/" + warehouseId).then().statusCode(200));
+        requestCost.assertWithin(1, () -> given().get("warehouse").then().statusCode(200));
+        requestCost.assertWithin(
+                6,
+                () ->
+                        given().contentType(ContentType.JSON)
+                                .body(warehouse("BGT.001", 60, 10))
+                                .post("warehouse/BGT.001/replacement")
+                                .then()
+                                .statusCode(200));
+        Long replacementId = warehouseRepository.findByBusinessUnitCode("BGT.001").id;
+        requestCost.assertWithin(
+                5, () -> given().delete("warehouse/" + replacementId).then().statusCode(204));
+    }
+
+    @Test
+    public void testFulfillmentEndpoints() throws Exception {
+        requestCost.assertWithin(
+                3,
+                () ->
+                        given().contentType(ContentType.JSON)
+                                .body(assignment(productA, storeA))
+                                .post("fulfillment")
+                                .then()
+                                .statusCode(201));
+        requestCost.assertWithin(
+                6,
+                () ->
+                        given().contentType(ContentType.JSON)
+                                .body(
+                                        "["
+                                                + assignment(productB, storeA)
+                                                + ","
+                                                + assignment(productA, storeB)
+                                                + "]")
+                                .post("fulfillment/batch")
+                                .then()
+                                .statusCode(201));
+        requestCost.assertWithin(
+                1,
+                () ->
+                        given().get(
+                                        "fulfillment/route?storeId="
+                                                + storeA
+                                                + "&productId="
+                                                + productA)
+                                .then()
+                                .statusCode(200));
+        requestCost.assertWithin(
+                1, () -> given().get("fulfillment/page?limit=2").then().statusCode(200));
+        requestCost.assertWithin(
+                1, () -> given().get("fulfillment/store/" + storeA).then().statusCode(200));
+    }
+
+    @Test
+    public void testStoreAndProductEndpoints() throws Exception {
+        requestCost.assertWithin(
+                1,
+                () ->
+                        given().contentType(ContentType.JSON)
+                                .body("{\"name\":\"LEIDEN\",\"quantityProductsInStock\":4}")
+                                .post("store")
+                                .then()
+                                .statusCode(201));
+        requestCost.assertWithin(1, () -> given().get("store/" + storeB).then().statusCode(200));
+        // a first read puts the store in the second-level cache, the next one is a hit
+        given().get("store/" + storeA).then().statusCode(200);
+        requestCost.assertWithin(0, () -> given().get("store/" + storeA).then().statusCode(200));
+        requestCost.assertWithin(
+                1, () -> given().get("product/" + productA).then().statusCode(200));
+    }
+
+    private Long seedProduct(String name) {
+        Product product = new Product();
+        product.name = name;
+        product.stock = 10;
+        productRepository.persist(product);
+        return product.id;
+    }
+
+    private Long seedStore(String name) {
+        Store store = new Store(name);
+        store.quantityProductsInStock = 5;
+        store.persist();
+        return store.id;
+    }
+
+    private static String warehouse(String code, int capacity, int stock) {
+        return String.format(
+                "{\"businessUnitCode\":\"%s\",\"location\":\"AMSTERDAM-001\","
+                        + "\"capacity\":%d,\"stock\":%d}",
+                code, capacity, stock);
+    }
+
+    private String assignment(Long productId, Long storeId) {
+        return String.format(
+                "{\"warehouseBusinessUnitCode\":\"BGT.001\",\"productId\":%d,\"storeId\":%d}",
+                productId, storeId);
+    }
+}
@@ -0,0 +1,78 @@
+package com.fulfilment.application.monolith;
+
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.quarkus.test.junit.QuarkusTest;
+import io.restassured.http.ContentType;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.function.Predicate;
+
+import static io.restassured.RestAssured.given;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@QuarkusTest
+public class TracingIT {
+
+    @Inject
+    InMemorySpans spans;
+
+    @BeforeEach
+    void reset() {
+        spans.reset();
+    }
+
+    @Test
+    public void testWarehouseCreateIsTracedFromRequestToSql() throws Exception {
+        given().contentType(ContentType.JSON)
+                .body(
+                        "{\"businessUnitCode\":\"TRC.001\",\"location\":\"EINDHOVEN-001\","
+                                + "\"capacity\":10,\"stock\":2}")
+                .when()
+                .post("warehouse")
+                .then()
+                .statusCode(200);
+
+        List<SpanData> trace = spans.await(s -> s.getKind() == SpanKind.SERVER);
+        SpanData request = find(trace, s -> s.getKind() == SpanKind.SERVER);
+        SpanData useCase = find(trace, s -> s.getName().equals("CreateWarehouse.create"));
+        SpanData location =
+                find(trace, s -> s.getName().equals("LocationGateway.resolveByIdentifier"));
+        SpanData insert =
+                find(trace, s -> s.getKind() == SpanKind.CLIENT && s.getName().contains("INSERT"));
+
+        assertEquals(request.getSpanId(), useCase.getParentSpanId());
+        assertEquals(useCase.getSpanId(), location.getParentSpanId());
+        for (SpanData span : List.of(useCase, location, insert)) {
+            assertEquals(request.getTraceId(), span.getTraceId());
+        }
+    }
+
+    @Test
+    public void testLegacyCallAfterCommitJoinsTheRequestTrace() throws Exception {
+        given().contentType(ContentType.JSON)
+                .body("{\"name\":\"TRACED\",\"quantityProductsInStock\":3}")
+                .when()
+                .post("store")
+                .then()
+                .statusCode(201);
+
+        List<SpanData> trace = spans.await(s -> s.getKind() == SpanKind.SERVER);
+        SpanData request = find(trace, s -> s.getKind() == SpanKind.SERVER);
+        SpanData legacy = find(trace, s -> s.getName().equals("legacy.store-manager.create"));
+
+        assertEquals(request.getTraceId(), legacy.getTraceId());
+        assertTrue(legacy.getStartEpochNanos() >= request.getStartEpochNanos());
+    }
+
+    private static SpanData find(List<SpanData> trace, Predicate<SpanData> matches) {
+        return trace.stream()
+                .filter(matches)
+                .findFirst()
+                .orElseThrow(() -> new AssertionError("Span not found in " + trace));
+    }
+}
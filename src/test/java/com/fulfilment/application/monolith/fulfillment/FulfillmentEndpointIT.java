@@ -5,20 +5,34 @@ import com.fulfilment.application.monolith.products.ProductRepository;
 import com.fulfilment.application.monolith.stores.Store;
 import com.fulfilment.application.monolith.warehouses.adapters.database.WarehouseRepository;
 import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
+import com.fulfilment.application.monolith.warehouses.domain.usecases.ArchiveWarehouse;
+import io.quarkus.narayana.jta.QuarkusTransaction;
 import io.quarkus.test.junit.QuarkusTest;
 import io.restassured.http.ContentType;
 import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
 import jakarta.transaction.Transactional;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.io.ByteArrayInputStream;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import static io.restassured.RestAssured.given;
 import static org.hamcrest.CoreMatchers.containsString;
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @QuarkusTest
 public class FulfillmentEndpointIT {
@@ -31,6 +45,12 @@ public class FulfillmentEndpointIT {
     WarehouseRepository warehouseRepository;
     @Inject
     ProductRepository productRepository;
+    @Inject
+    FulfillmentLimitService limitService;
+    @Inject
+    ArchiveWarehouse archiveWarehouse;
+    @Inject
+    EntityManager em;
 
     private String whA, whB, whC;
     private Long prodA, prodB, prodC;
@@ -43,6 +63,7 @@ public class FulfillmentEndpointIT {
         warehouseRepository.deleteAll();
         productRepository.deleteAll();
         Store.deleteAll();
+        List.of("MWH.001", "MWH.012", "MWH.023").forEach(limitService::removeWarehouse);
 
         whA = seedWarehouse("MWH.001", "ZWOLLE-001", 100, 10);
         whB = seedWarehouse("MWH.012", "AMSTERDAM-001", 50, 5);
@@ -246,7 +267,462 @@ public class FulfillmentEndpointIT {
 
     @Test
     public void testDeleteNonExistentAssignment() {
-        given().when().delete(BASE_PATH + "/9999").then().statusCode(404);
+        given().when()
+                .delete(BASE_PATH + "/9999")
+                .then()
+                .statusCode(404)
+                .body("errorCode", equalTo("ASSIGNMENT_NOT_FOUND"));
+    }
+
+    @Test
+    public void testParameterRejectionsCarryErrorCodes() {
+        given().when()
+                .get(BASE_PATH + "/page?limit=0")
+                .then()
+                .statusCode(422)
+                .body("errorCode", equalTo("INVALID_PAGE_LIMIT"));
+        given().when()
+                .get(BASE_PATH + "/route?storeId=" + storeA)
+                .then()
+                .statusCode(422)
+                .body("errorCode", equalTo("MISSING_ROUTE_PARAMETERS"));
+        given().contentType(ContentType.JSON)
+                .body("{\"demand\": []}")
+                .when()
+                .post(BASE_PATH + "/plan")
+                .then()
+                .statusCode(422)
+                .body("errorCode", equalTo("MISSING_DEMAND"));
+        given().contentType(ContentType.JSON)
+                .body(String.format(
+                        "{\"objective\": \"CHEAPEST\", \"demand\": [{\"storeId\": %d, "
+                                + "\"productId\": %d}]}",
+                        storeA, prodA))
+                .when()
+                .post(BASE_PATH + "/plan")
+                .then()
+                .statusCode(422)
+                .body("errorCode", equalTo("UNKNOWN_OBJECTIVE"));
+        given().contentType(ContentType.JSON)
+                .body("{\"maxProducts\": 0}")
+                .when()
+                .put(BASE_PATH + "/limits/warehouse/" + whA)
+                .then()
+                .statusCode(422)
+                .body("errorCode", equalTo("INVALID_LIMIT"));
+    }
+
+    @Test
+    public void testDeletingStoreRemovesItsAssignments() {
+        createAssignment(whA, prodA, storeA);
+        createAssignment(whB, prodB, storeA);
+        createAssignment(whA, prodA, storeB);
+
+        given().when().delete("store/" + storeA).then().statusCode(204);
+
+        given().when()
+                .get(BASE_PATH)
+                .then()
+                .statusCode(200)
+                .body("size()", is(1))
+                .body("[0].storeId", equalTo(storeB.intValue()));
+    }
+
+    @Test
+    public void testBulkDeleteByWarehouse() {
+        createAssignment(whA, prodA, storeA);
+        createAssignment(whA, prodB, storeB);
+        createAssignment(whB, prodA, storeC);
+
+        given().when()
+                .delete(BASE_PATH + "/warehouse/" + whA)
+                .then()
+                .statusCode(200)
+                .body("deleted", equalTo(2));
+
+        given().when().get(BASE_PATH + "/warehouse/" + whA).then().body("size()", is(0));
+        given().when().get(BASE_PATH).then().body("size()", is(1));
+    }
+
+    @Test
+    public void testArchivingAWarehouseDetachesItsAssignments() {
+        createAssignment(whA, prodA, storeA);
+        createAssignment(whA, prodB, storeB);
+        createAssignment(whB, prodA, storeC);
+        Long id = warehouseRepository.findByBusinessUnitCode(whA).id;
+
+        given().when().delete("warehouse/" + id).then().statusCode(204);
+
+        given().when().get(BASE_PATH + "/warehouse/" + whA).then().body("size()", is(0));
+        given().when().get(BASE_PATH).then().body("size()", is(1));
+        // an archived warehouse takes no new assignments
+        given().contentType(ContentType.JSON)
+                .body(assignment(whA, prodA, storeA))
+                .when()
+                .post(BASE_PATH)
+                .then()
+                .statusCode(404);
+    }
+
+    @Test
+    public void testBatchQueuedBehindAnArchiveIsRejected() throws Exception {
+        Long id = warehouseRepository.findByBusinessUnitCode(whA).id;
+        CountDownLatch archived = new CountDownLatch(1);
+        CountDownLatch commit = new CountDownLatch(1);
+
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        try {
+            // the archive holds the warehouse lock until it commits
+            Future<?> archive =
+                    pool.submit(
+                            () ->
+                                    QuarkusTransaction.requiringNew()
+                                            .run(
+                                                    () -> {
+                                                        archiveWarehouse.archive(id);
+                                                        archived.countDown();
+                                                        awaitUninterruptibly(commit);
+                                                    }));
+            assertTrue(archived.await(10, TimeUnit.SECONDS));
+
+            Future<Integer> batch =
+                    pool.submit(
+                            () ->
+                                    given().contentType(ContentType.JSON)
+                                            .body(
+                                                    "["
+                                                            + assignment(whA, prodA, storeA)
+                                                            + ","
+                                                            + assignment(whA, prodB, storeB)
+                                                            + "]")
+                                            .post(BASE_PATH + "/batch")
+                                            .then()
+                                            .extract()
+                                            .statusCode());
+            awaitAdvisoryLockWaiter();
+
+            commit.countDown();
+            archive.get(10, TimeUnit.SECONDS);
+            assertEquals(404, batch.get(10, TimeUnit.SECONDS));
+        } finally {
+            commit.countDown();
+            pool.shutdown();
+        }
+
+        given().when().get(BASE_PATH + "/warehouse/" + whA).then().body("size()", is(0));
+    }
+
+    @Test
+    public void testReplacingAWarehouseKeepsItsAssignments() {
+        createAssignment(whA, prodA, storeA);
+        createAssignment(whA, prodB, storeB);
+
+        given().contentType(ContentType.JSON)
+                .body(
+                        "{\"businessUnitCode\":\"" + whA + "\",\"location\":\"ZWOLLE-001\","
+                                + "\"capacity\":30,\"stock\":10}")
+                .when()
+                .post("warehouse/" + whA + "/replacement")
+                .then()
+                .statusCode(200);
+
+        given().when().get(BASE_PATH + "/warehouse/" + whA).then().body("size()", is(2));
+        given().when()
+                .get(BASE_PATH + "/route?storeId=" + storeA + "&productId=" + prodA)
+                .then()
+                .body("size()", is(1))
+                .body("[0].capacity", is(30));
+    }
+
+    @Test
+    public void testBulkDeleteByProduct() {
+        createAssignment(whA, prodA, storeA);
+        createAssignment(whB, prodA, storeB);
+        createAssignment(whB, prodB, storeB);
+
+        given().when()
+                .delete(BASE_PATH + "/product/" + prodA)
+                .then()
+                .statusCode(200)
+                .body("deleted", equalTo(2));
+
+        given().when().get(BASE_PATH + "/product/" + prodA).then().body("size()", is(0));
+    }
+
+    @Test
+    public void testBatchCreatesAllAssignments() {
+        given().contentType(ContentType.JSON)
+                .body(
+                        "["
+                                + assignment(whA, prodA, storeA)
+                                + ","
+                                + assignment(whB, prodA, storeA)
+                                + ","
+                                + assignment(whC, prodB, storeA)
+                                + "]")
+                .when()
+                .post(BASE_PATH + "/batch")
+                .then()
+                .statusCode(201)
+                .body("size()", is(3))
+                .body("[0].id", notNullValue());
+
+        given().when().get(BASE_PATH + "/store/" + storeA).then().body("size()", is(3));
+    }
+
+    @Test
+    public void testBatchCountsEarlierItemsAndRollsBackOnViolation() {
+        createAssignment(whA, prodA, storeA);
+
+        // the third warehouse for prodA at storeA is only over the limit with item 0 counted
+        given().contentType(ContentType.JSON)
+                .body(
+                        "["
+                                + assignment(whB, prodA, storeA)
+                                + ","
+                                + assignment(whC, prodA, storeA)
+                                + "]")
+                .when()
+                .post(BASE_PATH + "/batch")
+                .then()
+                .statusCode(422)
+                .body("error", containsString("Item 1"));
+
+        given().when().get(BASE_PATH + "/store/" + storeA).then().body("size()", is(1));
+    }
+
+    @Test
+    public void testBatchRejectsUnknownReferencesAndDuplicates() {
+        given().contentType(ContentType.JSON)
+                .body("[" + assignment("MWH.999", prodA, storeA) + "]")
+                .when()
+                .post(BASE_PATH + "/batch")
+                .then()
+                .statusCode(404)
+                .body("error", containsString("MWH.999"));
+
+        given().contentType(ContentType.JSON)
+                .body(
+                        "["
+                                + assignment(whA, prodA, storeA)
+                                + ","
+                                + assignment(whA, prodA, storeA)
+                                + "]")
+                .when()
+                .post(BASE_PATH + "/batch")
+                .then()
+                .statusCode(409);
+    }
+
+    @Test
+    public void testRouteRanksAssignedWarehousesByStockThenHeadroom() {
+        createAssignment(whA, prodA, storeA);
+        createAssignment(whC, prodA, storeA);
+        createAssignment(whB, prodB, storeA);
+
+        given().when()
+                .get(BASE_PATH + "/route?storeId=" + storeA + "&productId=" + prodA)
+                .then()
+                .statusCode(200)
+                .body("size()", is(2))
+                .body("[0].businessUnitCode", equalTo(whC))
+                .body("[0].headroom", equalTo(3))
+                .body("[1].businessUnitCode", equalTo(whA))
+                .body("[1].headroom", equalTo(90));
+    }
+
+    @Test
+    public void testPlanCoversDemandAndAppliesInBulk() {
+        createAssignment(whA, prodA, storeA);
+        String demand =
+                "{\"objective\": \"MIN_WAREHOUSES\", \"timeBudgetMillis\": 200, \"demand\": ["
+                        + demand(storeA, prodA)
+                        + ","
+                        + demand(storeA, prodB)
+                        + ","
+                        + demand(storeB, prodA)
+                        + ","
+                        + demand(storeC, prodC)
+                        + "]}";
+
+        given().contentType(ContentType.JSON)
+                .body(demand)
+                .when()
+                .post(BASE_PATH + "/plan")
+                .then()
+                .statusCode(200)
+                .body("assignments.size()", is(3))
+                .body("uncovered.size()", is(0))
+                .body("warehousesUsed", is(1))
+                .body("applied", is(false));
+        given().when().get(BASE_PATH).then().body("size()", is(1));
+
+        given().contentType(ContentType.JSON)
+                .body(demand)
+                .when()
+                .post(BASE_PATH + "/plan?apply=true")
+                .then()
+                .statusCode(200)
+                .body("applied", is(true));
+        given().when().get(BASE_PATH).then().body("size()", is(4));
+    }
+
+    @Test
+    public void testConcurrentCreatesNeverExceedTheLimits() throws Exception {
+        // whC is left out of the store race, so its row count below is its race alone
+        List<String> warehouses = new ArrayList<>(List.of(whA, whB));
+        List<Long> products = new ArrayList<>(List.of(prodA, prodB, prodC));
+        QuarkusTransaction.requiringNew()
+                .run(
+                        () -> {
+                            for (int i = 0; i < 6; i++) {
+                                warehouses.add(
+                                        seedWarehouse("MWH.10" + i, "ZWOLLE-001", 100, 10));
+                            }
+                            for (int i = 0; i < 5; i++) {
+                                products.add(seedProduct("PRODUCT-" + i, 1));
+                            }
+                        });
+
+        // eight writers race for one store (limit 3), then eight for one warehouse (limit 5)
+        List<Callable<Integer>> sameStore = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            String body = assignment(warehouses.get(i), products.get(i), storeA);
+            sameStore.add(() -> post(body));
+        }
+        List<Callable<Integer>> sameWarehouse = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            Long store = i % 2 == 0 ? storeB : storeC;
+            String body = assignment(whC, products.get(i), store);
+            sameWarehouse.add(() -> post(body));
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            assertEquals(3, count201(pool.invokeAll(sameStore)));
+            assertEquals(5, count201(pool.invokeAll(sameWarehouse)));
+        } finally {
+            pool.shutdown();
+        }
+
+        given().when().get(BASE_PATH + "/store/" + storeA).then().body("size()", is(3));
+        given().when().get(BASE_PATH + "/warehouse/" + whC).then().body("size()", is(5));
+    }
+
+    @Test
+    public void testPerEntityLimitOverridesApplyAtRuntime() {
+        createAssignment(whA, prodA, storeA);
+
+        given().contentType(ContentType.JSON)
+                .body("{\"maxWarehousesPerProduct\": 1}")
+                .when()
+                .put(BASE_PATH + "/limits/store/" + storeA)
+                .then()
+                .statusCode(200)
+                .body("maxWarehousesPerProduct", is(1))
+                .body("maxWarehouses", is(3));
+        given().contentType(ContentType.JSON)
+                .body(assignment(whB, prodA, storeA))
+                .when()
+                .post(BASE_PATH)
+                .then()
+                .statusCode(422);
+
+        given().contentType(ContentType.JSON)
+                .body("{\"maxProducts\": 1}")
+                .when()
+                .put(BASE_PATH + "/limits/warehouse/" + whA)
+                .then()
+                .statusCode(200);
+        given().contentType(ContentType.JSON)
+                .body(assignment(whA, prodB, storeB))
+                .when()
+                .post(BASE_PATH)
+                .then()
+                .statusCode(422)
+                .body("error", containsString("1 product types"));
+
+        given().when().delete(BASE_PATH + "/limits/warehouse/" + whA).then().statusCode(204);
+        given().when()
+                .get(BASE_PATH + "/limits/warehouse/" + whA)
+                .then()
+                .body("maxProducts", is(5));
+        createAssignment(whA, prodB, storeB);
+    }
+
+    @Test
+    public void testKeysetPagesAndNdjsonExport() {
+        createAssignment(whA, prodA, storeA);
+        createAssignment(whA, prodB, storeA);
+        createAssignment(whB, prodA, storeB);
+
+        Integer next =
+                given().when()
+                        .get(BASE_PATH + "/page?limit=2")
+                        .then()
+                        .statusCode(200)
+                        .body("items.size()", is(2))
+                        .body("nextAfterId", notNullValue())
+                        .extract()
+                        .path("nextAfterId");
+        given().when()
+                .get(BASE_PATH + "/page?limit=2&afterId=" + next)
+                .then()
+                .body("items.size()", is(1))
+                .body("items[0].storeId", equalTo(storeB.intValue()))
+                .body("nextAfterId", is((Object) null));
+        given().when()
+                .get(BASE_PATH + "/page?warehouse=" + whA)
+                .then()
+                .body("items.size()", is(2));
+
+        String export =
+                given().when()
+                        .get(BASE_PATH + "/export?storeId=" + storeA)
+                        .then()
+                        .statusCode(200)
+                        .contentType(containsString("application/x-ndjson"))
+                        .extract()
+                        .asString();
+        String[] lines = export.strip().split("\n");
+        assertEquals(2, lines.length);
+        assertTrue(lines[0].startsWith("{") && lines[0].contains(whA));
+    }
+
+    @Test
+    public void testBinaryMatrixExportRoundTrips() throws Exception {
+        createAssignment(whB, prodA, storeB);
+        createAssignment(whA, prodB, storeA);
+        createAssignment(whA, prodA, storeA);
+
+        for (boolean gzip : new boolean[] {false, true}) {
+            byte[] body =
+                    given().when()
+                            .get(BASE_PATH + "/matrix?gzip=" + gzip)
+                            .then()
+                            .statusCode(200)
+                            .contentType(containsString(FulfillmentMatrixWriter.MEDIA_TYPE))
+                            .extract()
+                            .asByteArray();
+            List<String> rows = new ArrayList<>();
+            try (FulfillmentMatrixReader reader =
+                    new FulfillmentMatrixReader(new ByteArrayInputStream(body))) {
+                while (reader.next()) {
+                    rows.add(
+                            reader.storeId()
+                                    + "/"
+                                    + reader.productId()
+                                    + "/"
+                                    + reader.warehouseBusinessUnitCode());
+                }
+            }
+            assertEquals(
+                    List.of(
+                            storeA + "/" + prodA + "/" + whA,
+                            storeA + "/" + prodB + "/" + whA,
+                            storeB + "/" + prodA + "/" + whB),
+                    rows);
+        }
     }
 
     private String seedWarehouse(String buCode, String location, int capacity, int stock) {
@@ -286,6 +762,61 @@ public class FulfillmentEndpointIT {
                 .path("id");
     }
 
+    private static int post(String body) {
+        return given().contentType(ContentType.JSON)
+                .body(body)
+                .when()
+                .post(BASE_PATH)
+                .then()
+                .extract()
+                .statusCode();
+    }
+
+    private static long count201(List<Future<Integer>> results) throws Exception {
+        long created = 0;
+        for (Future<Integer> result : results) {
+            int status = result.get();
+            assertTrue(status == 201 || status == 422, "unexpected status " + status);
+            if (status == 201) {
+                created++;
+            }
+        }
+        return created;
+    }
+
+    private static String demand(Long storeId, Long productId) {
+        return String.format("{\"storeId\": %d, \"productId\": %d}", storeId, productId);
+    }
+
+    private void awaitAdvisoryLockWaiter() throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (System.nanoTime() < deadline) {
+            long waiting = QuarkusTransaction.requiringNew().call(this::waitingAdvisoryLocks);
+            if (waiting > 0) {
+                return;
+            }
+            Thread.sleep(20);
+        }
+        throw new AssertionError("Nothing queued on an advisory lock");
+    }
+
+    private long waitingAdvisoryLocks() {
+        return ((Number)
+                        em.createNativeQuery(
+                                        "select count(*) from pg_locks"
+                                                + " where locktype = 'advisory' and not granted")
+                                .getSingleResult())
+                .longValue();
+    }
+
+    private static void awaitUninterruptibly(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
     private static String assignment(String warehouseCode, Long productId, Long storeId) {
         return String.format(
                 "{\"warehouseBusinessUnitCode\": \"%s\", \"productId\": %d, \"storeId\": %d}",
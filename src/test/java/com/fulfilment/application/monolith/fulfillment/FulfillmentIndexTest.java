@@ -0,0 +1,96 @@
+package com.fulfilment.application.monolith.fulfillment;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FulfillmentIndexTest {
+
+    @Test
+    void answersAllConstraintCounts() {
+        FulfillmentIndex index = new FulfillmentIndex();
+        index.add("MWH.001", 10L, 1L);
+        index.add("MWH.012", 10L, 1L);
+        index.add("MWH.001", 11L, 1L);
+        index.add("MWH.001", 12L, 2L);
+
+        AssignmentCheck check = index.check("MWH.001", 10L, 1L, true, true, true);
+
+        assertTrue(check.assignmentExists());
+        assertEquals(2, check.warehousesForProductAtStore());
+        assertTrue(check.warehouseFulfillsStore());
+        assertEquals(2, check.warehousesForStore());
+        assertTrue(check.warehouseStoresProduct());
+        assertEquals(3, check.productsForWarehouse());
+        assertEquals(4, index.size());
+    }
+
+    @Test
+    void unknownKeysHaveNoAssignments() {
+        FulfillmentIndex index = new FulfillmentIndex();
+        index.add("MWH.001", 10L, 1L);
+
+        AssignmentCheck check = index.check("MWH.023", 99L, 7L, true, false, true);
+
+        assertFalse(check.productExists());
+        assertFalse(check.assignmentExists());
+        assertEquals(0, check.warehousesForProductAtStore());
+        assertEquals(0, check.warehousesForStore());
+        assertEquals(0, check.productsForWarehouse());
+    }
+
+    @Test
+    void ignoresDuplicatesAndTracksRemovals() {
+        FulfillmentIndex index = new FulfillmentIndex();
+        assertTrue(index.add("MWH.001", 10L, 1L));
+        assertFalse(index.add("MWH.001", 10L, 1L));
+        index.add("MWH.001", 10L, 2L);
+
+        index.remove("MWH.001", 10L, 1L);
+
+        assertFalse(index.contains("MWH.001", 10L, 1L));
+        AssignmentCheck check = index.check("MWH.001", 10L, 1L, true, true, true);
+        assertFalse(check.warehouseFulfillsStore());
+        // still served for store 2
+        assertTrue(check.warehouseStoresProduct());
+        assertEquals(1, check.productsForWarehouse());
+    }
+
+    @Test
+    void bulkRemovalsByStoreProductAndWarehouse() {
+        FulfillmentIndex index = new FulfillmentIndex();
+        index.add("MWH.001", 10L, 1L);
+        index.add("MWH.012", 11L, 1L);
+        index.add("MWH.001", 11L, 2L);
+        index.add("MWH.012", 10L, 3L);
+
+        index.removeStore(1L);
+        assertEquals(2, index.size());
+        assertEquals(0, index.check("MWH.001", 10L, 1L, true, true, true).warehousesForStore());
+
+        index.removeProduct(11L);
+        assertEquals(1, index.size());
+        assertEquals(0, index.check("MWH.001", 11L, 2L, true, true, true).productsForWarehouse());
+
+        index.removeWarehouse("MWH.012");
+        assertEquals(0, index.size());
+    }
+
+    @Test
+    void primitiveMapSurvivesGrowthAndRemoval() {
+        LongObjectMap<String> map = new LongObjectMap<>(2);
+        for (long key = 0; key < 1_000; key++) {
+            map.put(key * 31, "v" + key);
+        }
+        for (long key = 0; key < 1_000; key += 2) {
+            map.remove(key * 31);
+        }
+
+        assertEquals(500, map.size());
+        for (long key = 0; key < 1_000; key++) {
+            assertEquals(key % 2 == 0 ? null : "v" + key, map.get(key * 31));
+        }
+    }
+}
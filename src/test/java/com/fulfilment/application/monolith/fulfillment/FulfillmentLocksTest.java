@@ -0,0 +1,34 @@
+package com.fulfilment.application.monolith.fulfillment;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FulfillmentLocksTest {
+
+    @Test
+    void keysAreSortedDistinctAndStoresComeFirst() {
+        long[] keys =
+                FulfillmentLocks.keys(
+                        List.of(7L, 3L, 7L), List.of("MWH.012", "MWH.001", "MWH.012"));
+
+        assertEquals(4, keys.length);
+        for (int i = 1; i < keys.length; i++) {
+            assertTrue(keys[i - 1] < keys[i]);
+        }
+        assertEquals(FulfillmentLocks.STORE_NAMESPACE, (int) (keys[0] >>> Integer.SIZE));
+        assertEquals(3, (int) keys[0]);
+        assertEquals(FulfillmentLocks.WAREHOUSE_NAMESPACE, (int) (keys[3] >>> Integer.SIZE));
+    }
+
+    @Test
+    void keyOrderDoesNotDependOnArgumentOrder() {
+        assertArrayEquals(
+                FulfillmentLocks.keys(List.of(1L, 2L), List.of("MWH.001", "MWH.023")),
+                FulfillmentLocks.keys(List.of(2L, 1L), List.of("MWH.023", "MWH.001")));
+    }
+}
@@ -0,0 +1,115 @@
+package com.fulfilment.application.monolith.fulfillment;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FulfillmentMatrixTest {
+
+    @Test
+    void roundTripsAcrossBlocksWithAndWithoutCompression() throws IOException {
+        int rows = FulfillmentMatrixWriter.BLOCK_ROWS * 2 + 17;
+        long[] stores = new long[rows];
+        long[] products = new long[rows];
+        String[] codes = new String[rows];
+        SplittableRandom random = new SplittableRandom(42);
+        for (int i = 0; i < rows; i++) {
+            stores[i] = i / 100;
+            products[i] = random.nextLong(1, 1_000_000);
+            // late codes only show up in later blocks, exercising incremental dictionaries
+            codes[i] = "MWH." + random.nextInt(0, 10 + i / 10_000);
+        }
+
+        for (boolean gzip : new boolean[] {false, true}) {
+            byte[] bytes = write(stores, products, codes, gzip);
+            long[] readStores = new long[rows];
+            long[] readProducts = new long[rows];
+            String[] readCodes = new String[rows];
+            int n = 0;
+            try (FulfillmentMatrixReader reader =
+                    new FulfillmentMatrixReader(new ByteArrayInputStream(bytes))) {
+                while (reader.next()) {
+                    readStores[n] = reader.storeId();
+                    readProducts[n] = reader.productId();
+                    readCodes[n++] = reader.warehouseBusinessUnitCode();
+                }
+                assertFalse(reader.next());
+            }
+            assertEquals(rows, n);
+            assertArrayEquals(stores, readStores);
+            assertArrayEquals(products, readProducts);
+            assertArrayEquals(codes, readCodes);
+        }
+    }
+
+    @Test
+    void emptyMatrixHasHeaderAndEndMarkerOnly() throws IOException {
+        byte[] bytes = write(new long[0], new long[0], new String[0], false);
+        assertEquals(6, bytes.length);
+        try (FulfillmentMatrixReader reader =
+                new FulfillmentMatrixReader(new ByteArrayInputStream(bytes))) {
+            assertFalse(reader.next());
+        }
+    }
+
+    @Test
+    void sortedRowsAreFarSmallerThanTheirJson() throws IOException {
+        int rows = 50_000;
+        long[] stores = new long[rows];
+        long[] products = new long[rows];
+        String[] codes = new String[rows];
+        StringBuilder json = new StringBuilder("[");
+        for (int i = 0; i < rows; i++) {
+            stores[i] = 1_000 + i / 500;
+            products[i] = 10_000 + (i % 500) * 3L;
+            codes[i] = "MWH." + (i % 40);
+            json.append("{\"id\":").append(i + 1)
+                    .append(",\"warehouseBusinessUnitCode\":\"").append(codes[i])
+                    .append("\",\"productId\":").append(products[i])
+                    .append(",\"storeId\":").append(stores[i])
+                    .append(",\"createdAt\":\"2024-01-01T00:00:00\"},");
+        }
+
+        byte[] bytes = write(stores, products, codes, false);
+        assertTrue(bytes.length * 10 < json.length(), bytes.length + " vs " + json.length());
+        assertTrue(write(stores, products, codes, true).length < bytes.length);
+    }
+
+    @Test
+    void rejectsForeignAndTruncatedStreams() throws IOException {
+        assertThrows(
+                IOException.class,
+                () -> new FulfillmentMatrixReader(new ByteArrayInputStream("[{}]".getBytes())));
+
+        byte[] bytes = write(new long[] {1, 2}, new long[] {3, 4}, new String[] {"A", "B"}, false);
+        byte[] truncated = Arrays.copyOf(bytes, bytes.length - 1);
+        try (FulfillmentMatrixReader reader =
+                new FulfillmentMatrixReader(new ByteArrayInputStream(truncated))) {
+            assertTrue(reader.next());
+            assertTrue(reader.next());
+            assertThrows(EOFException.class, reader::next);
+        }
+    }
+
+    private static byte[] write(long[] stores, long[] products, String[] codes, boolean gzip)
+            throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        FulfillmentMatrixWriter writer = new FulfillmentMatrixWriter(out, gzip);
+        for (int i = 0; i < stores.length; i++) {
+            writer.write(stores[i], products[i], codes[i]);
+        }
+        writer.finish();
+        return out.toByteArray();
+    }
+}
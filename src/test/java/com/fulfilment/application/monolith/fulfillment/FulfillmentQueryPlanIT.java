@@ -0,0 +1,112 @@
+package com.fulfilment.application.monolith.fulfillment;
+
+import io.quarkus.test.TestTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that the hot fulfillment and warehouse queries are planned on the indexes created by the
+ * V4 migration. Each test seeds a few thousand rows and analyzes them, so the planner picks between
+ * indexes on real statistics rather than on defaults for empty tables; everything is rolled back.
+ * Sequential scans are still disabled, as the seeded tables remain small.
+ */
+@QuarkusTest
+public class FulfillmentQueryPlanIT {
+
+    @Inject
+    EntityManager em;
+
+    @Test
+    @TestTransaction
+    public void testStoreScopedCountsUseTheStoreLeadingIndex() {
+        seed();
+        assertPlanUses(
+                "select count(distinct warehouseBusinessUnitCode) from fulfillment_assignment"
+                        + " where storeId = 1",
+                "ix_fulfillment_store_product_warehouse");
+        // equality on both columns: the product-leading index covers it just as well
+        String plan =
+                explain(
+                        "select warehouseBusinessUnitCode from fulfillment_assignment"
+                                + " where storeId = 1 and productId = 2");
+        assertTrue(plan.startsWith("Index Only Scan"), plan);
+    }
+
+    @Test
+    @TestTransaction
+    public void testAssignmentCheckCombinesStoreAndWarehouseIndexes() {
+        seed();
+        String plan =
+                explain(
+                        "select count(distinct productId) filter"
+                                + " (where warehouseBusinessUnitCode = 'MWH.001')"
+                                + " from fulfillment_assignment"
+                                + " where storeId = 1 or warehouseBusinessUnitCode = 'MWH.001'");
+        assertTrue(plan.contains("ix_fulfillment_store_product_warehouse"), plan);
+        assertTrue(plan.contains("uq_warehouse_product_store"), plan);
+    }
+
+    @Test
+    @TestTransaction
+    public void testProductScopedQueriesUseTheProductLeadingIndex() {
+        seed();
+        assertPlanUses(
+                "select storeId from fulfillment_assignment where productId = 2",
+                "ix_fulfillment_product_store");
+    }
+
+    @Test
+    @TestTransaction
+    public void testActiveWarehouseLookupsUsePartialIndexes() {
+        seed();
+        assertPlanUses(
+                "select location, capacity, stock from warehouse"
+                        + " where businessUnitCode = 'MWH.001' and archivedAt is null",
+                "ix_warehouse_active_business_unit");
+        assertPlanUses(
+                "select count(*) from warehouse"
+                        + " where location = 'ZWOLLE-001' and archivedAt is null",
+                "ix_warehouse_active_location");
+    }
+
+    private void assertPlanUses(String sql, String index) {
+        String plan = explain(sql);
+        assertTrue(plan.contains(index), plan);
+    }
+
+    @SuppressWarnings("unchecked")
+    private String explain(String sql) {
+        em.createNativeQuery("set local enable_seqscan = off").executeUpdate();
+        List<String> lines = em.createNativeQuery("explain " + sql).getResultList();
+        return String.join("\n", lines);
+    }
+
+    /**
+     * 2000 warehouses over 50 locations, one in ten archived, and 6000 distinct assignments over
+     * 300 stores and 500 products. Negative ids keep clear of the sequences.
+     */
+    private void seed() {
+        em.createNativeQuery(
+                        "insert into warehouse"
+                                + " (id, businessUnitCode, location, capacity, stock, createdAt,"
+                                + " archivedAt)"
+                                + " select -g, 'PLAN.' || g, 'LOC-' || (g % 50), 100, 10, now(),"
+                                + " case when g % 10 = 0 then now() end"
+                                + " from generate_series(1, 2000) g")
+                .executeUpdate();
+        em.createNativeQuery(
+                        "insert into fulfillment_assignment"
+                                + " (id, warehouseBusinessUnitCode, productId, storeId, createdAt)"
+                                + " select -g, 'PLAN.' || (g % 2000), g % 500, g % 300, now()"
+                                + " from generate_series(1, 6000) g")
+                .executeUpdate();
+        em.createNativeQuery("analyze warehouse").executeUpdate();
+        em.createNativeQuery("analyze fulfillment_assignment").executeUpdate();
+    }
+}
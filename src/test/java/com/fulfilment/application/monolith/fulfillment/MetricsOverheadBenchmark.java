@@ -0,0 +1,106 @@
+package com.fulfilment.application.monolith.fulfillment;
+
+import com.fulfilment.application.monolith.LatencyMetrics;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.prometheus.PrometheusConfig;
+import io.micrometer.prometheus.PrometheusMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of timing the hottest repository call, the in-memory assignment check, with a
+ * histogram-enabled Prometheus timer. {@code recordPrebuilt} is the floor for a timer held in a
+ * field; {@code recordLikeTimedInterceptor} resolves the timer by name and tags on every call, as
+ * the {@code @Timed} interceptor does.
+ *
+ * <p>Run with {@code mvn -Pbenchmark test -Dbenchmark=MetricsOverhead}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+public class MetricsOverheadBenchmark {
+
+    private static final int STORES = 1_000;
+    private static final int PRODUCTS = 200;
+    private static final int WAREHOUSES = 50;
+
+    private FulfillmentIndex index;
+    private PrometheusMeterRegistry registry;
+    private Timer timer;
+    private String[] codes;
+
+    @Setup
+    public void setUp() {
+        codes = new String[WAREHOUSES];
+        for (int i = 0; i < WAREHOUSES; i++) {
+            codes[i] = "MWH." + i;
+        }
+        index = new FulfillmentIndex();
+        SplittableRandom random = new SplittableRandom(7);
+        for (int i = 0; i < 50_000; i++) {
+            index.add(
+                    codes[random.nextInt(WAREHOUSES)],
+                    random.nextInt(PRODUCTS),
+                    random.nextInt(STORES));
+        }
+        registry = new PrometheusMeterRegistry(PrometheusConfig.DEFAULT);
+        registry.config().meterFilter(new LatencyMetrics().latencyHistograms());
+        timer = tagged(Timer.builder(LatencyMetrics.REPOSITORY_QUERIES)).register(registry);
+    }
+
+    @Benchmark
+    public AssignmentCheck uninstrumented() {
+        return check();
+    }
+
+    @Benchmark
+    public AssignmentCheck recordPrebuilt() {
+        return timer.record(this::check);
+    }
+
+    @Benchmark
+    public AssignmentCheck recordLikeTimedInterceptor() {
+        Timer.Sample sample = Timer.start(registry);
+        try {
+            return check();
+        } finally {
+            Timer resolved =
+                    tagged(Timer.builder(LatencyMetrics.REPOSITORY_QUERIES)).register(registry);
+            sample.stop(resolved);
+        }
+    }
+
+    private AssignmentCheck check() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return index.check(
+                codes[random.nextInt(WAREHOUSES)],
+                random.nextInt(PRODUCTS),
+                random.nextInt(STORES),
+                true,
+                true,
+                true);
+    }
+
+    private static Timer.Builder tagged(Timer.Builder builder) {
+        return builder.tag("class", FulfillmentRepository.class.getName())
+                .tag("method", "checkAssignment")
+                .tag("exception", "none");
+    }
+}
@@ -0,0 +1,191 @@
+package com.fulfilment.application.monolith.fulfillment;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SupplyNetworkOptimiserTest {
+
+    private static final Duration BUDGET = Duration.ofMillis(200);
+    /** Long enough that finishing quickly means the search stopped early. */
+    private static final Duration LONG_BUDGET = Duration.ofMinutes(1);
+    private static final FulfillmentLimitTable LIMITS =
+            new FulfillmentLimitTable(new FulfillmentLimits(2, 3, 5));
+    private static final ForkJoinPool POOL = new ForkJoinPool(2);
+
+    @AfterAll
+    static void shutdownPool() {
+        POOL.shutdown();
+    }
+
+    @Test
+    void coversFeasibleDemandWithinLimits() {
+        List<String> warehouses = warehouses(40);
+        List<SupplyNetworkOptimiser.Demand> demand = new ArrayList<>();
+        for (long store = 1; store <= 200; store++) {
+            for (long product = 1; product <= 4; product++) {
+                demand.add(new SupplyNetworkOptimiser.Demand(store, (store + product) % 25));
+            }
+        }
+        List<AssignmentKey> existing = List.of(new AssignmentKey("W00", 3L, 1L));
+
+        SupplyNetworkOptimiser.Solution solution =
+                new SupplyNetworkOptimiser(LIMITS, warehouses, existing, demand)
+                        .solve(SupplyNetworkOptimiser.Objective.MIN_WAREHOUSES, BUDGET, POOL);
+
+        assertTrue(solution.uncovered().isEmpty());
+        // (1, 3) is already covered by the existing assignment
+        assertEquals(demand.size() - 1, solution.assignments().size());
+        assertWithinLimits(LIMITS, existing, solution.assignments());
+    }
+
+    @Test
+    void reportsDemandThatCannotFitTheStoreLimit() {
+        // three warehouses of five products each cover at most fifteen products for one store
+        List<SupplyNetworkOptimiser.Demand> demand = new ArrayList<>();
+        for (long product = 1; product <= 17; product++) {
+            demand.add(new SupplyNetworkOptimiser.Demand(1L, product));
+        }
+
+        SupplyNetworkOptimiser.Solution solution =
+                new SupplyNetworkOptimiser(LIMITS, warehouses(10), List.of(), demand)
+                        .solve(SupplyNetworkOptimiser.Objective.MIN_WAREHOUSES, BUDGET, POOL);
+
+        assertEquals(2, solution.uncovered().size());
+        assertEquals(15, solution.assignments().size());
+        assertWithinLimits(LIMITS, List.of(), solution.assignments());
+    }
+
+    @Test
+    void minWarehousesUsesFewerWarehousesThanBalance() {
+        List<SupplyNetworkOptimiser.Demand> demand = new ArrayList<>();
+        for (long store = 1; store <= 30; store++) {
+            demand.add(new SupplyNetworkOptimiser.Demand(store, 1L));
+            demand.add(new SupplyNetworkOptimiser.Demand(store, 2L));
+        }
+        SupplyNetworkOptimiser optimiser =
+                new SupplyNetworkOptimiser(LIMITS, warehouses(20), List.of(), demand);
+
+        SupplyNetworkOptimiser.Solution compact =
+                optimiser.solve(SupplyNetworkOptimiser.Objective.MIN_WAREHOUSES, BUDGET, POOL);
+        SupplyNetworkOptimiser.Solution balanced =
+                optimiser.solve(SupplyNetworkOptimiser.Objective.BALANCE, BUDGET, POOL);
+
+        assertEquals(1, compact.warehousesUsed());
+        assertEquals(60, compact.maxWarehouseLoad());
+        assertTrue(balanced.warehousesUsed() > 1);
+        assertTrue(balanced.maxWarehouseLoad() < 10);
+        assertTrue(balanced.uncovered().isEmpty());
+    }
+
+    @Test
+    void stopsOnceAPlanReachesTheLowerBound() {
+        List<SupplyNetworkOptimiser.Demand> demand = new ArrayList<>();
+        for (long store = 1; store <= 10; store++) {
+            demand.add(new SupplyNetworkOptimiser.Demand(store, 1L));
+        }
+        SupplyNetworkOptimiser optimiser =
+                new SupplyNetworkOptimiser(LIMITS, warehouses(5), List.of(), demand);
+
+        long started = System.nanoTime();
+        SupplyNetworkOptimiser.Solution compact =
+                optimiser.solve(SupplyNetworkOptimiser.Objective.MIN_WAREHOUSES, LONG_BUDGET, POOL);
+        SupplyNetworkOptimiser.Solution balanced =
+                optimiser.solve(SupplyNetworkOptimiser.Objective.BALANCE, LONG_BUDGET, POOL);
+
+        assertTrue(Duration.ofNanos(System.nanoTime() - started).toSeconds() < 10);
+        assertEquals(1, compact.warehousesUsed());
+        assertEquals(2, balanced.maxWarehouseLoad());
+        assertEquals(2, optimiser.lowerBound(SupplyNetworkOptimiser.Objective.BALANCE));
+    }
+
+    @Test
+    void stopsWhenAttemptsStopImproving() {
+        // three warehouses of one product each cover three of the store's four products at most
+        FulfillmentLimitTable limits = new FulfillmentLimitTable(new FulfillmentLimits(2, 3, 1));
+        List<SupplyNetworkOptimiser.Demand> demand = new ArrayList<>();
+        for (long product = 1; product <= 4; product++) {
+            demand.add(new SupplyNetworkOptimiser.Demand(1L, product));
+        }
+
+        SupplyNetworkOptimiser.Solution solution =
+                new SupplyNetworkOptimiser(limits, warehouses(3), List.of(), demand)
+                        .solve(SupplyNetworkOptimiser.Objective.MIN_WAREHOUSES, LONG_BUDGET, POOL);
+
+        assertEquals(1, solution.uncovered().size());
+        assertTrue(solution.attempts() <= 2L * (SupplyNetworkOptimiser.STALL_ATTEMPTS + 1));
+    }
+
+    @Test
+    void respectsPerStoreAndPerWarehouseOverrides() {
+        FulfillmentLimitTable limits = new FulfillmentLimitTable(new FulfillmentLimits(2, 3, 5));
+        limits.putStore(1L, 1, null);
+        limits.putWarehouse("W00", 1);
+        List<SupplyNetworkOptimiser.Demand> demand = new ArrayList<>();
+        for (long product = 1; product <= 4; product++) {
+            demand.add(new SupplyNetworkOptimiser.Demand(1L, product));
+            demand.add(new SupplyNetworkOptimiser.Demand(2L, product));
+        }
+
+        SupplyNetworkOptimiser.Solution solution =
+                new SupplyNetworkOptimiser(limits, warehouses(3), List.of(), demand)
+                        .solve(SupplyNetworkOptimiser.Objective.MIN_WAREHOUSES, BUDGET, POOL);
+
+        // store 1 may use one warehouse only, and W00 holds a single product
+        assertTrue(solution.uncovered().isEmpty());
+        assertEquals(
+                1,
+                solution.assignments().stream()
+                        .filter(p -> p.storeId() == 1L)
+                        .map(SupplyNetworkOptimiser.Planned::warehouseBusinessUnitCode)
+                        .distinct()
+                        .count());
+        assertWithinLimits(limits, List.of(), solution.assignments());
+    }
+
+    private static List<String> warehouses(int count) {
+        List<String> codes = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            codes.add(String.format("W%02d", i));
+        }
+        return codes;
+    }
+
+    private static void assertWithinLimits(
+            FulfillmentLimitTable limits,
+            List<AssignmentKey> existing, List<SupplyNetworkOptimiser.Planned> planned) {
+        FulfillmentIndex index = new FulfillmentIndex();
+        existing.forEach(k -> index.add(k.warehouseBusinessUnitCode(), k.productId(), k.storeId()));
+        for (SupplyNetworkOptimiser.Planned p : planned) {
+            AssignmentCheck check =
+                    index.check(
+                            p.warehouseBusinessUnitCode(),
+                            p.productId(),
+                            p.storeId(),
+                            true,
+                            true,
+                            true);
+            assertFalse(check.assignmentExists());
+            FulfillmentLimits pair = limits.forPair(p.storeId(), p.warehouseBusinessUnitCode());
+            assertDoesNotThrow(() -> pair.enforce(toAssignment(p), check));
+            index.add(p.warehouseBusinessUnitCode(), p.productId(), p.storeId());
+        }
+    }
+
+    private static FulfillmentAssignment toAssignment(SupplyNetworkOptimiser.Planned planned) {
+        FulfillmentAssignment assignment = new FulfillmentAssignment();
+        assignment.warehouseBusinessUnitCode = planned.warehouseBusinessUnitCode();
+        assignment.productId = planned.productId();
+        assignment.storeId = planned.storeId();
+        return assignment;
+    }
+}
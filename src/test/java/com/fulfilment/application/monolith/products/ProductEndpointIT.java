@@ -7,10 +7,19 @@ import jakarta.transaction.Transactional;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+
 import static io.restassured.RestAssured.given;
 import static org.hamcrest.CoreMatchers.containsString;
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.Matchers.hasKey;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @QuarkusTest
 public class ProductEndpointIT {
@@ -82,6 +91,139 @@ public class ProductEndpointIT {
         given().when().delete(PATH + "/99999").then().statusCode(404);
     }
 
+    @Test
+    public void testSearchRanksClosestNameFirst() {
+        createProduct("BESTÅ");
+        createProduct("BESTÅ BURS");
+        createProduct("KALLAX");
+
+        given().when()
+                .get(PATH + "/search?q=besta")
+                .then()
+                .statusCode(200)
+                .body("size()", equalTo(2))
+                .body("[0].name", equalTo("BESTÅ"))
+                .body("[1].name", equalTo("BESTÅ BURS"));
+    }
+
+    @Test
+    public void testKeysetPagesWithSparseFields() {
+        int first = createProduct("MALM");
+        int second = createProduct("HEMNES");
+        int third = createProduct("BILLY");
+
+        given().when()
+                .get(PATH + "/page?limit=2&fields=name,stock")
+                .then()
+                .statusCode(200)
+                .body("items.size()", equalTo(2))
+                .body("items[0].id", equalTo(first))
+                .body("items[0].name", equalTo("MALM"))
+                .body("items[0].stock", equalTo(10))
+                .body("items[0]", not(hasKey("price")))
+                .body("nextAfterId", equalTo(second));
+
+        given().when()
+                .get(PATH + "/page?limit=2&afterId=" + second)
+                .then()
+                .statusCode(200)
+                .body("items.size()", equalTo(1))
+                .body("items[0].id", equalTo(third))
+                .body("nextAfterId", nullValue());
+    }
+
+    @Test
+    public void testPageRejectsUnknownField() {
+        given().when().get(PATH + "/page?fields=id,secret").then().statusCode(422);
+    }
+
+    @Test
+    public void testFullTextSearchCoversDescriptions() {
+        int id =
+                given().contentType(ContentType.JSON)
+                        .body("{\"name\": \"POÄNG\", \"description\": \"Rocking armchair\"}")
+                        .when()
+                        .post(PATH)
+                        .then()
+                        .statusCode(201)
+                        .extract()
+                        .path("id");
+
+        given().when()
+                .get(PATH + "/fulltext?q=rock*")
+                .then()
+                .statusCode(200)
+                .body("[0].id", equalTo(id))
+                .body("[0].name", equalTo("POÄNG"));
+
+        given().when().delete(PATH + "/" + id).then().statusCode(204);
+        given().when()
+                .get(PATH + "/fulltext?q=armchair")
+                .then()
+                .statusCode(200)
+                .body("size()", equalTo(0));
+    }
+
+    @Test
+    public void testBulkUpsertReportsPerRowOutcomes() {
+        int existing = createProduct("MALM");
+
+        given().contentType(ContentType.JSON)
+                .body(
+                        "[{\"name\": \"MALM\", \"stock\": 3},"
+                                + " {\"name\": \"HEMNES\", \"stock\": 1},"
+                                + " {\"name\": \"HEMNES\", \"stock\": 7},"
+                                + " {\"name\": \"BILLY\", \"stock\": -1}]")
+                .when()
+                .post(PATH + "/bulk")
+                .then()
+                .statusCode(200)
+                .body("created", equalTo(1))
+                .body("updated", equalTo(1))
+                .body("duplicates", equalTo(1))
+                .body("rejected", equalTo(1))
+                .body("rows[0].outcome", equalTo("UPDATED"))
+                .body("rows[0].id", equalTo(existing))
+                .body("rows[1].outcome", equalTo("DUPLICATE"))
+                .body("rows[2].outcome", equalTo("CREATED"))
+                .body("rows[3].outcome", equalTo("REJECTED"));
+
+        given().when().get(PATH + "/" + existing).then().statusCode(200).body("stock", equalTo(3));
+        given().when()
+                .get(PATH + "/search?q=HEMNES")
+                .then()
+                .statusCode(200)
+                .body("[0].name", equalTo("HEMNES"));
+    }
+
+    @Test
+    public void testBulkUpsertDrawsIdsInBlocks() {
+        // Hibernate now holds a partly used block that the upsert must not hand out again
+        int before = createProduct("BEFORE");
+        StringBuilder body = new StringBuilder("[");
+        int count = ProductBulkUpserter.ID_BLOCK + 10;
+        for (int i = 0; i < count; i++) {
+            body.append(i == 0 ? "" : ",").append("{\"name\": \"BULK-").append(i).append("\"}");
+        }
+        List<Integer> ids =
+                given().contentType(ContentType.JSON)
+                        .body(body.append("]").toString())
+                        .when()
+                        .post(PATH + "/bulk")
+                        .then()
+                        .statusCode(200)
+                        .body("created", equalTo(count))
+                        .extract()
+                        .path("rows.id");
+        int single = createProduct("SINGLE");
+
+        // two blocks of ids, not one block burnt per row
+        assertEquals(count, new HashSet<>(ids).size());
+        assertTrue(Collections.max(ids) - Collections.min(ids) < 2 * ProductBulkUpserter.ID_BLOCK);
+        assertFalse(ids.contains(before));
+        assertFalse(ids.contains(single));
+    }
+
     private int createProduct(String name) {
         return given().contentType(ContentType.JSON)
                 .body("{\"name\": \"" + name + "\", \"stock\": 10}")
@@ -0,0 +1,140 @@
+package com.fulfilment.application.monolith.products;
+
+import jakarta.ws.rs.WebApplicationException;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StockLedgerTest {
+
+    private static final Instant LATER = Instant.now().plusSeconds(600);
+
+    @Test
+    void reserveAndReleaseMoveAvailableStock() {
+        StockLedger ledger = new StockLedger();
+        ledger.setStock(1L, 10);
+
+        StockReservation reservation = ledger.reserve(1L, 4, LATER);
+        assertEquals(6, ledger.available(1L));
+
+        ledger.release(reservation.id);
+        assertEquals(10, ledger.available(1L));
+        assertEquals(StockReservation.State.RELEASED, reservation.getState());
+    }
+
+    @Test
+    void rejectsReservationBeyondAvailableStock() {
+        StockLedger ledger = new StockLedger();
+        ledger.setStock(1L, 3);
+
+        WebApplicationException e =
+                assertThrows(WebApplicationException.class, () -> ledger.reserve(1L, 4, LATER));
+        assertEquals(409, e.getResponse().getStatus());
+    }
+
+    @Test
+    void unknownProductIsNotFound() {
+        StockLedger ledger = new StockLedger();
+
+        WebApplicationException e =
+                assertThrows(WebApplicationException.class, () -> ledger.reserve(9L, 1, LATER));
+        assertEquals(404, e.getResponse().getStatus());
+    }
+
+    @Test
+    void confirmedQuantityStaysReservedUntilWrittenAndSurvivesStockUpdates() {
+        StockLedger ledger = new StockLedger();
+        ledger.setStock(1L, 10);
+
+        StockReservation reservation = ledger.reserve(1L, 4, LATER);
+        ledger.confirm(reservation.id);
+        assertEquals(6, ledger.available(1L));
+        assertThrows(WebApplicationException.class, () -> ledger.release(reservation.id));
+
+        // product row now reads 10 - 4
+        ledger.confirmedWritten(1L, 4);
+        assertEquals(6, ledger.available(1L));
+
+        // a PUT of the product replaces the stock; nothing is reserved any more
+        ledger.setStock(1L, 20);
+        assertEquals(20, ledger.available(1L));
+    }
+
+    @Test
+    void expiresOnlyReservationsPastTheirTtl() {
+        StockLedger ledger = new StockLedger();
+        ledger.setStock(1L, 10);
+        Instant now = Instant.now();
+
+        StockReservation stale = ledger.reserve(1L, 2, now.minusSeconds(1));
+        ledger.reserve(1L, 3, now.plusSeconds(60));
+
+        List<StockReservation> expired = ledger.expire(now);
+
+        assertEquals(List.of(stale), expired);
+        assertEquals(StockReservation.State.EXPIRED, stale.getState());
+        assertEquals(7, ledger.available(1L));
+    }
+
+    @Test
+    void restoredReservationsHoldStockAgain() {
+        StockLedger ledger = new StockLedger();
+        ledger.setStock(1L, 10);
+
+        StockReservation reservation =
+                new StockReservation(UUID.randomUUID(), 1L, 4, LATER);
+        ledger.restore(reservation);
+
+        assertEquals(6, ledger.available(1L));
+        ledger.confirm(reservation.id);
+        assertEquals(6, ledger.available(1L));
+    }
+
+    @Test
+    void hotProductNeverOversellsUnderContention() throws Exception {
+        StockLedger ledger = new StockLedger();
+        ledger.setStock(1L, 1_000);
+        int threads = 16;
+        int attemptsPerThread = 500;
+        AtomicInteger granted = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+
+        for (int t = 0; t < threads; t++) {
+            pool.submit(
+                    () -> {
+                        start.await();
+                        for (int i = 0; i < attemptsPerThread; i++) {
+                            try {
+                                StockReservation r = ledger.reserve(1L, 1, LATER);
+                                granted.incrementAndGet();
+                                if (i % 2 == 0) {
+                                    ledger.release(r.id);
+                                    granted.decrementAndGet();
+                                }
+                            } catch (WebApplicationException e) {
+                                // sold out
+                            }
+                        }
+                        return null;
+                    });
+        }
+        start.countDown();
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(30, TimeUnit.SECONDS));
+
+        assertEquals(1_000, granted.get());
+        assertEquals(0, ledger.available(1L));
+    }
+}
@@ -0,0 +1,108 @@
+package com.fulfilment.application.monolith.products;
+
+import io.quarkus.test.junit.QuarkusTest;
+import io.restassured.http.ContentType;
+import jakarta.inject.Inject;
+import jakarta.transaction.Transactional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.CoreMatchers.equalTo;
+
+@QuarkusTest
+public class StockReservationIT {
+
+    private static final String PATH = "product/reservations";
+
+    @Inject
+    ProductRepository productRepository;
+    @Inject
+    StockReservationService stockReservationService;
+
+    @BeforeEach
+    @Transactional
+    void cleanUp() {
+        productRepository.deleteAll();
+    }
+
+    @Test
+    public void testReserveConfirmDecrementsStock() {
+        int productId = createProduct("RESERVE-CONFIRM", 10);
+
+        String id = reserve(productId, 4);
+        assertAvailable(productId, 6);
+
+        given().when()
+                .post(PATH + "/" + id + "/confirm")
+                .then()
+                .statusCode(200)
+                .body("state", equalTo("CONFIRMED"));
+        stockReservationService.flush();
+
+        given().when().get("product/" + productId).then().body("stock", equalTo(6));
+        assertAvailable(productId, 6);
+    }
+
+    @Test
+    public void testReleaseReturnsStock() {
+        int productId = createProduct("RESERVE-RELEASE", 5);
+
+        String id = reserve(productId, 5);
+        given().contentType(ContentType.JSON)
+                .body("{\"productId\": " + productId + ", \"quantity\": 1}")
+                .when()
+                .post(PATH)
+                .then()
+                .statusCode(409);
+
+        given().when()
+                .delete(PATH + "/" + id)
+                .then()
+                .statusCode(200)
+                .body("state", equalTo("RELEASED"));
+        assertAvailable(productId, 5);
+        given().when().delete(PATH + "/" + id).then().statusCode(404);
+    }
+
+    @Test
+    public void testUnknownProductIsNotFound() {
+        given().contentType(ContentType.JSON)
+                .body("{\"productId\": -1, \"quantity\": 1}")
+                .when()
+                .post(PATH)
+                .then()
+                .statusCode(404);
+    }
+
+    private void assertAvailable(int productId, int available) {
+        given().when()
+                .get(PATH + "/availability/" + productId)
+                .then()
+                .statusCode(200)
+                .body("available", equalTo(available));
+    }
+
+    private String reserve(int productId, int quantity) {
+        return given().contentType(ContentType.JSON)
+                .body("{\"productId\": " + productId + ", \"quantity\": " + quantity + "}")
+                .when()
+                .post(PATH)
+                .then()
+                .statusCode(201)
+                .body("state", equalTo("RESERVED"))
+                .extract()
+                .path("id");
+    }
+
+    private int createProduct(String name, int stock) {
+        return given().contentType(ContentType.JSON)
+                .body("{\"name\": \"" + name + "\", \"stock\": " + stock + "}")
+                .when()
+                .post("product")
+                .then()
+                .statusCode(201)
+                .extract()
+                .path("id");
+    }
+}
@@ -0,0 +1,71 @@
+package com.fulfilment.application.monolith.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FullTextIndexTest {
+
+    @Test
+    void tokenizesCaseAndAccentInsensitively() {
+        assertEquals(
+                List.of("besta", "burs", "tv", "bench", "120cm"),
+                FullTextIndex.tokenize("BESTÅ BURS: TV-bench, 120cm"));
+    }
+
+    @Test
+    void ranksTitleMatchesAboveBodyMatches() {
+        FullTextIndex index = new FullTextIndex();
+        index.put(1L, "KALLAX", "Shelving unit, works well with a desk");
+        index.put(2L, "MALM desk", "White desk with drawer");
+        index.put(3L, "BILLY", "Bookcase");
+
+        List<NameMatch> matches = index.search("desk", 10);
+
+        assertEquals(List.of(2L, 1L), matches.stream().map(NameMatch::id).toList());
+        assertEquals("MALM desk", matches.get(0).name());
+        assertTrue(matches.get(0).score() > matches.get(1).score());
+    }
+
+    @Test
+    void expandsPrefixQueries() {
+        FullTextIndex index = new FullTextIndex();
+        index.put(1L, "HEMNES", "Bookcase");
+        index.put(2L, "BILLY", "Bookshelf");
+        index.put(3L, "MALM", "Bed frame");
+
+        assertEquals(2, index.search("book*", 10).size());
+        assertEquals(0, index.search("book", 10).size());
+    }
+
+    @Test
+    void updatesAndRemovalsAreReflected() {
+        FullTextIndex index = new FullTextIndex();
+        index.put(1L, "LACK", "Side table");
+        index.put(1L, "LACK", "Wall shelf");
+
+        assertEquals(0, index.search("table", 10).size());
+        assertEquals(1, index.search("shelf", 10).size());
+
+        index.remove(1L);
+        assertEquals(0, index.search("shelf", 10).size());
+        assertEquals(0, index.size());
+    }
+
+    @Test
+    void returnsOnlyTheBestLimitMatches() {
+        FullTextIndex index = new FullTextIndex();
+        for (long id = 1; id <= 100; id++) {
+            index.put(id, "CHAIR " + id, id % 10 == 0 ? "chair chair" : "seat");
+        }
+
+        List<NameMatch> matches = index.search("chair", 5);
+
+        assertEquals(5, matches.size());
+        assertEquals(
+                List.of(10L, 20L, 30L, 40L, 50L), matches.stream().map(NameMatch::id).toList());
+    }
+}
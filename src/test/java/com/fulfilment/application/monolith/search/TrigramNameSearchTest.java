@@ -0,0 +1,14 @@
+package com.fulfilment.application.monolith.search;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class TrigramNameSearchTest {
+
+    @Test
+    void escapesLikeWildcards() {
+        assertEquals("50\\% off\\_sale\\\\", TrigramNameSearch.escapeLike("50% off_sale\\"));
+        assertEquals("KALLAX", TrigramNameSearch.escapeLike("KALLAX"));
+    }
+}
@@ -0,0 +1,95 @@
+package com.fulfilment.application.monolith.snapshot;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class OffHeapSnapshotTest {
+
+    @Test
+    void servesDocumentsById() {
+        OffHeapSnapshot snapshot =
+                OffHeapSnapshot.EMPTY.apply(Map.of(3L, json("c"), 1L, json("a"), 2L, json("b")));
+
+        assertEquals(1, snapshot.version());
+        assertEquals(3, snapshot.size());
+        assertEquals("{\"v\":\"a\"}", text(snapshot.get(1L)));
+        assertEquals("{\"v\":\"c\"}", text(snapshot.get(3L)));
+        assertNull(snapshot.get(4L));
+    }
+
+    @Test
+    void appliesChangesIncrementallyWithoutTouchingThePreviousVersion() {
+        OffHeapSnapshot first =
+                OffHeapSnapshot.EMPTY.apply(Map.of(1L, json("a"), 2L, json("b"), 5L, json("e")));
+
+        Map<Long, byte[]> changes = new HashMap<>();
+        changes.put(2L, json("b-updated"));
+        changes.put(5L, null);
+        changes.put(4L, json("d"));
+        OffHeapSnapshot second = first.apply(changes);
+
+        assertEquals(2, second.version());
+        assertEquals(3, second.size());
+        assertEquals("{\"v\":\"a\"}", text(second.get(1L)));
+        assertEquals("{\"v\":\"b-updated\"}", text(second.get(2L)));
+        assertEquals("{\"v\":\"d\"}", text(second.get(4L)));
+        assertNull(second.get(5L));
+
+        assertEquals("{\"v\":\"b\"}", text(first.get(2L)));
+        assertEquals("{\"v\":\"e\"}", text(first.get(5L)));
+    }
+
+    @Test
+    void removingUnknownIdsIsHarmless() {
+        Map<Long, byte[]> changes = new HashMap<>();
+        changes.put(9L, null);
+
+        OffHeapSnapshot snapshot = OffHeapSnapshot.EMPTY.apply(changes);
+
+        assertEquals(0, snapshot.size());
+        assertEquals(0, snapshot.sizeInBytes());
+    }
+
+    @Test
+    void rewritesOnlyTheSegmentsHoldingChangedIds() {
+        long far = 5L * OffHeapSnapshot.SEGMENT_IDS;
+        OffHeapSnapshot first = OffHeapSnapshot.EMPTY.apply(Map.of(1L, json("a"), far, json("f")));
+        assertEquals(2, first.segmentCount());
+
+        OffHeapSnapshot second = first.apply(Map.of(2L, json("b")));
+
+        assertEquals(2, second.segmentCount());
+        assertEquals(3, second.size());
+        assertEquals("{\"v\":\"a\"}", text(second.get(1L)));
+        assertEquals("{\"v\":\"b\"}", text(second.get(2L)));
+        assertEquals("{\"v\":\"f\"}", text(second.get(far)));
+    }
+
+    @Test
+    void dropsSegmentsLeftEmpty() {
+        long far = 5L * OffHeapSnapshot.SEGMENT_IDS;
+        OffHeapSnapshot first = OffHeapSnapshot.EMPTY.apply(Map.of(-1L, json("n"), far, json("f")));
+
+        Map<Long, byte[]> changes = new HashMap<>();
+        changes.put(far, null);
+        OffHeapSnapshot second = first.apply(changes);
+
+        assertEquals(1, second.segmentCount());
+        assertEquals("{\"v\":\"n\"}", text(second.get(-1L)));
+        assertNull(second.get(far));
+    }
+
+    private static byte[] json(String value) {
+        return ("{\"v\":\"" + value + "\"}").getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String text(byte[] bytes) {
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,67 @@
+package com.fulfilment.application.monolith.stores;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HttpLegacyStoreTransportTest {
+
+    private static final LegacyStoreStubServer STUB = new LegacyStoreStubServer();
+
+    private HttpLegacyStoreTransport transport;
+
+    @BeforeAll
+    static void startStub() throws Exception {
+        STUB.start();
+    }
+
+    @AfterAll
+    static void stopStub() {
+        STUB.stop();
+    }
+
+    @BeforeEach
+    void setUp() {
+        STUB.reset();
+        transport =
+                new HttpLegacyStoreTransport(
+                        STUB.uri(), Duration.ofSeconds(1), Duration.ofMillis(300));
+    }
+
+    @Test
+    void deliversPayload() {
+        assertDoesNotThrow(() -> transport.send("Malmö Central", "Store created."));
+        assertTrue(STUB.references.contains("Malmö Central"));
+    }
+
+    @Test
+    void reusesConnectionAcrossCalls() {
+        for (int i = 0; i < 5; i++) {
+            transport.send("store-" + i, "payload");
+        }
+        for (int i = 0; i < 5; i++) {
+            assertTrue(STUB.references.contains("store-" + i));
+        }
+    }
+
+    @Test
+    void failsOnErrorStatus() {
+        STUB.responseStatus = 503;
+
+        assertThrows(LegacyStoreTransportException.class, () -> transport.send("s", "payload"));
+    }
+
+    @Test
+    void failsWhenLegacySystemStalls() {
+        STUB.responseDelayMillis = 2_000;
+
+        assertThrows(LegacyStoreTransportException.class, () -> transport.send("s", "payload"));
+    }
+}
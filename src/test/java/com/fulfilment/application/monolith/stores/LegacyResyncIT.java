@@ -0,0 +1,114 @@
+package com.fulfilment.application.monolith.stores;
+
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.common.WithTestResource;
+import io.quarkus.test.junit.QuarkusTest;
+import io.smallrye.faulttolerance.api.CircuitBreakerMaintenance;
+import jakarta.inject.Inject;
+import jakarta.transaction.Transactional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@QuarkusTest
+@WithTestResource(LegacyStoreStubResource.class)
+public class LegacyResyncIT {
+
+    private static final String PATH = "admin/legacy-resync";
+    private static final LegacyStoreStubServer STUB = LegacyStoreStubResource.STUB;
+
+    @Inject
+    CircuitBreakerMaintenance circuitBreakerMaintenance;
+
+    @BeforeEach
+    @Transactional
+    void setUp() {
+        STUB.reset();
+        circuitBreakerMaintenance.resetAll();
+        Store.getEntityManager()
+                .createQuery("delete from LegacyResyncCheckpoint")
+                .executeUpdate();
+        Store.deleteAll();
+        for (int i = 0; i < 25; i++) {
+            Store store = new Store("Resync " + i);
+            store.quantityProductsInStock = i;
+            store.persist();
+        }
+    }
+
+    @Test
+    public void testFullResyncCompletesAndRecordsCheckpoint() throws Exception {
+        given().when().post(PATH).then().statusCode(202).body("total", equalTo(25));
+
+        awaitState("COMPLETED");
+
+        given().when()
+                .get(PATH)
+                .then()
+                .statusCode(200)
+                .body("processed", equalTo(25))
+                .body("failed", equalTo(0));
+    }
+
+    @Test
+    public void testResumeOnlyPushesStoresAfterCheckpoint() throws Exception {
+        given().when().post(PATH).then().statusCode(202);
+        awaitState("COMPLETED");
+
+        QuarkusTransaction.requiringNew().run(() -> new Store("Resync late").persist());
+
+        given().when()
+                .post(PATH + "?resume=true")
+                .then()
+                .statusCode(202)
+                .body("total", equalTo(1));
+        awaitState("COMPLETED");
+    }
+
+    @Test
+    public void testFailedStoreStopsTheRunAndIsRetriedOnResume() throws Exception {
+        STUB.failingReference = "Resync 7";
+
+        given().when().post(PATH).then().statusCode(202).body("total", equalTo(25));
+        awaitState("FAILED");
+
+        long beforeFailure =
+                QuarkusTransaction.requiringNew()
+                        .call(() -> Store.<Store>find("name", "Resync 6").firstResult().id);
+        given().when()
+                .get(PATH)
+                .then()
+                .statusCode(200)
+                .body("failed", equalTo(1))
+                .body("lastStoreId", equalTo((int) beforeFailure));
+
+        STUB.failingReference = null;
+        STUB.references.clear();
+        given().when()
+                .post(PATH + "?resume=true")
+                .then()
+                .statusCode(202)
+                .body("total", equalTo(18));
+        awaitState("COMPLETED");
+        assertTrue(STUB.references.contains("Resync 7"));
+    }
+
+    private void awaitState(String expected) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(20).toNanos();
+        String state = null;
+        while (System.nanoTime() < deadline) {
+            state = given().when().get(PATH).then().statusCode(200).extract().path("state");
+            if (expected.equals(state)) {
+                return;
+            }
+            Thread.sleep(100);
+        }
+        assertEquals(expected, state);
+    }
+}
@@ -0,0 +1,31 @@
+package com.fulfilment.application.monolith.stores;
+
+import io.quarkus.test.common.QuarkusTestResourceLifecycleManager;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Map;
+
+/** Starts the legacy stub and points the HTTP transport at it. */
+public class LegacyStoreStubResource implements QuarkusTestResourceLifecycleManager {
+
+    static final LegacyStoreStubServer STUB = new LegacyStoreStubServer();
+
+    @Override
+    public Map<String, String> start() {
+        try {
+            STUB.start();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return Map.of(
+                "legacy.store-manager.transport", "http",
+                "legacy.store-manager.http.url", STUB.uri().toString(),
+                "legacy.store-manager.http.request-timeout", "500ms");
+    }
+
+    @Override
+    public void stop() {
+        STUB.stop();
+    }
+}
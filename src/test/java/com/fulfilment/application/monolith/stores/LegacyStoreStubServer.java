@@ -0,0 +1,77 @@
+package com.fulfilment.application.monolith.stores;
+
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/** Minimal local stand-in for the remote legacy store manager. */
+class LegacyStoreStubServer {
+
+    static final String PATH = "/legacy/stores";
+
+    final AtomicInteger received = new AtomicInteger();
+    final Queue<String> references = new ConcurrentLinkedQueue<>();
+
+    volatile int responseStatus = 204;
+    /** Reference answered with 500 whatever {@link #responseStatus} says. */
+    volatile String failingReference;
+    volatile long responseDelayMillis;
+
+    private HttpServer server;
+
+    void start() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext(
+                PATH,
+                exchange -> {
+                    try (InputStream body = exchange.getRequestBody()) {
+                        body.readAllBytes();
+                    }
+                    String reference =
+                            URLDecoder.decode(
+                                    exchange.getRequestHeaders().getFirst("X-Legacy-Reference"),
+                                    StandardCharsets.UTF_8);
+                    references.add(reference);
+                    received.incrementAndGet();
+                    if (responseDelayMillis > 0) {
+                        try {
+                            Thread.sleep(responseDelayMillis);
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                    }
+                    exchange.sendResponseHeaders(
+                            reference.equals(failingReference) ? 500 : responseStatus, -1);
+                    exchange.close();
+                });
+        server.start();
+    }
+
+    void stop() {
+        if (server != null) {
+            server.stop(0);
+        }
+    }
+
+    void reset() {
+        received.set(0);
+        references.clear();
+        responseStatus = 204;
+        failingReference = null;
+        responseDelayMillis = 0;
+    }
+
+    URI uri() {
+        return URI.create("http://localhost:" + server.getAddress().getPort() + PATH);
+    }
+}
@@ -0,0 +1,82 @@
+package com.fulfilment.application.monolith.stores;
+
+import io.quarkus.test.common.WithTestResource;
+import io.quarkus.test.junit.QuarkusTest;
+import io.restassured.http.ContentType;
+import jakarta.inject.Inject;
+import jakarta.transaction.Transactional;
+import org.eclipse.microprofile.faulttolerance.exceptions.CircuitBreakerOpenException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@QuarkusTest
+@WithTestResource(LegacyStoreStubResource.class)
+public class LegacyStoreTransportIT {
+
+    private static final LegacyStoreStubServer STUB = LegacyStoreStubResource.STUB;
+
+    @Inject
+    LegacyStoreManagerGateway gateway;
+
+    @BeforeEach
+    @Transactional
+    void setUp() {
+        Store.deleteAll();
+        STUB.reset();
+    }
+
+    @Test
+    public void testStoreCreationReachesLegacySystemAfterCommit() throws Exception {
+        given().contentType(ContentType.JSON)
+                .body("{\"name\": \"Helsingborg\", \"quantityProductsInStock\": 3}")
+                .when()
+                .post("store")
+                .then()
+                .statusCode(201);
+
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (!STUB.references.contains("Helsingborg") && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+        }
+        assertTrue(STUB.references.contains("Helsingborg"));
+    }
+
+    @Test
+    public void testCircuitOpensWhileLegacySystemFails() {
+        STUB.responseStatus = 500;
+        Store store = new Store("Breaker");
+
+        boolean opened = false;
+        for (int i = 0; i < 40 && !opened; i++) {
+            try {
+                gateway.updateStoreOnLegacySystem(store);
+            } catch (CircuitBreakerOpenException e) {
+                opened = true;
+            } catch (LegacyStoreTransportException e) {
+                // counted as a failure by the breaker
+            }
+        }
+        assertTrue(opened, "circuit breaker did not open");
+
+        int callsBefore = STUB.received.get();
+        assertThrows(
+                CircuitBreakerOpenException.class, () -> gateway.updateStoreOnLegacySystem(store));
+        assertEquals(callsBefore, STUB.received.get());
+
+        given().when()
+                .get("/q/metrics")
+                .then()
+                .statusCode(200)
+                .body(
+                        containsString("legacy_gateway_circuit_state"),
+                        containsString("legacy_gateway_calls_seconds_bucket"));
+    }
+}
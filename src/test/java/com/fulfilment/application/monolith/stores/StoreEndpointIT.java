@@ -1,15 +1,22 @@
 package com.fulfilment.application.monolith.stores;
 
 import io.quarkus.test.junit.QuarkusTest;
+import io.restassured.RestAssured;
 import io.restassured.http.ContentType;
 import jakarta.transaction.Transactional;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+
 import static io.restassured.RestAssured.given;
 import static org.hamcrest.CoreMatchers.containsString;
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.CoreMatchers.not;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @QuarkusTest
 public class StoreEndpointIT {
@@ -97,6 +104,123 @@ public class StoreEndpointIT {
         given().when().delete(PATH + "/88888").then().statusCode(404);
     }
 
+    @Test
+    public void testImportCsv() {
+        given().contentType("text/csv")
+                .body("name,quantityProductsInStock\nHAGA,4\nSOLNA,\n,3\nHAGA,9\n")
+                .when()
+                .post(PATH + "/import")
+                .then()
+                .statusCode(200)
+                .body("imported", equalTo(2))
+                .body("rejected", equalTo(2));
+
+        given().when()
+                .get(PATH)
+                .then()
+                .statusCode(200)
+                .body(containsString("HAGA"), containsString("SOLNA"));
+    }
+
+    @Test
+    public void testImportNdjsonSkipsExistingNames() {
+        createStore("Lund", 1);
+
+        given().contentType("application/x-ndjson")
+                .body(
+                        ("{\"name\": \"Lund\"}\n"
+                                        + "{\"name\": \"Kalmar\", "
+                                        + "\"quantityProductsInStock\": 8}\n")
+                                .getBytes(StandardCharsets.UTF_8))
+                .when()
+                .post(PATH + "/import")
+                .then()
+                .statusCode(200)
+                .body("imported", equalTo(1))
+                .body("rejected", equalTo(1))
+                .body("errors[0].line", equalTo(1));
+    }
+
+    @Test
+    public void testOnlyImportAcceptsBodiesOverTheGlobalLimit() {
+        // 12 MB, over the 10 MB quarkus.http.limits.max-body-size default
+        String padding = "\n".repeat(12 * 1024 * 1024);
+
+        given().contentType("text/csv")
+                .body(("name,quantityProductsInStock\n" + padding + "VÄSTERÅS,2\n")
+                        .getBytes(StandardCharsets.UTF_8))
+                .when()
+                .post(PATH + "/import")
+                .then()
+                .statusCode(200)
+                .body("imported", equalTo(1));
+
+        // announced up front, so the server can refuse before the body is sent
+        given().contentType(ContentType.JSON)
+                .header("Expect", "100-continue")
+                .body("{\"name\": \"Borås\"}" + padding)
+                .when()
+                .post(PATH)
+                .then()
+                .statusCode(413);
+    }
+
+    @Test
+    public void testImportRejectsUnsupportedMediaType() {
+        given().contentType(ContentType.JSON)
+                .body("[]")
+                .when()
+                .post(PATH + "/import")
+                .then()
+                .statusCode(415)
+                .body("code", equalTo(415));
+    }
+
+    @Test
+    public void testImportRejectsMalformedContentLength() throws IOException {
+        try (Socket socket = new Socket("localhost", RestAssured.port)) {
+            OutputStream out = socket.getOutputStream();
+            out.write(
+                    ("POST /" + PATH + "/import HTTP/1.1\r\n"
+                                    + "Host: localhost\r\n"
+                                    + "Content-Type: text/csv\r\n"
+                                    + "Content-Length: ten\r\n"
+                                    + "Connection: close\r\n\r\n")
+                            .getBytes(StandardCharsets.US_ASCII));
+            out.flush();
+            String response =
+                    new String(socket.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+            assertTrue(response.startsWith("HTTP/1.1 400"), response);
+        }
+    }
+
+    @Test
+    public void testSearchIsFuzzyAndAccentInsensitive() {
+        createStore("BESTÅ", 3);
+        createStore("KALLAX", 5);
+        createStore("TONSTAD", 10);
+
+        given().when()
+                .get(PATH + "/search?q=besta")
+                .then()
+                .statusCode(200)
+                .body("size()", equalTo(1))
+                .body("[0].name", equalTo("BESTÅ"));
+
+        given().when()
+                .get(PATH + "/search?q=KALAX&limit=1")
+                .then()
+                .statusCode(200)
+                .body("size()", equalTo(1))
+                .body("[0].name", equalTo("KALLAX"));
+    }
+
+    @Test
+    public void testSearchRequiresQuery() {
+        given().when().get(PATH + "/search").then().statusCode(422);
+        given().when().get(PATH + "/search?q=x&limit=0").then().statusCode(422);
+    }
+
     private int createStore(String name, int stock) {
         return given().contentType(ContentType.JSON)
                 .body("{\"name\": \"" + name + "\", \"quantityProductsInStock\": " + stock + "}")
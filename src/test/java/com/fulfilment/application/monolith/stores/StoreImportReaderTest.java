@@ -0,0 +1,102 @@
+package com.fulfilment.application.monolith.stores;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.ws.rs.WebApplicationException;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.StringReader;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StoreImportReaderTest {
+
+    private static StoreImportReader reader(String body, StoreImportFormat format) {
+        return new StoreImportReader(
+                new BufferedReader(new StringReader(body)), format, new ObjectMapper());
+    }
+
+    @Test
+    void readsCsvRowsUsingHeaderOrder() throws Exception {
+        StoreImportReader reader =
+                reader(
+                        "quantityProductsInStock,name\n7,\"HAGA, Central\"\n\n3,KALLAX\n",
+                        StoreImportFormat.CSV);
+
+        StoreImportReader.Row first = reader.next();
+        assertTrue(first.valid());
+        assertEquals("HAGA, Central", first.name());
+        assertEquals(7, first.quantity());
+        assertEquals(2, first.line());
+
+        StoreImportReader.Row second = reader.next();
+        assertEquals("KALLAX", second.name());
+        assertEquals(4, second.line());
+
+        assertNull(reader.next());
+    }
+
+    @Test
+    void flagsInvalidCsvRowsWithoutStopping() throws Exception {
+        StoreImportReader reader =
+                reader(
+                        "name,quantityProductsInStock\n,4\nBILLY,-1\nMALM,abc\nPAX,2\n",
+                        StoreImportFormat.CSV);
+
+        assertFalse(reader.next().valid());
+        assertFalse(reader.next().valid());
+        assertFalse(reader.next().valid());
+        assertTrue(reader.next().valid());
+        assertNull(reader.next());
+    }
+
+    @Test
+    void rejectsCsvWithoutNameColumn() {
+        StoreImportReader reader = reader("label,quantity\nfoo,1\n", StoreImportFormat.CSV);
+
+        WebApplicationException ex = assertThrows(WebApplicationException.class, reader::next);
+        assertEquals(422, ex.getResponse().getStatus());
+    }
+
+    @Test
+    void readsNdjsonRows() throws Exception {
+        StoreImportReader reader =
+                reader(
+                        "{\"name\":\"TONSTAD\",\"quantityProductsInStock\":10}\n"
+                                + "{\"name\":\"KALLAX\"}\n"
+                                + "not json\n"
+                                + "{\"id\":5,\"name\":\"BESTÅ\"}\n",
+                        StoreImportFormat.NDJSON);
+
+        StoreImportReader.Row first = reader.next();
+        assertEquals("TONSTAD", first.name());
+        assertEquals(10, first.quantity());
+
+        StoreImportReader.Row second = reader.next();
+        assertEquals("KALLAX", second.name());
+        assertEquals(0, second.quantity());
+
+        assertFalse(reader.next().valid());
+        assertFalse(reader.next().valid());
+        assertNull(reader.next());
+    }
+
+    @Test
+    void rejectsOverlongNames() throws Exception {
+        StoreImportReader reader =
+                reader("{\"name\":\"" + "X".repeat(41) + "\"}", StoreImportFormat.NDJSON);
+
+        assertFalse(reader.next().valid());
+    }
+
+    @Test
+    void splitsQuotedCsvFields() {
+        assertEquals(List.of("a", "b \"c\"", ""), StoreImportReader.splitCsv("a,\"b \"\"c\"\"\","));
+        assertNull(StoreImportReader.splitCsv("\"open"));
+    }
+}
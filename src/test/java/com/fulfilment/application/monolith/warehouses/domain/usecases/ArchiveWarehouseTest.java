@@ -1,7 +1,7 @@
 package com.fulfilment.application.monolith.warehouses.domain.usecases;
 
+import com.fulfilment.application.monolith.errors.DomainException;
 import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
-import jakarta.ws.rs.WebApplicationException;
 import org.junit.jupiter.api.Test;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -26,7 +26,7 @@ class ArchiveWarehouseTest {
         Warehouse created = buildWarehouse("BU-1", "AMSTERDAM-001", 10, 5);
         store.create(created);
 
-        new ArchiveWarehouse(store).archive(created.id);
+        new ArchiveWarehouse(store, new InMemoryWarehouseAssignmentStore()).archive(created.id);
 
         Warehouse archived =
                 store.getAll().stream()
@@ -36,23 +36,41 @@ class ArchiveWarehouseTest {
         assertNotNull(archived.archivedAt);
     }
 
+    @Test
+    void archiveDetachesOnlyTheArchivedWarehousesAssignments() {
+        InMemoryWarehouseStore store = new InMemoryWarehouseStore();
+        InMemoryWarehouseAssignmentStore assignments = new InMemoryWarehouseAssignmentStore();
+        Warehouse created = buildWarehouse("BU-1", "AMSTERDAM-001", 10, 5);
+        store.create(created);
+        assignments.assign("BU-1", 3);
+        assignments.assign("BU-2", 2);
+
+        long detached = new ArchiveWarehouse(store, assignments).archive(created.id);
+
+        assertEquals(3, detached);
+        assertEquals(0, assignments.count("BU-1"));
+        assertEquals(2, assignments.count("BU-2"));
+    }
+
     @Test
     void archiveRejectsMissingWarehouse() {
-        ArchiveWarehouse uc = new ArchiveWarehouse(new InMemoryWarehouseStore());
+        ArchiveWarehouse uc =
+                new ArchiveWarehouse(
+                        new InMemoryWarehouseStore(), new InMemoryWarehouseAssignmentStore());
 
-        WebApplicationException ex =
-                assertThrows(WebApplicationException.class, () -> uc.archive(9999L));
-        assertEquals(404, ex.getResponse().getStatus());
+        DomainException ex =
+                assertThrows(DomainException.class, () -> uc.archive(9999L));
+        assertEquals(404, ex.status());
     }
 
     @Test
     void archiveRejectsNullId() {
-        ArchiveWarehouse uc = new ArchiveWarehouse(new InMemoryWarehouseStore());
+        ArchiveWarehouse uc =
+                new ArchiveWarehouse(
+                        new InMemoryWarehouseStore(), new InMemoryWarehouseAssignmentStore());
 
         assertEquals(
                 422,
-                assertThrows(WebApplicationException.class, () -> uc.archive(null))
-                        .getResponse()
-                        .getStatus());
+                assertThrows(DomainException.class, () -> uc.archive(null)).status());
     }
 }
@@ -1,9 +1,12 @@
 package com.fulfilment.application.monolith.warehouses.domain.usecases;
 
+import com.fulfilment.application.monolith.errors.DomainException;
+import com.fulfilment.application.monolith.errors.ErrorCode;
 import com.fulfilment.application.monolith.warehouses.domain.models.Location;
 import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
 import com.fulfilment.application.monolith.warehouses.domain.ports.LocationResolver;
-import jakarta.ws.rs.WebApplicationException;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -47,11 +50,39 @@ class CreateWarehouseTest {
 
         uc.create(buildWarehouse("BU-1", "AMSTERDAM-001", 10, 5));
 
-        WebApplicationException ex =
+        DomainException ex =
                 assertThrows(
-                        WebApplicationException.class,
+                        DomainException.class,
                         () -> uc.create(buildWarehouse("BU-1", "AMSTERDAM-001", 10, 5)));
-        assertEquals(409, ex.getResponse().getStatus());
+        assertEquals(409, ex.status());
+        assertEquals(ErrorCode.DUPLICATE_BUSINESS_UNIT_CODE, ex.code());
+    }
+
+    @Test
+    void rejectionsAreCountedByReason() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        Metrics.addRegistry(registry);
+        try {
+            CreateWarehouse uc = new CreateWarehouse(new InMemoryWarehouseStore(), id -> null);
+
+            assertThrows(
+                    DomainException.class,
+                    () -> uc.create(buildWarehouse("BU-1", "NOWHERE-001", 10, 5)));
+            assertThrows(
+                    DomainException.class,
+                    () -> uc.create(buildWarehouse("BU-1", "NOWHERE-001", 0, 5)));
+
+            assertEquals(
+                    1.0,
+                    registry.counter(WarehouseValidator.REJECTIONS, "reason", "unknown-location")
+                            .count());
+            assertEquals(
+                    1.0,
+                    registry.counter(WarehouseValidator.REJECTIONS, "reason", "invalid-capacity")
+                            .count());
+        } finally {
+            Metrics.removeRegistry(registry);
+        }
     }
 
     @Test
@@ -59,11 +90,11 @@ class CreateWarehouseTest {
         LocationResolver resolver = id -> null;
         CreateWarehouse uc = new CreateWarehouse(new InMemoryWarehouseStore(), resolver);
 
-        WebApplicationException ex =
+        DomainException ex =
                 assertThrows(
-                        WebApplicationException.class,
+                        DomainException.class,
                         () -> uc.create(buildWarehouse("BU-2", "NOPE", 10, 5)));
-        assertEquals(422, ex.getResponse().getStatus());
+        assertEquals(422, ex.status());
     }
 
     @Test
@@ -71,11 +102,11 @@ class CreateWarehouseTest {
         LocationResolver resolver = id -> new Location(id, 10, 100);
         CreateWarehouse uc = new CreateWarehouse(new InMemoryWarehouseStore(), resolver);
 
-        WebApplicationException ex =
+        DomainException ex =
                 assertThrows(
-                        WebApplicationException.class,
+                        DomainException.class,
                         () -> uc.create(buildWarehouse("BU-3", "AMSTERDAM-001", 10, 11)));
-        assertEquals(422, ex.getResponse().getStatus());
+        assertEquals(422, ex.status());
     }
 
     @Test
@@ -86,11 +117,11 @@ class CreateWarehouseTest {
 
         uc.create(buildWarehouse("BU-1", "ZWOLLE-001", 10, 1));
 
-        WebApplicationException ex =
+        DomainException ex =
                 assertThrows(
-                        WebApplicationException.class,
+                        DomainException.class,
                         () -> uc.create(buildWarehouse("BU-2", "ZWOLLE-001", 10, 1)));
-        assertEquals(422, ex.getResponse().getStatus());
+        assertEquals(422, ex.status());
     }
 
     @Test
@@ -101,10 +132,10 @@ class CreateWarehouseTest {
 
         uc.create(buildWarehouse("BU-1", "AMSTERDAM-001", 10, 1));
 
-        WebApplicationException ex =
+        DomainException ex =
                 assertThrows(
-                        WebApplicationException.class,
+                        DomainException.class,
                         () -> uc.create(buildWarehouse("BU-2", "AMSTERDAM-001", 10, 1)));
-        assertEquals(422, ex.getResponse().getStatus());
+        assertEquals(422, ex.status());
     }
 }
@@ -0,0 +1,26 @@
+package com.fulfilment.application.monolith.warehouses.domain.usecases;
+
+import com.fulfilment.application.monolith.warehouses.domain.ports.WarehouseAssignmentStore;
+
+import java.util.HashMap;
+import java.util.Map;
+
+class InMemoryWarehouseAssignmentStore implements WarehouseAssignmentStore {
+
+    private final Map<String, Long> assignments = new HashMap<>();
+
+    void assign(String businessUnitCode, long count) {
+        assignments.merge(businessUnitCode, count, Long::sum);
+    }
+
+    @Override
+    public long detachAll(String businessUnitCode) {
+        Long removed = assignments.remove(businessUnitCode);
+        return removed == null ? 0 : removed;
+    }
+
+    @Override
+    public long count(String businessUnitCode) {
+        return assignments.getOrDefault(businessUnitCode, 0L);
+    }
+}
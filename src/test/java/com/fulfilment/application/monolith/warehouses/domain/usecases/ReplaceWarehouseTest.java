@@ -1,7 +1,8 @@
 package com.fulfilment.application.monolith.warehouses.domain.usecases;
 
+import com.fulfilment.application.monolith.errors.DomainException;
+import com.fulfilment.application.monolith.errors.ErrorCode;
 import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
-import jakarta.ws.rs.WebApplicationException;
 import org.junit.jupiter.api.Test;
 
 import java.util.List;
@@ -27,7 +28,7 @@ class ReplaceWarehouseTest {
     void replaceArchivesOldAndCreatesNew() {
         InMemoryWarehouseStore store = new InMemoryWarehouseStore();
         store.create(buildWarehouse("BU-1", "AMSTERDAM-001", 10, 5));
-        ReplaceWarehouse uc = new ReplaceWarehouse(store);
+        ReplaceWarehouse uc = new ReplaceWarehouse(store, new InMemoryWarehouseAssignmentStore());
 
         uc.replace(buildWarehouse("BU-1", "AMSTERDAM-001", 20, 5));
 
@@ -48,96 +49,98 @@ class ReplaceWarehouseTest {
         assertEquals(10, archived.capacity);
     }
 
+    @Test
+    void replaceKeepsAssignmentsOfTheBusinessUnit() {
+        InMemoryWarehouseStore store = new InMemoryWarehouseStore();
+        InMemoryWarehouseAssignmentStore assignments = new InMemoryWarehouseAssignmentStore();
+        store.create(buildWarehouse("BU-1", "AMSTERDAM-001", 10, 5));
+        assignments.assign("BU-1", 4);
+
+        long carried =
+                new ReplaceWarehouse(store, assignments)
+                        .replace(buildWarehouse("BU-1", "AMSTERDAM-001", 20, 5));
+
+        assertEquals(4, carried);
+        assertEquals(4, assignments.count("BU-1"));
+    }
+
     @Test
     void replaceRejectsStockMismatch() {
         InMemoryWarehouseStore store = new InMemoryWarehouseStore();
         store.create(buildWarehouse("BU-1", "AMSTERDAM-001", 10, 5));
-        ReplaceWarehouse uc = new ReplaceWarehouse(store);
+        ReplaceWarehouse uc = new ReplaceWarehouse(store, new InMemoryWarehouseAssignmentStore());
 
-        WebApplicationException ex =
+        DomainException ex =
                 assertThrows(
-                        WebApplicationException.class,
+                        DomainException.class,
                         () -> uc.replace(buildWarehouse("BU-1", "AMSTERDAM-001", 10, 4)));
-        assertEquals(422, ex.getResponse().getStatus());
+        assertEquals(422, ex.status());
     }
 
     @Test
     void replaceRejectsCapacityTooSmall() {
         InMemoryWarehouseStore store = new InMemoryWarehouseStore();
         store.create(buildWarehouse("BU-1", "AMSTERDAM-001", 10, 9));
-        ReplaceWarehouse uc = new ReplaceWarehouse(store);
+        ReplaceWarehouse uc = new ReplaceWarehouse(store, new InMemoryWarehouseAssignmentStore());
 
-        WebApplicationException ex =
+        DomainException ex =
                 assertThrows(
-                        WebApplicationException.class,
+                        DomainException.class,
                         () -> uc.replace(buildWarehouse("BU-1", "AMSTERDAM-001", 8, 9)));
-        assertEquals(422, ex.getResponse().getStatus());
+        assertEquals(422, ex.status());
     }
 
     @Test
     void replaceRejectsDifferentLocation() {
         InMemoryWarehouseStore store = new InMemoryWarehouseStore();
         store.create(buildWarehouse("BU-1", "AMSTERDAM-001", 10, 5));
-        ReplaceWarehouse uc = new ReplaceWarehouse(store);
+        ReplaceWarehouse uc = new ReplaceWarehouse(store, new InMemoryWarehouseAssignmentStore());
 
-        WebApplicationException ex =
+        DomainException ex =
                 assertThrows(
-                        WebApplicationException.class,
+                        DomainException.class,
                         () -> uc.replace(buildWarehouse("BU-1", "ZWOLLE-001", 10, 5)));
-        assertEquals(422, ex.getResponse().getStatus());
+        assertEquals(422, ex.status());
     }
 
     @Test
     void replaceReturns404WhenWarehouseDoesNotExist() {
-        ReplaceWarehouse uc = new ReplaceWarehouse(new InMemoryWarehouseStore());
+        ReplaceWarehouse uc =
+                new ReplaceWarehouse(
+                        new InMemoryWarehouseStore(), new InMemoryWarehouseAssignmentStore());
 
-        WebApplicationException ex =
+        DomainException ex =
                 assertThrows(
-                        WebApplicationException.class,
+                        DomainException.class,
                         () -> uc.replace(buildWarehouse("BU-404", "AMSTERDAM-001", 10, 5)));
-        assertEquals(404, ex.getResponse().getStatus());
+        assertEquals(404, ex.status());
     }
 
     @Test
     void replaceRejectsInvalidInput() {
-        ReplaceWarehouse uc = new ReplaceWarehouse(new InMemoryWarehouseStore());
+        ReplaceWarehouse uc =
+                new ReplaceWarehouse(
+                        new InMemoryWarehouseStore(), new InMemoryWarehouseAssignmentStore());
 
-        assertEquals(
-                422,
-                assertThrows(WebApplicationException.class, () -> uc.replace(null))
-                        .getResponse()
-                        .getStatus());
+        assertEquals(ErrorCode.MISSING_PAYLOAD, rejection(uc, null));
 
         assertEquals(
-                422,
-                assertThrows(
-                        WebApplicationException.class,
-                        () -> uc.replace(buildWarehouse("  ", "AMSTERDAM-001", 10, 5)))
-                        .getResponse()
-                        .getStatus());
+                ErrorCode.MISSING_BUSINESS_UNIT_CODE,
+                rejection(uc, buildWarehouse("  ", "AMSTERDAM-001", 10, 5)));
 
         assertEquals(
-                422,
-                assertThrows(
-                        WebApplicationException.class,
-                        () -> uc.replace(buildWarehouse("BU-1", null, 10, 5)))
-                        .getResponse()
-                        .getStatus());
+                ErrorCode.MISSING_LOCATION, rejection(uc, buildWarehouse("BU-1", null, 10, 5)));
 
         assertEquals(
-                422,
-                assertThrows(
-                        WebApplicationException.class,
-                        () -> uc.replace(buildWarehouse("BU-1", "AMSTERDAM-001", 0, 5)))
-                        .getResponse()
-                        .getStatus());
+                ErrorCode.INVALID_CAPACITY,
+                rejection(uc, buildWarehouse("BU-1", "AMSTERDAM-001", 0, 5)));
 
         assertEquals(
-                422,
-                assertThrows(
-                        WebApplicationException.class,
-                        () -> uc.replace(buildWarehouse("BU-1", "AMSTERDAM-001", 10, -1)))
-                        .getResponse()
-                        .getStatus());
+                ErrorCode.INVALID_STOCK,
+                rejection(uc, buildWarehouse("BU-1", "AMSTERDAM-001", 10, -1)));
+    }
+
+    private static ErrorCode rejection(ReplaceWarehouse uc, Warehouse warehouse) {
+        return assertThrows(DomainException.class, () -> uc.replace(warehouse)).code();
     }
 }